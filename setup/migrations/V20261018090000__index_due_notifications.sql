@@ -0,0 +1,2 @@
+-- Support keyset paging through due notifications by (date_scheduled, id)
+CREATE INDEX `notification_due_idx` ON `notification` (`notification_status`, `date_scheduled`, `id`);
@@ -0,0 +1,2 @@
+-- Support reading due notifications of selected types, such as the IMMEDIATE types
+CREATE INDEX `notification_type_due_idx` ON `notification` (`notification_status`, `notification_type`, `date_scheduled`, `id`);
@@ -0,0 +1,23 @@
+-- Expose the delivery provider, message SID and delivery status stored in the notification status metadata as indexed
+-- columns, so the Twilio status poll does not evaluate JSON functions for every sent notification.
+-- deliveryDetails is a JSON document serialized as a string, so it is checked with JSON_VALID before it is parsed.
+ALTER TABLE `notification`
+  ADD COLUMN `delivery_provider` varchar(20) GENERATED ALWAYS AS (
+    CASE
+      WHEN JSON_VALID(`notification_status_metadata`->>'$.dispatchResult.deliveryDetails')
+        AND JSON_CONTAINS_PATH(`notification_status_metadata`->>'$.dispatchResult.deliveryDetails', 'one', '$.accountSid')
+      THEN 'TWILIO'
+    END) STORED,
+  ADD COLUMN `message_sid` varchar(64) GENERATED ALWAYS AS (
+    CASE
+      WHEN JSON_VALID(`notification_status_metadata`->>'$.dispatchResult.deliveryDetails')
+      THEN JSON_UNQUOTE(JSON_EXTRACT(`notification_status_metadata`->>'$.dispatchResult.deliveryDetails', '$.sid'))
+    END) STORED,
+  ADD COLUMN `delivery_status` varchar(30) GENERATED ALWAYS AS (
+    CASE
+      WHEN JSON_VALID(`notification_status_metadata`->>'$.dispatchResult.deliveryDetails')
+      THEN JSON_UNQUOTE(JSON_EXTRACT(`notification_status_metadata`->>'$.dispatchResult.deliveryDetails', '$.status'))
+    END) STORED;
+
+CREATE INDEX `notification_delivery_status_idx` ON `notification` (`delivery_provider`, `notification_status`, `delivery_status`, `id`);
+CREATE INDEX `notification_message_sid_idx` ON `notification` (`message_sid`);
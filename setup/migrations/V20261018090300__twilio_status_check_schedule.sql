@@ -0,0 +1,16 @@
+-- Schedule the Twilio status check of each message separately, so the poll only reads messages that are due and keeps
+-- checking a message until Twilio reports a final status. The batch job sets the first check when it records a Twilio
+-- message, so the column is NULL for every other notification and the index only covers the messages being polled.
+-- The schedule is cleared once a final status is recorded or the checks are given up.
+ALTER TABLE `notification`
+  ADD COLUMN `next_status_check_at` datetime NULL DEFAULT NULL,
+  ADD COLUMN `status_check_attempts` int NOT NULL DEFAULT 0;
+
+UPDATE `notification`
+SET `next_status_check_at` = CURRENT_TIMESTAMP
+WHERE `delivery_provider` = 'TWILIO'
+  AND (`delivery_status` IS NULL
+    OR `delivery_status` NOT IN ('DELIVERED', 'UNDELIVERED', 'FAILED', 'READ', 'CANCELED'));
+
+DROP INDEX `notification_delivery_status_idx` ON `notification`;
+CREATE INDEX `notification_status_check_idx` ON `notification` (`delivery_provider`, `next_status_check_at`, `id`);
@@ -0,0 +1,5 @@
+-- Support paging through the admin notification list by scheduled date, optionally filtered by type or recipient.
+-- Filtering by status uses the due notification indexes.
+CREATE INDEX `notification_date_scheduled_idx` ON `notification` (`date_scheduled`, `id`);
+CREATE INDEX `notification_type_date_idx` ON `notification` (`notification_type`, `date_scheduled`, `id`);
+CREATE INDEX `notification_recipient_date_idx` ON `notification` (`recipient_uuid`, `date_scheduled`, `id`);
@@ -0,0 +1,2 @@
+-- Cover the dashboard counts by scheduled date, type and status so they are read from the index alone
+CREATE INDEX `notification_date_type_status_idx` ON `notification` (`date_scheduled`, `notification_type`, `notification_status`);
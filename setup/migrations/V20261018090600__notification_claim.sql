@@ -0,0 +1,5 @@
+-- Claim a notification while it is sent outside the batch job, so that the batch job does not send it as well. The
+-- batch job skips notifications whose claim has not expired, and picks up any that were claimed but never sent once
+-- the claim expires.
+ALTER TABLE `notification`
+  ADD COLUMN `claimed_until` datetime NULL;
@@ -0,0 +1,4 @@
+-- Record which application instance claimed a notification, so that several instances can run the batch job against
+-- the same database. Each instance claims the due notifications it reads and only releases its own claims.
+ALTER TABLE `notification`
+  ADD COLUMN `claimed_by` varchar(255) NULL;
@@ -13,6 +13,28 @@ VALUES
 (0, NOW(), NOW(), 'en-US', 'notification.notificationStatus.validationMessage', 'Value must be present', 'Validation message for Notification status field', 0),
 (0, NOW(), NOW(), 'en-US', 'notification.notificationType.validationMessage', 'Value must be present', 'Validation message for Notification type field', 0),
 (0, NOW(), NOW(), 'en-US', 'notificationList.filter.all', 'All', 'Name of filter on Notification list page to show all notifications', 0),
+(0, NOW(), NOW(), 'en-US', 'notificationList.filter.from', 'Scheduled from', 'Label for the earliest scheduled date filter on the Notification list page', 0),
+(0, NOW(), NOW(), 'en-US', 'notificationList.filter.to', 'Scheduled to', 'Label for the latest scheduled date filter on the Notification list page', 0),
+(0, NOW(), NOW(), 'en-US', 'notificationList.filter.recipient', 'Recipient UUID', 'Label for the recipient filter on the Notification list page', 0),
+(0, NOW(), NOW(), 'en-US', 'notificationList.filter.sort', 'Sort by', 'Label for the sort field on the Notification list page', 0),
+(0, NOW(), NOW(), 'en-US', 'notificationList.filter.direction', 'Sort direction', 'Label for the sort direction on the Notification list page', 0),
+(0, NOW(), NOW(), 'en-US', 'notificationList.filter.descending', 'Newest first', 'Option to sort the Notification list in descending order', 0),
+(0, NOW(), NOW(), 'en-US', 'notificationList.filter.ascending', 'Oldest first', 'Option to sort the Notification list in ascending order', 0),
+(0, NOW(), NOW(), 'en-US', 'notificationList.filter.apply', 'Filter', 'Button to apply the filters on the Notification list page', 0),
+(0, NOW(), NOW(), 'en-US', 'notificationList.page.label', 'Page', 'Label for the page navigation on the Notification list page', 0),
+(0, NOW(), NOW(), 'en-US', 'notificationList.page.previous', 'Previous', 'Link to the previous page of the Notification list', 0),
+(0, NOW(), NOW(), 'en-US', 'notificationList.page.next', 'Next', 'Link to the next page of the Notification list', 0),
+(0, NOW(), NOW(), 'en-US', 'notificationList.empty', 'No notifications match the filters.', 'Message shown when the Notification list is empty', 0),
+(0, NOW(), NOW(), 'en-US', 'notificationDashboard.title', 'Notification Dashboard', 'Heading of the Notification dashboard', 0),
+(0, NOW(), NOW(), 'en-US', 'notificationDashboard.generatedAt', 'Counted at', 'Label for the time the Notification dashboard counts were made', 0),
+(0, NOW(), NOW(), 'en-US', 'notificationDashboard.data', 'JSON', 'Link to the Notification dashboard counts as JSON', 0),
+(0, NOW(), NOW(), 'en-US', 'notificationDashboard.overdue', 'Overdue', 'Heading for notifications still scheduled for a past date', 0),
+(0, NOW(), NOW(), 'en-US', 'notificationDashboard.statusCounts', 'By status', 'Heading for notification counts by status, type and date', 0),
+(0, NOW(), NOW(), 'en-US', 'notificationDashboard.upcoming', 'Upcoming', 'Heading for counts of notifications scheduled in the coming days', 0),
+(0, NOW(), NOW(), 'en-US', 'notificationDashboard.today', 'today', 'Label for the current date on the Notification dashboard', 0),
+(0, NOW(), NOW(), 'en-US', 'notificationDashboard.oldestDateScheduled', 'Oldest date scheduled', 'Label for the earliest scheduled date of overdue notifications', 0),
+(0, NOW(), NOW(), 'en-US', 'notificationDashboard.count', 'Count', 'Label for a count of notifications', 0),
+(0, NOW(), NOW(), 'en-US', 'notificationDashboard.none', 'None', 'Message shown when there are no notifications to count', 0),
 (0, NOW(), NOW(), 'en-US', 'notificationStatusMetadata.validationFailed.label', 'Validation Failed', 'Label for heading indicating validation failed', 0),
 (0, NOW(), NOW(), 'en-US', 'notificationStatusMetadata.validationFailed.reason.label', 'Invalid Reason', 'Label for Invalid reason', 0),
 (0, NOW(), NOW(), 'en-US', 'notificationStatusMetadata.sendSuccessful.label', 'Sent', 'Label indicating send was successful', 0),
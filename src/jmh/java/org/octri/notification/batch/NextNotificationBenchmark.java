@@ -0,0 +1,60 @@
+package org.octri.notification.batch;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.octri.notification.ProgressionTrackerMetadataExample;
+import org.octri.notification.RecipientExample;
+import org.octri.notification.domain.DefaultNotificationStatus;
+import org.octri.notification.domain.Notification;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark for {@link NotificationItemWriter#nextNotification} over a reminder-day series that is mostly in the past,
+ * so the tracker has to skip most of the series before it finds the next date.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NextNotificationBenchmark {
+
+	@Param({ "10", "100", "1000" })
+	private int seriesLength;
+
+	private Notification notification;
+	private ProgressionTrackerMetadataExample tracker;
+
+	@Setup
+	public void setup() {
+		// Only the last reminder day falls after today
+		var reminderDays = IntStream.rangeClosed(0, seriesLength).boxed().toList();
+		tracker = new ProgressionTrackerMetadataExample(LocalDate.now().minusDays(seriesLength - 1), reminderDays);
+		notification = new Notification(new RecipientExample(UUID.randomUUID().toString()));
+		notification.setNotificationType("reminder");
+		notification.setNotificationStatus(DefaultNotificationStatus.SCHEDULED);
+		notification.setDateScheduled(tracker.getStartDate());
+		notification.setNotificationMetadata(tracker);
+	}
+
+	@Benchmark
+	public Optional<Notification> nextNotification() throws Exception {
+		return NotificationItemWriter.nextNotification(notification, tracker);
+	}
+
+}
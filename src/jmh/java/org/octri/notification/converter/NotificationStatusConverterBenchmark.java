@@ -0,0 +1,47 @@
+package org.octri.notification.converter;
+
+import java.util.concurrent.TimeUnit;
+
+import org.octri.notification.domain.NotificationStatus;
+import org.octri.notification.registry.NotificationStatusRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for {@link NotificationStatusPersistenceConverter#convertToEntityAttribute}, which runs for every
+ * notification Hibernate loads
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NotificationStatusConverterBenchmark {
+
+	private NotificationStatusPersistenceConverter converter;
+
+	@Setup
+	public void setup() {
+		converter = new NotificationStatusPersistenceConverter(new NotificationStatusRegistry());
+	}
+
+	@Benchmark
+	public NotificationStatus convertRegisteredStatus() {
+		return converter.convertToEntityAttribute("SCHEDULED");
+	}
+
+	@Benchmark
+	public NotificationStatus convertUnknownStatus() {
+		return converter.convertToEntityAttribute("INACTIVE");
+	}
+
+}
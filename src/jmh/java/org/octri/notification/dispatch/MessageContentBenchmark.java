@@ -0,0 +1,54 @@
+package org.octri.notification.dispatch;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.samskivert.mustache.Mustache;
+
+/**
+ * Benchmarks for {@link AbstractNotificationDispatcher#generateMessageContent} and the registered template variant
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageContentBenchmark {
+
+	private static final String TEMPLATE = "Hello {{firstName}} {{lastName}}, this is a reminder of your "
+			+ "{{visitName}} visit on {{visitDate}}. Reply STOP to stop receiving messages.";
+
+	private static final Map<String, String> VALUES = Map.of("firstName", "Jane", "lastName", "Doe", "visitName",
+			"Week 4", "visitDate", "October 20");
+
+	private TestNotificationDispatcher dispatcher;
+
+	@Setup
+	public void setup() {
+		dispatcher = new TestNotificationDispatcher(null, null, Mustache.compiler());
+		dispatcher.registerTemplate("reminder", TEMPLATE);
+	}
+
+	@Benchmark
+	public String generateMessageContent() {
+		return dispatcher.generateMessageContent(TEMPLATE, VALUES);
+	}
+
+	@Benchmark
+	public String generateRegisteredMessageContent() {
+		return dispatcher.generateRegisteredMessageContent("reminder", VALUES);
+	}
+
+}
@@ -0,0 +1,76 @@
+package org.octri.notification.domain;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.octri.notification.ProgressionTrackerMetadataExample;
+import org.octri.notification.RecipientExample;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for building a {@link Notification}, reading and writing its metadata and computing its dispatch key
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NotificationBenchmark {
+
+	private RecipientExample recipient;
+	private ProgressionTrackerMetadataExample metadata;
+	private String metadataJson;
+	private Notification notification;
+
+	@Setup
+	public void setup() {
+		recipient = new RecipientExample(UUID.randomUUID().toString());
+		metadata = new ProgressionTrackerMetadataExample(LocalDate.now(), List.of(1, 3, 7, 14, 30, 60, 90));
+		notification = createNotification();
+		metadataJson = notification.getNotificationMetadata();
+	}
+
+	@Benchmark
+	public Notification construct() {
+		return createNotification();
+	}
+
+	@Benchmark
+	public String serializeMetadata() {
+		return createNotification().getNotificationMetadata();
+	}
+
+	@Benchmark
+	public ProgressionTrackerMetadataExample deserializeMetadata() {
+		var copy = new Notification();
+		copy.setNotificationMetadata(metadataJson);
+		return copy.getNotificationMetadata(ProgressionTrackerMetadataExample.class);
+	}
+
+	@Benchmark
+	public String dispatchKey() {
+		return notification.getDispatchKey();
+	}
+
+	private Notification createNotification() {
+		var created = new Notification(recipient);
+		created.setNotificationType("reminder");
+		created.setNotificationStatus(DefaultNotificationStatus.SCHEDULED);
+		created.setDateScheduled(metadata.getStartDate());
+		created.setNotificationMetadata(metadata);
+		return created;
+	}
+
+}
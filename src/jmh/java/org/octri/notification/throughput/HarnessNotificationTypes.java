@@ -0,0 +1,137 @@
+package org.octri.notification.throughput;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import org.octri.messaging.service.MessageDeliveryService;
+import org.octri.notification.config.NotificationProperties;
+import org.octri.notification.dispatch.AbstractNotificationDispatcher;
+import org.octri.notification.dispatch.NotificationDispatcher;
+import org.octri.notification.domain.AbstractReminderDayProgressionTracker;
+import org.octri.notification.domain.DispatchResult;
+import org.octri.notification.domain.Notification;
+import org.octri.notification.metadata.NotificationMetadata;
+import org.octri.notification.registry.NotificationTypeProvider;
+import org.octri.notification.throughput.HarnessRecipients.HarnessRecipient;
+
+import com.samskivert.mustache.Mustache;
+
+/**
+ * The notification types used by the harness: email only, SMS only, email and SMS, and an SMS reminder series that
+ * creates the next reminder each time one is sent
+ */
+public class HarnessNotificationTypes {
+
+	/** Sends an email */
+	public static final String EMAIL = "harness-email";
+
+	/** Sends an SMS */
+	public static final String SMS = "harness-sms";
+
+	/** Sends an email and an SMS */
+	public static final String EMAIL_AND_SMS = "harness-email-sms";
+
+	/** Sends an SMS and schedules the next reminder in the series */
+	public static final String REMINDER = "harness-reminder";
+
+	/** All of the types, in the order synthetic notifications are assigned to them */
+	public static final List<String> TYPES = List.of(EMAIL, SMS, EMAIL_AND_SMS, REMINDER);
+
+	private static final String SUBJECT = "Upcoming study visit";
+	private static final String TEMPLATE = "Hello {{name}}, this is a reminder of your study visit on {{date}}. "
+			+ "Reply STOP to stop receiving messages.";
+
+	/**
+	 * Metadata for the reminder series
+	 */
+	public static class ReminderSeries extends AbstractReminderDayProgressionTracker {
+
+		/**
+		 * Default constructor for serialization.
+		 */
+		public ReminderSeries() {
+		}
+
+		/**
+		 *
+		 * @param startDate
+		 *            the date of the first reminder
+		 * @param reminderDays
+		 *            the reminder days, relative to the start date
+		 */
+		public ReminderSeries(LocalDate startDate, List<Integer> reminderDays) {
+			super(startDate, reminderDays);
+		}
+
+	}
+
+	/**
+	 * Sends each notification by email, SMS or both, using the harness recipients
+	 */
+	static class HarnessDispatcher extends AbstractNotificationDispatcher {
+
+		private final boolean email;
+		private final boolean sms;
+
+		HarnessDispatcher(MessageDeliveryService messageDeliveryService,
+				NotificationProperties notificationProperties, boolean email, boolean sms) {
+			super(messageDeliveryService, notificationProperties, Mustache.compiler());
+			this.email = email;
+			this.sms = sms;
+			registerTemplate(TEMPLATE, TEMPLATE);
+		}
+
+		@Override
+		public List<DispatchResult> handleDispatches(Notification notification) {
+			var recipient = (HarnessRecipient) notification.getRecipient();
+			var content = generateRegisteredMessageContent(TEMPLATE,
+					Map.of("name", recipient.email(), "date", notification.getDateScheduled().toString()));
+			if (email && sms) {
+				return List.of(sendEmail(recipient.email(), SUBJECT, content),
+						sendSms(recipient.phoneNumber(), content));
+			}
+			return List.of(email ? sendEmail(recipient.email(), SUBJECT, content)
+					: sendSms(recipient.phoneNumber(), content));
+		}
+
+	}
+
+	/**
+	 * Create the provider for one of the harness types
+	 *
+	 * @param notificationType
+	 *            one of {@link #TYPES}
+	 * @param messageDeliveryService
+	 *            the stub delivery service
+	 * @param notificationProperties
+	 *            the notification properties
+	 * @return the provider
+	 */
+	static NotificationTypeProvider provider(String notificationType, MessageDeliveryService messageDeliveryService,
+			NotificationProperties notificationProperties) {
+		var dispatcher = new HarnessDispatcher(messageDeliveryService, notificationProperties,
+				!notificationType.equals(SMS) && !notificationType.equals(REMINDER),
+				!notificationType.equals(EMAIL));
+		return new NotificationTypeProvider() {
+
+			@Override
+			public String getNotificationType() {
+				return notificationType;
+			}
+
+			@Override
+			public Class<? extends NotificationMetadata> getNotificationMetadata() {
+				return notificationType.equals(REMINDER) ? ReminderSeries.class
+						: NotificationTypeProvider.super.getNotificationMetadata();
+			}
+
+			@Override
+			public NotificationDispatcher getNotificationDispatcher() {
+				return dispatcher;
+			}
+
+		};
+	}
+
+}
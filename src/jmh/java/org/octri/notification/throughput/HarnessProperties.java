@@ -0,0 +1,37 @@
+package org.octri.notification.throughput;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings for the throughput harness. The library itself is configured with the usual
+ * {@code octri.notifications.*} properties.
+ *
+ * @param notifications
+ *            the number of synthetic notifications to create
+ * @param recipients
+ *            the number of distinct recipients the notifications are spread over
+ * @param reminderDays
+ *            the reminder-day series used by the reminder notifications
+ * @param emailLatency
+ *            how long the stub delivery service takes to send an email
+ * @param smsLatency
+ *            how long the stub delivery service takes to send an SMS
+ * @param twilioLatency
+ *            how long the stub Twilio helper takes to fetch a message
+ * @param undeliveredRate
+ *            the fraction of SMS messages Twilio reports as undelivered
+ */
+@ConfigurationProperties(prefix = "harness")
+public record HarnessProperties(
+		@DefaultValue("10000") int notifications,
+		@DefaultValue("1000") int recipients,
+		@DefaultValue({ "0", "1", "3", "7", "14", "30", "60", "90" }) List<Integer> reminderDays,
+		@DefaultValue("20ms") Duration emailLatency,
+		@DefaultValue("50ms") Duration smsLatency,
+		@DefaultValue("50ms") Duration twilioLatency,
+		@DefaultValue("0.02") double undeliveredRate) {
+}
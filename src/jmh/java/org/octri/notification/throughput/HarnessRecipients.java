@@ -0,0 +1,75 @@
+package org.octri.notification.throughput;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.octri.common.customizer.IdentifiableEntityFinder;
+import org.octri.notification.domain.Recipient;
+
+/**
+ * In-memory recipients for the synthetic notifications
+ */
+public class HarnessRecipients implements IdentifiableEntityFinder<HarnessRecipients.HarnessRecipient> {
+
+	/**
+	 * A recipient with an email address and a phone number
+	 *
+	 * @param uuid
+	 *            the recipient's uuid
+	 * @param email
+	 *            the recipient's email address
+	 * @param phoneNumber
+	 *            the recipient's phone number
+	 */
+	public record HarnessRecipient(String uuid, String email, String phoneNumber) implements Recipient {
+
+		@Override
+		public String getUuid() {
+			return uuid;
+		}
+
+		@Override
+		public String getLabel() {
+			return email;
+		}
+
+	}
+
+	private final Map<String, HarnessRecipient> recipients = new LinkedHashMap<>();
+
+	/**
+	 *
+	 * @param count
+	 *            the number of recipients to create
+	 */
+	public HarnessRecipients(int count) {
+		for (int i = 0; i < count; i++) {
+			var uuid = UUID.nameUUIDFromBytes(("recipient-" + i).getBytes(StandardCharsets.UTF_8)).toString();
+			recipients.put(uuid, new HarnessRecipient(uuid, "recipient" + i + "@example.com",
+					String.format("+1503%07d", i % 10_000_000)));
+		}
+	}
+
+	/**
+	 *
+	 * @return the recipients in the order they were created
+	 */
+	public List<HarnessRecipient> getRecipients() {
+		return new ArrayList<>(recipients.values());
+	}
+
+	@Override
+	public Iterable<HarnessRecipient> findAll() {
+		return recipients.values();
+	}
+
+	@Override
+	public HarnessRecipient findByUuid(String uuid) {
+		return recipients.get(uuid);
+	}
+
+}
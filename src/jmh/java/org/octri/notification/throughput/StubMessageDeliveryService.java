@@ -0,0 +1,73 @@
+package org.octri.notification.throughput;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.octri.messaging.service.MessageDeliveryService;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Delivery service that waits for a fixed time instead of sending. SMS messages are answered with Twilio-style
+ * delivery details, so the Twilio status job picks them up.
+ */
+public class StubMessageDeliveryService implements MessageDeliveryService {
+
+	static final String ACCOUNT_SID = "AC00000000000000000000000000000000";
+
+	private static final ObjectMapper objectMapper = new ObjectMapper();
+
+	private final Duration emailLatency;
+	private final Duration smsLatency;
+
+	/**
+	 *
+	 * @param emailLatency
+	 *            how long sending an email takes
+	 * @param smsLatency
+	 *            how long sending an SMS takes
+	 */
+	public StubMessageDeliveryService(Duration emailLatency, Duration smsLatency) {
+		this.emailLatency = emailLatency;
+		this.smsLatency = smsLatency;
+	}
+
+	@Override
+	public Optional<String> sendEmail(String from, String to, String subject, String content) {
+		pause(emailLatency);
+		return Optional.empty();
+	}
+
+	@Override
+	public Optional<String> sendSms(String from, String to, String content) {
+		pause(smsLatency);
+		var random = ThreadLocalRandom.current();
+		var sid = String.format("SM%016x%016x", random.nextLong(), random.nextLong());
+		var deliveryDetails = objectMapper.createObjectNode()
+				.put("sid", sid)
+				.put("accountSid", ACCOUNT_SID)
+				.put("from", from)
+				.put("to", to)
+				.put("status", "queued");
+		try {
+			return Optional.of(objectMapper.writeValueAsString(deliveryDetails));
+		} catch (JsonProcessingException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	static void pause(Duration latency) {
+		if (latency.isZero() || latency.isNegative()) {
+			return;
+		}
+		try {
+			Thread.sleep(latency.toMillis(), latency.toNanosPart() % 1_000_000);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while simulating delivery", e);
+		}
+	}
+
+}
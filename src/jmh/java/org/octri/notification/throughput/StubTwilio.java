@@ -0,0 +1,100 @@
+package org.octri.notification.throughput;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.mockito.AdditionalAnswers;
+import org.mockito.Mockito;
+import org.octri.messaging.sms.TwilioHelper;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.twilio.rest.api.v2010.account.Message;
+
+/**
+ * Stands in for the {@link TwilioHelper} methods used by the Twilio status job. Fetching a message waits for a fixed
+ * time and reports it as delivered, or as undelivered for a fraction of messages. Delivery details are stored with
+ * camel-case names, as the messaging library stores them.
+ */
+public class StubTwilio {
+
+	private static final Set<Message.Status> FAILED_STATUSES = EnumSet.of(Message.Status.FAILED,
+			Message.Status.UNDELIVERED, Message.Status.CANCELED);
+
+	private static final ObjectMapper objectMapper = new ObjectMapper();
+
+	private final Duration fetchLatency;
+	private final double undeliveredRate;
+
+	/**
+	 *
+	 * @param fetchLatency
+	 *            how long fetching a message takes
+	 * @param undeliveredRate
+	 *            the fraction of messages reported as undelivered
+	 */
+	public StubTwilio(Duration fetchLatency, double undeliveredRate) {
+		this.fetchLatency = fetchLatency;
+		this.undeliveredRate = undeliveredRate;
+	}
+
+	/**
+	 * Create a {@link TwilioHelper} that delegates to this stub. The helper is a Mockito delegate so the harness does
+	 * not depend on how the messaging library constructs it.
+	 *
+	 * @return the helper
+	 */
+	public TwilioHelper toTwilioHelper() {
+		return Mockito.mock(TwilioHelper.class, AdditionalAnswers.delegatesTo(this));
+	}
+
+	public Message loadMessageFromString(String deliveryDetails) {
+		try {
+			var node = objectMapper.readTree(deliveryDetails);
+			return message(node.path("sid").asText(), node.path("status").asText(),
+					node.hasNonNull("errorCode") ? node.get("errorCode").asInt() : null);
+		} catch (JsonProcessingException e) {
+			throw new IllegalArgumentException("Invalid delivery details", e);
+		}
+	}
+
+	public Message fetchMessage(String messageSid) {
+		StubMessageDeliveryService.pause(fetchLatency);
+		return ThreadLocalRandom.current().nextDouble() < undeliveredRate
+				? message(messageSid, "undelivered", 30003)
+				: message(messageSid, "delivered", null);
+	}
+
+	public boolean isSuccessResponse(Message message) {
+		return !FAILED_STATUSES.contains(message.getStatus());
+	}
+
+	public String serializeMessageToJson(Message message) {
+		var node = objectMapper.createObjectNode()
+				.put("sid", message.getSid())
+				.put("accountSid", message.getAccountSid())
+				.put("status", message.getStatus().toString());
+		if (message.getErrorCode() != null) {
+			node.put("errorCode", message.getErrorCode());
+		}
+		try {
+			return objectMapper.writeValueAsString(node);
+		} catch (JsonProcessingException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static Message message(String sid, String status, Integer errorCode) {
+		var node = objectMapper.createObjectNode()
+				.put("sid", sid)
+				.put("account_sid", StubMessageDeliveryService.ACCOUNT_SID)
+				.put("status", status);
+		if (errorCode != null) {
+			node.put("error_code", errorCode);
+		}
+		return Message.fromJson(node.toString(), objectMapper);
+	}
+
+}
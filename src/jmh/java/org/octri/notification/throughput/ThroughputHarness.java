@@ -0,0 +1,113 @@
+package org.octri.notification.throughput;
+
+import java.time.Duration;
+
+import org.octri.messaging.service.MessageDeliveryService;
+import org.octri.messaging.sms.TwilioHelper;
+import org.octri.notification.config.NotificationProperties;
+import org.octri.notification.registry.NotificationTypeProvider;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * End-to-end throughput harness. It fills an in-memory H2 database with synthetic notifications, runs the
+ * notification job and the Twilio status job against stub delivery services with configurable latency, and reports
+ * throughput, per-stage latency percentiles and peak heap. Settings are read from {@code throughput.properties} and
+ * can be overridden on the command line, for example:
+ *
+ * <pre>
+ * mvn -P benchmark test-compile exec:exec@throughput -Dthroughput.args="--harness.notifications=50000 --octri.notifications.dispatch-concurrency=8"
+ * </pre>
+ */
+@SpringBootApplication
+@EnableConfigurationProperties(HarnessProperties.class)
+public class ThroughputHarness {
+
+	public static void main(String[] args) {
+		var context = new SpringApplicationBuilder(ThroughputHarness.class)
+				.properties("spring.config.name=throughput")
+				.run(args);
+		System.exit(SpringApplication.exit(context));
+	}
+
+	@Bean
+	public HarnessRecipients harnessRecipients(HarnessProperties harnessProperties) {
+		return new HarnessRecipients(harnessProperties.recipients());
+	}
+
+	@Bean
+	@Primary
+	public MessageDeliveryService stubMessageDeliveryService(HarnessProperties harnessProperties) {
+		return new StubMessageDeliveryService(harnessProperties.emailLatency(), harnessProperties.smsLatency());
+	}
+
+	@Bean
+	@Primary
+	public TwilioHelper stubTwilioHelper(HarnessProperties harnessProperties) {
+		return new StubTwilio(harnessProperties.twilioLatency(), harnessProperties.undeliveredRate()).toTwilioHelper();
+	}
+
+	/**
+	 * Registry for the library's metrics. Timers keep percentiles over the whole run rather than the default two
+	 * minute window.
+	 *
+	 * @return the meter registry
+	 */
+	@Bean
+	public MeterRegistry harnessMeterRegistry() {
+		var registry = new SimpleMeterRegistry();
+		registry.config().meterFilter(new MeterFilter() {
+
+			@Override
+			public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+				return DistributionStatisticConfig.builder()
+						.percentiles(0.5, 0.95, 0.99)
+						.expiry(Duration.ofDays(1))
+						.bufferLength(1)
+						.build()
+						.merge(config);
+			}
+
+		});
+		return registry;
+	}
+
+	@Bean
+	public NotificationTypeProvider harnessEmailType(MessageDeliveryService messageDeliveryService,
+			NotificationProperties notificationProperties) {
+		return HarnessNotificationTypes.provider(HarnessNotificationTypes.EMAIL, messageDeliveryService,
+				notificationProperties);
+	}
+
+	@Bean
+	public NotificationTypeProvider harnessSmsType(MessageDeliveryService messageDeliveryService,
+			NotificationProperties notificationProperties) {
+		return HarnessNotificationTypes.provider(HarnessNotificationTypes.SMS, messageDeliveryService,
+				notificationProperties);
+	}
+
+	@Bean
+	public NotificationTypeProvider harnessEmailAndSmsType(MessageDeliveryService messageDeliveryService,
+			NotificationProperties notificationProperties) {
+		return HarnessNotificationTypes.provider(HarnessNotificationTypes.EMAIL_AND_SMS, messageDeliveryService,
+				notificationProperties);
+	}
+
+	@Bean
+	public NotificationTypeProvider harnessReminderType(MessageDeliveryService messageDeliveryService,
+			NotificationProperties notificationProperties) {
+		return HarnessNotificationTypes.provider(HarnessNotificationTypes.REMINDER, messageDeliveryService,
+				notificationProperties);
+	}
+
+}
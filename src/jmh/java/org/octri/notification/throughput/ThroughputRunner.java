@@ -0,0 +1,168 @@
+package org.octri.notification.throughput;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.octri.notification.domain.DefaultNotificationStatus;
+import org.octri.notification.domain.Notification;
+import org.octri.notification.domain.ProcessingMode;
+import org.octri.notification.metadata.EmptyMetadata;
+import org.octri.notification.metrics.NotificationMetrics;
+import org.octri.notification.repository.NotificationJdbcWriter;
+import org.octri.notification.throughput.HarnessNotificationTypes.ReminderSeries;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Seeds the database, runs both jobs and prints the report
+ */
+@Component
+public class ThroughputRunner implements ApplicationRunner {
+
+	private static final Logger log = LoggerFactory.getLogger(ThroughputRunner.class);
+
+	private static final int SEED_BATCH_SIZE = 1000;
+	private static final int SCHEDULED_DAYS = 30;
+
+	private static final List<String> STAGE_TIMERS = List.of(NotificationMetrics.READER_PAGE,
+			NotificationMetrics.RECIPIENT_LOOKUP, NotificationMetrics.VALIDATION, NotificationMetrics.DISPATCH,
+			NotificationMetrics.TWILIO_FETCH);
+
+	private final HarnessProperties harnessProperties;
+	private final HarnessRecipients harnessRecipients;
+	private final NotificationJdbcWriter notificationJdbcWriter;
+	private final JdbcTemplate jdbcTemplate;
+	private final JobLauncher jobLauncher;
+	private final Job notificationJob;
+	private final ObjectProvider<Job> twilioUpdateJob;
+	private final MeterRegistry meterRegistry;
+
+	public ThroughputRunner(HarnessProperties harnessProperties, HarnessRecipients harnessRecipients,
+			NotificationJdbcWriter notificationJdbcWriter, JdbcTemplate jdbcTemplate, JobLauncher jobLauncher,
+			@Qualifier("notificationJob") Job notificationJob,
+			@Qualifier("twilioUpdateJob") ObjectProvider<Job> twilioUpdateJob, MeterRegistry meterRegistry) {
+		this.harnessProperties = harnessProperties;
+		this.harnessRecipients = harnessRecipients;
+		this.notificationJdbcWriter = notificationJdbcWriter;
+		this.jdbcTemplate = jdbcTemplate;
+		this.jobLauncher = jobLauncher;
+		this.notificationJob = notificationJob;
+		this.twilioUpdateJob = twilioUpdateJob;
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Override
+	public void run(ApplicationArguments args) throws Exception {
+		long start = System.nanoTime();
+		seed();
+		var report = new StringBuilder(String.format("%nSeeded %,d notifications for %,d recipients in %.1f s%n",
+				harnessProperties.notifications(), harnessProperties.recipients(),
+				(System.nanoTime() - start) / 1e9));
+
+		report.append(runJob(notificationJob, new JobParametersBuilder()
+				.addLong("time", System.currentTimeMillis())
+				.addString("processingMode", ProcessingMode.SCHEDULED.name())));
+		var twilioJob = twilioUpdateJob.getIfAvailable();
+		if (twilioJob == null) {
+			report.append(String.format(
+					"twilioUpdateJob was not run: Twilio is not configured for the messaging library%n"));
+		} else {
+			report.append(runJob(twilioJob, new JobParametersBuilder().addLong("time", System.currentTimeMillis())));
+		}
+
+		report.append(String.format("%nNotifications by status after the run:%n"));
+		jdbcTemplate.query("SELECT notification_status, COUNT(*) FROM notification GROUP BY notification_status "
+				+ "ORDER BY notification_status", rs -> {
+					report.append(String.format("  %-12s %,10d%n", rs.getString(1), rs.getLong(2)));
+				});
+		report.append(stageLatencies());
+		log.info(report.toString());
+	}
+
+	/**
+	 * Insert the synthetic notifications. Notifications are spread over the recipients first, then over the types and
+	 * then over the last 30 days, so duplicates only appear once every combination has been used.
+	 */
+	private void seed() {
+		var recipients = harnessRecipients.getRecipients();
+		var types = HarnessNotificationTypes.TYPES;
+		var today = LocalDate.now();
+		List<Notification> batch = new ArrayList<>(SEED_BATCH_SIZE);
+		for (int i = 0; i < harnessProperties.notifications(); i++) {
+			var type = types.get((i / recipients.size()) % types.size());
+			var dateScheduled = today.minusDays((i / (recipients.size() * types.size())) % SCHEDULED_DAYS);
+			var notification = new Notification(recipients.get(i % recipients.size()));
+			notification.setNotificationType(type);
+			notification.setNotificationStatus(DefaultNotificationStatus.SCHEDULED);
+			notification.setDateScheduled(dateScheduled);
+			notification.setNotificationMetadata(HarnessNotificationTypes.REMINDER.equals(type)
+					? new ReminderSeries(dateScheduled, harnessProperties.reminderDays())
+					: new EmptyMetadata());
+			batch.add(notification);
+			if (batch.size() == SEED_BATCH_SIZE) {
+				notificationJdbcWriter.insertAll(batch);
+				batch.clear();
+			}
+		}
+		notificationJdbcWriter.insertAll(batch);
+	}
+
+	private String runJob(Job job, JobParametersBuilder jobParameters) throws Exception {
+		var heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+				.filter(pool -> pool.getType() == MemoryType.HEAP)
+				.toList();
+		heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+		JobExecution execution = jobLauncher.run(job, jobParameters.toJobParameters());
+		long peakHeap = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+
+		var elapsed = Duration.between(execution.getStartTime(), execution.getEndTime());
+		// A partitioned step adds up the counts of its workers, whose step names are suffixed with the partition
+		var steps = execution.getStepExecutions().stream().filter(step -> !step.getStepName().contains(":")).toList();
+		long read = steps.stream().mapToLong(step -> step.getReadCount()).sum();
+		long written = steps.stream().mapToLong(step -> step.getWriteCount()).sum();
+		return String.format("%n%s %s in %.1f s: %,d read, %,d written, %.1f items/s, peak heap %,d MB%n",
+				job.getName(), execution.getStatus(), elapsed.toMillis() / 1000.0, read, written,
+				elapsed.isZero() ? 0.0 : written * 1000.0 / elapsed.toMillis(), peakHeap / (1024 * 1024));
+	}
+
+	private String stageLatencies() {
+		var report = new StringBuilder(String.format("%nStage latency (ms)%n  %-72s %9s %8s %8s %8s %8s %8s%n",
+				"timer", "count", "mean", "p50", "p95", "p99", "max"));
+		for (String name : STAGE_TIMERS) {
+			for (Timer timer : meterRegistry.find(name).timers()) {
+				var snapshot = timer.takeSnapshot();
+				double[] percentiles = new double[3];
+				for (var percentile : snapshot.percentileValues()) {
+					int index = percentile.percentile() == 0.5 ? 0 : percentile.percentile() == 0.95 ? 1 : 2;
+					percentiles[index] = percentile.value(TimeUnit.MILLISECONDS);
+				}
+				var tags = timer.getId().getTags().stream().map(tag -> tag.getKey() + "=" + tag.getValue())
+						.toList();
+				report.append(String.format("  %-72s %,9d %8.2f %8.2f %8.2f %8.2f %8.2f%n",
+						name + " " + String.join(",", tags), snapshot.count(), snapshot.mean(TimeUnit.MILLISECONDS),
+						percentiles[0], percentiles[1], percentiles[2], snapshot.max(TimeUnit.MILLISECONDS)));
+			}
+		}
+		return report.toString();
+	}
+
+}
@@ -0,0 +1,29 @@
+-- The notification table from setup/migrations, translated for H2. H2 does not have the MySQL JSON functions, so the
+-- generated delivery_provider and message_sid columns are approximated with string functions. The delivery_status
+-- column is left out because no query reads it.
+CREATE TABLE notification (
+  id bigint NOT NULL AUTO_INCREMENT PRIMARY KEY,
+  version int NOT NULL,
+  created_at timestamp NOT NULL,
+  updated_at timestamp NOT NULL,
+  updated_by varchar(320) DEFAULT NULL,
+  date_scheduled date NOT NULL,
+  recipient_uuid varchar(36) NOT NULL,
+  notification_status varchar(50) NOT NULL,
+  notification_type varchar(50) NOT NULL,
+  notification_metadata varchar(1000000) DEFAULT NULL,
+  date_time_processed timestamp DEFAULT NULL,
+  notification_status_metadata varchar(1000000) DEFAULT NULL,
+  delivery_provider varchar(20) GENERATED ALWAYS AS (
+    CASE WHEN notification_status_metadata LIKE '%accountSid%' THEN 'TWILIO' END),
+  message_sid varchar(64) GENERATED ALWAYS AS (REGEXP_SUBSTR(notification_status_metadata, 'SM[0-9a-f]{32}')),
+  next_status_check_at timestamp NULL DEFAULT NULL,
+  status_check_attempts int NOT NULL DEFAULT 0,
+  claimed_until timestamp NULL,
+  claimed_by varchar(255) NULL
+);
+
+CREATE INDEX notification_due_idx ON notification (notification_status, date_scheduled, id);
+CREATE INDEX notification_type_due_idx ON notification (notification_status, notification_type, date_scheduled, id);
+CREATE INDEX notification_status_check_idx ON notification (delivery_provider, next_status_check_at, id);
+CREATE INDEX notification_message_sid_idx ON notification (message_sid);
@@ -0,0 +1,146 @@
+package org.octri.notification.batch;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+import org.octri.notification.domain.DefaultNotificationStatus;
+import org.octri.notification.domain.Notification;
+import org.octri.notification.domain.ProcessingMode;
+import org.octri.notification.metrics.NotificationMetrics;
+import org.octri.notification.recipient.RecipientResolver;
+import org.octri.notification.registry.NotificationTypeRegistry;
+import org.octri.notification.repository.NotificationRepository;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+/**
+ * A reader for application instances that run the batch job against the same database. Each page of due notifications
+ * is claimed in its own short transaction: the rows are locked with {@code SELECT ... FOR UPDATE SKIP LOCKED}, so rows
+ * another instance is claiming are skipped rather than waited for, and are then marked with the name of the claim and
+ * a lease expiry. Every reader skips notifications with a lease that has not expired, so each notification is read by
+ * one instance and the instances share the backlog.
+ * <p>
+ * The notifications are loaded again after they are claimed, and keep the claim until the writer saves their outcome,
+ * so a page larger than a chunk stays claimed until its last chunk is written. When the step closes, the claims on
+ * notifications this reader returned but that were never written are released. If a chunk fails after it was written,
+ * or the application stops, the claims are kept until the lease expires, since the notifications may already have been
+ * sent.
+ */
+public class ClaimingNotificationItemReader extends NotificationItemReader {
+
+	private final NotificationRepository notificationRepository;
+	private final TransactionTemplate claimTransaction;
+	private final String claimedBy;
+	private final Duration claimLease;
+	private final List<Notification> claimedNotifications = new ArrayList<>();
+
+	/**
+	 *
+	 * @param notificationTypeRegistry
+	 *            the notification type registry
+	 * @param notificationRepository
+	 *            the notification repository
+	 * @param recipientResolver
+	 *            the resolver for recipients
+	 * @param jobProcessingMode
+	 *            the processing mode for the job
+	 * @param partitionTypes
+	 *            the notification types of the partition being read, or null to read every type of the processing
+	 *            mode
+	 * @param pageSize
+	 *            the number of notifications to claim at a time
+	 * @param notificationMetrics
+	 *            the metrics for page reads and recipient lookups
+	 * @param transactionManager
+	 *            the transaction manager used to claim each page
+	 * @param instanceName
+	 *            the name of this application instance, which must differ between instances
+	 * @param claimLease
+	 *            how long a claim lasts; it should be longer than it takes to process a page
+	 */
+	public ClaimingNotificationItemReader(NotificationTypeRegistry notificationTypeRegistry,
+			NotificationRepository notificationRepository, RecipientResolver recipientResolver,
+			ProcessingMode jobProcessingMode, Collection<String> partitionTypes, int pageSize,
+			NotificationMetrics notificationMetrics, PlatformTransactionManager transactionManager,
+			String instanceName, Duration claimLease) {
+		super(notificationTypeRegistry, notificationRepository, recipientResolver, jobProcessingMode, partitionTypes,
+				pageSize, notificationMetrics);
+		Assert.hasText(instanceName, "The name of the application instance must not be empty");
+		Assert.isTrue(claimLease.toSeconds() > 0, "The claim lease must be at least one second");
+		this.notificationRepository = notificationRepository;
+		this.claimTransaction = new TransactionTemplate(transactionManager);
+		this.claimTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		// Readers of partitions run in the same instance, so each claims in its own name and only releases its own
+		this.claimedBy = instanceName + "/" + UUID.randomUUID();
+		this.claimLease = claimLease;
+	}
+
+	/**
+	 * Claim a page of due notifications, then load them in the current transaction
+	 */
+	@Override
+	protected List<Notification> findDuePage(Set<String> notificationTypes, Set<String> excludedTypes,
+			LocalDate currentDate, LocalDate lastDateScheduled, Long lastId, Limit limit) {
+		List<Long> ids = claimTransaction.execute(status -> {
+			var pageIds = lockDuePage(notificationTypes, excludedTypes, currentDate, lastDateScheduled, lastId, limit)
+					.stream().map(Notification::getId).toList();
+			if (!pageIds.isEmpty()) {
+				notificationRepository.claimAll(pageIds, claimedBy, claimLease.toSeconds());
+			}
+			return pageIds;
+		});
+		if (ids.isEmpty()) {
+			return List.of();
+		}
+		var notifications = new HashMap<Long, Notification>();
+		notificationRepository.findAllById(ids)
+				.forEach(notification -> notifications.put(notification.getId(), notification));
+		var page = ids.stream().map(notifications::get).filter(Objects::nonNull).toList();
+		// The writer clears the claim on the notifications it writes, so only the unwritten ones need to be kept
+		claimedNotifications.removeIf(notification -> notification.getClaimedBy() == null);
+		claimedNotifications.addAll(page);
+		return page;
+	}
+
+	/**
+	 * Release the claims on the notifications that were read but never written, so that they can be read again without
+	 * waiting for the lease to expire
+	 */
+	@Override
+	public void close() throws ItemStreamException {
+		var unwrittenIds = claimedNotifications.stream()
+				.filter(notification -> claimedBy.equals(notification.getClaimedBy()))
+				.map(Notification::getId)
+				.toList();
+		claimedNotifications.clear();
+		if (!unwrittenIds.isEmpty()) {
+			claimTransaction.executeWithoutResult(
+					status -> notificationRepository.releaseClaims(unwrittenIds, claimedBy));
+		}
+	}
+
+	private List<Notification> lockDuePage(Set<String> notificationTypes, Set<String> excludedTypes,
+			LocalDate currentDate, LocalDate lastDateScheduled, Long lastId, Limit limit) {
+		if (notificationTypes != null) {
+			return notificationRepository.lockDuePageForTypes(DefaultNotificationStatus.SCHEDULED, notificationTypes,
+					currentDate, lastDateScheduled, lastId, limit);
+		} else if (!excludedTypes.isEmpty()) {
+			return notificationRepository.lockDuePageExcludingTypes(DefaultNotificationStatus.SCHEDULED,
+					excludedTypes, currentDate, lastDateScheduled, lastId, limit);
+		}
+		return notificationRepository.lockDuePage(DefaultNotificationStatus.SCHEDULED, currentDate, lastDateScheduled,
+				lastId, limit);
+	}
+
+}
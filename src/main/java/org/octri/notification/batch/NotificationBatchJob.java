@@ -1,8 +1,16 @@
 package org.octri.notification.batch;
 
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+
 import org.octri.notification.domain.ProcessingMode;
 import org.springframework.batch.core.Job;
-import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobExecution;
 import org.springframework.batch.core.JobParametersBuilder;
 import org.springframework.batch.core.configuration.DuplicateJobException;
 import org.springframework.batch.core.explore.JobExplorer;
@@ -10,15 +18,21 @@ import org.springframework.batch.core.launch.JobLauncher;
 import org.springframework.scheduling.annotation.Scheduled;
 
 /**
- * The component that handles running the job if it's not already in progress
+ * The component that handles running the jobs if they're not already in progress. IMMEDIATE and SCHEDULED
+ * notifications are processed by separate jobs, each with its own guard, so a long scheduled run does not hold back
+ * immediate notifications. Jobs can be run on the caller's thread or launched on the launch executor. Launches that
+ * arrive while a job is running are coalesced into one follow-up run, started as soon as the current run ends.
  */
 public class NotificationBatchJob {
 
 	private final JobExplorer jobExplorer;
 	private final JobLauncher jobLauncher;
-	private final Job notificationJob;
+	private final Executor launchExecutor;
+	private final String instanceName;
+	private final Map<ProcessingMode, Lane> lanes = new EnumMap<>(ProcessingMode.class);
 
 	/**
+	 * Create a batch job that runs both processing modes with one job, one at a time, on the caller's thread
 	 * 
 	 * @param jobExplorer
 	 *            the JobExplorer
@@ -28,28 +42,141 @@ public class NotificationBatchJob {
 	 *            the notificationJob bean
 	 */
 	public NotificationBatchJob(JobExplorer jobExplorer, JobLauncher jobLauncher, Job notificationJob) {
+		this(jobExplorer, jobLauncher, notificationJob, notificationJob, null);
+	}
+
+	/**
+	 * Create a batch job that runs both processing modes with one job, one at a time
+	 * 
+	 * @param jobExplorer
+	 *            the JobExplorer
+	 * @param jobLauncher
+	 *            the JobLauncher
+	 * @param notificationJob
+	 *            the notificationJob bean
+	 * @param launchExecutor
+	 *            the executor jobs are launched on by {@link #launchNotificationJob(ProcessingMode)}, or null to launch
+	 *            them on the caller's thread
+	 */
+	public NotificationBatchJob(JobExplorer jobExplorer, JobLauncher jobLauncher, Job notificationJob,
+			Executor launchExecutor) {
+		this(jobExplorer, jobLauncher, notificationJob, notificationJob, launchExecutor);
+	}
+
+	/**
+	 * 
+	 * @param jobExplorer
+	 *            the JobExplorer
+	 * @param jobLauncher
+	 *            the JobLauncher
+	 * @param notificationJob
+	 *            the job that processes SCHEDULED notifications
+	 * @param immediateNotificationJob
+	 *            the job that processes IMMEDIATE notifications. If it is the same job as notificationJob, the two
+	 *            modes run one at a time.
+	 * @param launchExecutor
+	 *            the executor jobs are launched on by {@link #launchNotificationJob(ProcessingMode)}, or null to launch
+	 *            them on the caller's thread
+	 */
+	public NotificationBatchJob(JobExplorer jobExplorer, JobLauncher jobLauncher, Job notificationJob,
+			Job immediateNotificationJob, Executor launchExecutor) {
+		this(jobExplorer, jobLauncher, notificationJob, immediateNotificationJob, launchExecutor, null);
+	}
+
+	/**
+	 * 
+	 * @param jobExplorer
+	 *            the JobExplorer
+	 * @param jobLauncher
+	 *            the JobLauncher
+	 * @param notificationJob
+	 *            the job that processes SCHEDULED notifications
+	 * @param immediateNotificationJob
+	 *            the job that processes IMMEDIATE notifications. If it is the same job as notificationJob, the two
+	 *            modes run one at a time.
+	 * @param launchExecutor
+	 *            the executor jobs are launched on by {@link #launchNotificationJob(ProcessingMode)}, or null to launch
+	 *            them on the caller's thread
+	 * @param instanceName
+	 *            the name of this application instance when several instances run the jobs against the same
+	 *            database, or null when only one does. The jobs of other instances then do not stop this instance
+	 *            from running its own, which is safe when the readers claim the notifications they read.
+	 */
+	public NotificationBatchJob(JobExplorer jobExplorer, JobLauncher jobLauncher, Job notificationJob,
+			Job immediateNotificationJob, Executor launchExecutor, String instanceName) {
 		this.jobExplorer = jobExplorer;
 		this.jobLauncher = jobLauncher;
-		this.notificationJob = notificationJob;
+		this.launchExecutor = launchExecutor != null ? launchExecutor : Runnable::run;
+		this.instanceName = instanceName;
+		var scheduledLane = new Lane(notificationJob);
+		lanes.put(ProcessingMode.SCHEDULED, scheduledLane);
+		lanes.put(ProcessingMode.IMMEDIATE, Objects.equals(notificationJob.getName(),
+				immediateNotificationJob.getName()) ? scheduledLane : new Lane(immediateNotificationJob));
 	}
 
 	/**
-	 * Run the batch process for sending notifications
+	 * Run the batch process for sending notifications and wait for it. If the job for the mode is already running in
+	 * this application, the run joins the follow-up run for the mode, the same way a launch does, and waits for that
+	 * instead. Launches that arrive while it runs are started once it ends.
 	 * 
 	 * @param mode
 	 *            the job ProcessingMode
 	 * @throws Exception
-	 *             exception thrown by the jobLauncher
+	 *             exception thrown by the jobLauncher, or DuplicateJobException if the job is running in another
+	 *             application instance
 	 */
 	public void runNotificationJob(ProcessingMode mode) throws Exception {
-		if (isJobRunning("notificationJob")) {
-			throw new DuplicateJobException("The notification job is already running.");
+		var lane = lanes.get(mode);
+		CompletableFuture<JobExecution> followUp = null;
+		synchronized (lane) {
+			if (lane.running) {
+				followUp = lane.followUps.computeIfAbsent(mode, m -> new CompletableFuture<>());
+			} else {
+				lane.running = true;
+			}
 		}
-		JobParameters jobParameters = new JobParametersBuilder()
-				.addLong("time", System.currentTimeMillis())
-				.addString("processingMode", mode.name())
-				.toJobParameters();
-		jobLauncher.run(notificationJob, jobParameters);
+		if (followUp != null) {
+			awaitFollowUp(followUp);
+			return;
+		}
+		try {
+			run(lane, mode);
+		} finally {
+			startNext(lane);
+		}
+	}
+
+	/**
+	 * Launch the batch process for sending notifications on the launch executor without waiting for it. If the job for
+	 * the mode is running, the launch is added to the follow-up run for the mode, which starts once the current run
+	 * ends. Any number of launches made during one run share the same follow-up run and future.
+	 * 
+	 * @param mode
+	 *            the job ProcessingMode
+	 * @return a future that completes with the JobExecution once the job has finished, or fails with the exception
+	 *         thrown by the jobLauncher
+	 */
+	public CompletableFuture<JobExecution> launchNotificationJob(ProcessingMode mode) {
+		var lane = lanes.get(mode);
+		var launched = new CompletableFuture<JobExecution>();
+		synchronized (lane) {
+			if (lane.running) {
+				return lane.followUps.computeIfAbsent(mode, m -> launched);
+			}
+			lane.running = true;
+		}
+		start(lane, mode, launched);
+		return launched;
+	}
+
+	/**
+	 * Launch the job to process IMMEDIATE notifications without waiting for it
+	 * 
+	 * @return a future that completes with the JobExecution once the job has finished
+	 * @see #launchNotificationJob(ProcessingMode)
+	 */
+	public CompletableFuture<JobExecution> launchImmediateNotificationJob() {
+		return launchNotificationJob(ProcessingMode.IMMEDIATE);
 	}
 
 	/**
@@ -63,17 +190,109 @@ public class NotificationBatchJob {
 	}
 
 	/**
-	 * Run the job to process SCHEDULED notifications.
+	 * Run the job to process SCHEDULED notifications. The SCHEDULED job leaves out IMMEDIATE types, so an IMMEDIATE run
+	 * is also launched to pick up any notifications whose own launch was missed, for example because the application
+	 * stopped before it ran.
 	 * 
 	 * @throws Exception
 	 *             exception thrown by the jobLauncher
 	 */
 	@Scheduled(cron = "${octri.notifications.schedule:@yearly}", scheduler = "notificationTaskScheduler")
 	public void runScheduledNotificationJob() throws Exception {
-		runNotificationJob(ProcessingMode.SCHEDULED);
+		boolean sharedLane = lanes.get(ProcessingMode.IMMEDIATE) == lanes.get(ProcessingMode.SCHEDULED);
+		if (!sharedLane) {
+			launchImmediateNotificationJob();
+		}
+		try {
+			runNotificationJob(ProcessingMode.SCHEDULED);
+		} finally {
+			if (sharedLane) {
+				launchImmediateNotificationJob();
+			}
+		}
+	}
+
+	private void start(Lane lane, ProcessingMode mode, CompletableFuture<JobExecution> launched) {
+		try {
+			launchExecutor.execute(() -> {
+				try {
+					launched.complete(run(lane, mode));
+				} catch (Throwable e) {
+					launched.completeExceptionally(e);
+				} finally {
+					startNext(lane);
+				}
+			});
+		} catch (RuntimeException e) {
+			launched.completeExceptionally(e);
+			startNext(lane);
+		}
+	}
+
+	/**
+	 * Start the next follow-up run of the lane, or record that nothing is running in it if there are none
+	 */
+	private void startNext(Lane lane) {
+		ProcessingMode mode;
+		CompletableFuture<JobExecution> launched;
+		synchronized (lane) {
+			Iterator<Map.Entry<ProcessingMode, CompletableFuture<JobExecution>>> pending = lane.followUps.entrySet()
+					.iterator();
+			if (!pending.hasNext()) {
+				lane.running = false;
+				return;
+			}
+			var next = pending.next();
+			mode = next.getKey();
+			launched = next.getValue();
+			pending.remove();
+		}
+		start(lane, mode, launched);
+	}
+
+	private void awaitFollowUp(CompletableFuture<JobExecution> followUp) throws Exception {
+		try {
+			followUp.get();
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof Exception cause) {
+				throw cause;
+			}
+			throw e;
+		}
+	}
+
+	private JobExecution run(Lane lane, ProcessingMode mode) throws Exception {
+		var jobParameters = new JobParametersBuilder()
+				.addLong("time", System.currentTimeMillis())
+				.addString("processingMode", mode.name());
+		if (instanceName == null) {
+			if (isJobRunning(lane.job.getName())) {
+				throw new DuplicateJobException("The " + lane.job.getName() + " job is already running.");
+			}
+		} else {
+			// Instances run on the same schedule, so the name keeps their runs from being the same job instance
+			jobParameters.addString("instanceName", instanceName);
+		}
+		return jobLauncher.run(lane.job, jobParameters.toJobParameters());
 	}
 
 	private boolean isJobRunning(String jobName) {
 		return jobExplorer.findRunningJobExecutions(jobName).size() > 0;
 	}
+
+	/**
+	 * A job with its own guard and follow-up runs. The state is guarded by the lane's monitor.
+	 */
+	private static final class Lane {
+
+		private final Job job;
+		private final Map<ProcessingMode, CompletableFuture<JobExecution>> followUps = new EnumMap<>(
+				ProcessingMode.class);
+		private boolean running;
+
+		private Lane(Job job) {
+			this.job = job;
+		}
+
+	}
 }
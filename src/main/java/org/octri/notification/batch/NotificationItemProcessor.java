@@ -3,6 +3,7 @@ package org.octri.notification.batch;
 import org.octri.notification.domain.Notification;
 import org.octri.notification.domain.Notification.NotificationStatusMetadata;
 import org.octri.notification.domain.ValidationResult;
+import org.octri.notification.metrics.NotificationMetrics;
 import org.octri.notification.registry.NotificationTypeRegistry;
 import org.octri.notification.validator.NotificationValidator;
 import org.slf4j.Logger;
@@ -17,6 +18,7 @@ public class NotificationItemProcessor implements ItemProcessor<Notification, No
 	private static final Logger logger = LoggerFactory.getLogger(NotificationItemProcessor.class);
 
 	private final NotificationTypeRegistry notificationTypeRegistry;
+	private final NotificationMetrics notificationMetrics;
 
 	/**
 	 * 
@@ -24,13 +26,29 @@ public class NotificationItemProcessor implements ItemProcessor<Notification, No
 	 *            the notification type registry
 	 */
 	public NotificationItemProcessor(NotificationTypeRegistry notificationTypeRegistry) {
+		this(notificationTypeRegistry, NotificationMetrics.NOOP);
+	}
+
+	/**
+	 * 
+	 * @param notificationTypeRegistry
+	 *            the notification type registry
+	 * @param notificationMetrics
+	 *            the metrics for validation time
+	 */
+	public NotificationItemProcessor(NotificationTypeRegistry notificationTypeRegistry,
+			NotificationMetrics notificationMetrics) {
 		this.notificationTypeRegistry = notificationTypeRegistry;
+		this.notificationMetrics = notificationMetrics;
 	}
 
 	@Override
 	public Notification process(Notification notification) {
 		logger.debug("Processing notification " + notification.getId());
+		long start = System.nanoTime();
 		ValidationResult validationResult = validate(notification);
+		notificationMetrics.recordValidation(notification.getNotificationType(), validationResult.successful(),
+				System.nanoTime() - start);
 		if (!validationResult.successful()) {
 			logger.debug("Notification is no longer valid");
 		}
@@ -1,75 +1,201 @@
 package org.octri.notification.batch;
 
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 
-import org.octri.common.customizer.IdentifiableEntityFinder;
 import org.octri.notification.domain.DefaultNotificationStatus;
 import org.octri.notification.domain.Notification;
 import org.octri.notification.domain.ProcessingMode;
-import org.octri.notification.domain.Recipient;
+import org.octri.notification.metrics.NotificationMetrics;
+import org.octri.notification.recipient.RecipientResolver;
 import org.octri.notification.registry.NotificationTypeRegistry;
 import org.octri.notification.repository.NotificationRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.batch.item.ItemReader;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.data.domain.Limit;
+import org.springframework.util.Assert;
 
 /**
- * The reader finds the notifications that are due for processing.
+ * The reader finds the notifications that are due for processing. Due notifications are read one page at a time,
+ * ordered by the (dateScheduled, id) keyset, so memory use does not grow with the size of the backlog and the first
+ * chunk can be processed before the whole backlog has been read.
  */
-public class NotificationItemReader implements ItemReader<Notification> {
+public class NotificationItemReader implements ItemStreamReader<Notification> {
 
 	private static final Logger logger = LoggerFactory.getLogger(NotificationItemReader.class);
 	private final NotificationTypeRegistry notificationTypeRegistry;
 	private final NotificationRepository notificationRepository;
 	private final ProcessingMode jobProcessingMode;
-	private final IdentifiableEntityFinder<?> recipientFinder;
-	private Iterator<Notification> notificationIterator;
+	private final RecipientResolver recipientResolver;
+	private final Set<String> partitionTypes;
+	private final int pageSize;
+	private final NotificationMetrics notificationMetrics;
+	private Iterator<Notification> notificationIterator = Collections.emptyIterator();
+	private LocalDate currentDate;
+	private LocalDate lastDateScheduled;
+	private Long lastId;
+	private Set<String> notificationTypes;
+	private Set<String> excludedTypes;
+	private boolean exhausted = false;
 
 	/**
-	 * 
+	 *
 	 * @param notificationTypeRegistry
 	 *            the notification type registry
 	 * @param notificationRepository
 	 *            the notification repository
-	 * @param recipientFinder
-	 *            the finder for recipients
+	 * @param recipientResolver
+	 *            the resolver for recipients
 	 * @param jobProcessingMode
 	 *            the processing mode for the job
+	 * @param pageSize
+	 *            the number of notifications to read from the database at a time
 	 */
 	public NotificationItemReader(NotificationTypeRegistry notificationTypeRegistry,
-			NotificationRepository notificationRepository, IdentifiableEntityFinder<?> recipientFinder,
-			ProcessingMode jobProcessingMode) {
+			NotificationRepository notificationRepository, RecipientResolver recipientResolver,
+			ProcessingMode jobProcessingMode, int pageSize) {
+		this(notificationTypeRegistry, notificationRepository, recipientResolver, jobProcessingMode, pageSize,
+				NotificationMetrics.NOOP);
+	}
+
+	/**
+	 *
+	 * @param notificationTypeRegistry
+	 *            the notification type registry
+	 * @param notificationRepository
+	 *            the notification repository
+	 * @param recipientResolver
+	 *            the resolver for recipients
+	 * @param jobProcessingMode
+	 *            the processing mode for the job
+	 * @param pageSize
+	 *            the number of notifications to read from the database at a time
+	 * @param notificationMetrics
+	 *            the metrics for page reads and recipient lookups
+	 */
+	public NotificationItemReader(NotificationTypeRegistry notificationTypeRegistry,
+			NotificationRepository notificationRepository, RecipientResolver recipientResolver,
+			ProcessingMode jobProcessingMode, int pageSize, NotificationMetrics notificationMetrics) {
+		this(notificationTypeRegistry, notificationRepository, recipientResolver, jobProcessingMode, null, pageSize,
+				notificationMetrics);
+	}
+
+	/**
+	 *
+	 * @param notificationTypeRegistry
+	 *            the notification type registry
+	 * @param notificationRepository
+	 *            the notification repository
+	 * @param recipientResolver
+	 *            the resolver for recipients
+	 * @param jobProcessingMode
+	 *            the processing mode for the job
+	 * @param partitionTypes
+	 *            the notification types of the partition being read, or null to read every type of the processing
+	 *            mode
+	 * @param pageSize
+	 *            the number of notifications to read from the database at a time
+	 * @param notificationMetrics
+	 *            the metrics for page reads and recipient lookups
+	 */
+	public NotificationItemReader(NotificationTypeRegistry notificationTypeRegistry,
+			NotificationRepository notificationRepository, RecipientResolver recipientResolver,
+			ProcessingMode jobProcessingMode, Collection<String> partitionTypes, int pageSize,
+			NotificationMetrics notificationMetrics) {
+		Assert.isTrue(pageSize > 0, "Page size must be greater than zero");
 		this.notificationTypeRegistry = notificationTypeRegistry;
 		this.notificationRepository = notificationRepository;
-		this.recipientFinder = recipientFinder;
+		this.recipientResolver = recipientResolver;
 		this.jobProcessingMode = jobProcessingMode;
+		this.partitionTypes = partitionTypes == null ? null : Set.copyOf(partitionTypes);
+		this.pageSize = pageSize;
+		this.notificationMetrics = notificationMetrics;
 	}
 
 	@Override
 	public Notification read() {
-		if (notificationIterator == null) {
-			LocalDate today = LocalDate.now();
-			List<Notification> notifications = notificationRepository
-					.findByNotificationStatusAndDateScheduledLessThanEqual(DefaultNotificationStatus.SCHEDULED, today);
-			if (ProcessingMode.IMMEDIATE.equals(jobProcessingMode)) {
-				notifications = notifications.stream().filter(notification -> {
-					var handler = notificationTypeRegistry.getHandler(notification.getNotificationType());
-					// Let through types with a null handler. The error will get flagged in the processor.
-					return handler != null ? ProcessingMode.IMMEDIATE.equals(handler.getProcessingMode()) : true;
-				}).toList();
+		while (!notificationIterator.hasNext() && !exhausted) {
+			notificationIterator = readPage().iterator();
+		}
+		return notificationIterator.hasNext() ? notificationIterator.next() : null;
+	}
+
+	/**
+	 * Read the next page of due notifications and advance the keyset past it. In IMMEDIATE mode only the registered
+	 * IMMEDIATE types are queried, so the run does not scan the scheduled backlog. In SCHEDULED mode the registered
+	 * IMMEDIATE types are left out, so the two modes can run at the same time without reading the same notifications.
+	 * A reader for a partition only queries the types of its partition. The recipients for the whole page are resolved
+	 * together and set on the notifications before they are processed.
+	 *
+	 * @return the next page of notifications
+	 */
+	private List<Notification> readPage() {
+		if (currentDate == null) {
+			// Fix the date and types for the whole run so later pages see the same backlog as the first
+			currentDate = LocalDate.now();
+			if (partitionTypes != null) {
+				notificationTypes = partitionTypes;
+			} else if (ProcessingMode.IMMEDIATE.equals(jobProcessingMode)) {
+				notificationTypes = Set.copyOf(notificationTypeRegistry.getRegisteredTypes(ProcessingMode.IMMEDIATE));
+			} else {
+				excludedTypes = Set.copyOf(notificationTypeRegistry.getRegisteredTypes(ProcessingMode.IMMEDIATE));
 			}
-			logger.debug(String.format("Reading %d past due scheduled notifications in %s processing mode",
-					notifications.size(), jobProcessingMode));
-			notificationIterator = notifications.iterator();
 		}
-		Notification notification = notificationIterator.hasNext() ? notificationIterator.next() : null;
-		if (notification != null) {
-			// Ensure the Recipient entity is set before processing
-			notification.setRecipient((Recipient) recipientFinder.findByUuid(notification.getRecipientUuid()));
+		if (notificationTypes != null && notificationTypes.isEmpty()) {
+			exhausted = true;
+			return List.of();
+		}
+		long start = System.nanoTime();
+		List<Notification> notifications = findDuePage(notificationTypes, excludedTypes, currentDate,
+				lastDateScheduled, lastId, Limit.of(pageSize));
+		exhausted = notifications.size() < pageSize;
+		if (!notifications.isEmpty()) {
+			var last = notifications.get(notifications.size() - 1);
+			lastDateScheduled = last.getDateScheduled();
+			lastId = last.getId();
+		}
+		logger.debug(String.format("Read a page of %d past due scheduled notifications in %s processing mode",
+				notifications.size(), jobProcessingMode));
+		long lookupStart = System.nanoTime();
+		notificationMetrics.recordReaderPage(jobProcessingMode, lookupStart - start);
+		recipientResolver.attachRecipients(notifications);
+		notificationMetrics.recordRecipientLookup(jobProcessingMode, System.nanoTime() - lookupStart);
+		return notifications;
+	}
+
+	/**
+	 * Find a page of due notifications
+	 *
+	 * @param notificationTypes
+	 *            the types to read, or null to read every type that is not excluded
+	 * @param excludedTypes
+	 *            the types to leave out when notificationTypes is null
+	 * @param currentDate
+	 *            the date to check for notifications against
+	 * @param lastDateScheduled
+	 *            the scheduled date of the last notification on the previous page, or null for the first page
+	 * @param lastId
+	 *            the id of the last notification on the previous page, or null for the first page
+	 * @param limit
+	 *            the maximum number of notifications to return
+	 * @return the page of notifications ordered by scheduled date and id
+	 */
+	protected List<Notification> findDuePage(Set<String> notificationTypes, Set<String> excludedTypes,
+			LocalDate currentDate, LocalDate lastDateScheduled, Long lastId, Limit limit) {
+		if (notificationTypes != null) {
+			return notificationRepository.findDuePageForTypes(DefaultNotificationStatus.SCHEDULED, notificationTypes,
+					currentDate, lastDateScheduled, lastId, limit);
+		} else if (!excludedTypes.isEmpty()) {
+			return notificationRepository.findDuePageExcludingTypes(DefaultNotificationStatus.SCHEDULED,
+					excludedTypes, currentDate, lastDateScheduled, lastId, limit);
 		}
-		return notification;
+		return notificationRepository.findDuePage(DefaultNotificationStatus.SCHEDULED, currentDate,
+				lastDateScheduled, lastId, limit);
 	}
 
 }
@@ -3,38 +3,81 @@ package org.octri.notification.batch;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
 
 import org.octri.notification.domain.DefaultNotificationStatus;
 import org.octri.notification.domain.DispatchResult;
 import org.octri.notification.domain.Notification;
 import org.octri.notification.domain.Notification.NotificationStatusMetadata;
+import org.octri.notification.domain.NotificationJson;
 import org.octri.notification.domain.ReminderDayProgressionTracker;
 import org.octri.notification.domain.ValidationResult;
+import org.octri.notification.metrics.NotificationMetrics;
 import org.octri.notification.registry.MissingHandlerException;
+import org.octri.notification.registry.NotificationHandler;
 import org.octri.notification.registry.NotificationTypeRegistry;
+import org.octri.notification.repository.NotificationJdbcWriter;
 import org.octri.notification.repository.NotificationRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.batch.item.Chunk;
 import org.springframework.batch.item.ItemWriter;
+import org.springframework.util.Assert;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 
 /**
- * The writer tries to send the notification if it is still valid and sets the status.
+ * The writer tries to send the notification if it is still valid and sets the status. Notifications with the same
+ * dispatch key are sent one after another so that a duplicate is only suppressed once an earlier copy has been sent
+ * successfully. If a dispatch executor and a concurrency greater than one are provided, notifications with different
+ * dispatch keys are sent concurrently. The results are applied and saved together once every dispatch in the chunk has
+ * finished. If a JDBC writer is provided, the new notifications created for the chunk are inserted with JDBC batch
+ * statements rather than through the repository. The writer can be shared by the worker steps of a partitioned step.
  */
 public class NotificationItemWriter implements ItemWriter<Notification> {
 
 	private static final Logger logger = LoggerFactory.getLogger(NotificationItemWriter.class);
 	private final NotificationRepository notificationRepository;
+	private final NotificationJdbcWriter notificationJdbcWriter;
 	private NotificationTypeRegistry notificationTypeRegistry;
-	private Set<String> dispatchedKeys = new HashSet<>();
+	private final Executor dispatchExecutor;
+	private final int dispatchConcurrency;
+	private final NotificationMetrics notificationMetrics;
+	private final Set<String> dispatchedKeys = ConcurrentHashMap.newKeySet();
 
 	/**
+	 * A notification in the chunk and the outcome of sending it
+	 */
+	private static class PendingDispatch {
+
+		private final Notification notification;
+		private final String dispatchKey;
+		private final ValidationResult validationResult;
+		private final NotificationHandler handler;
+		private List<DispatchResult> dispatchResults;
+		private boolean duplicate = false;
+
+		private PendingDispatch(Notification notification, ValidationResult validationResult,
+				NotificationHandler handler) {
+			this.notification = notification;
+			this.dispatchKey = notification.getDispatchKey();
+			this.validationResult = validationResult;
+			this.handler = handler;
+		}
+
+	}
+
+	/**
+	 * Create a writer that sends notifications one at a time
 	 * 
 	 * @param notificationRepository
 	 *            the notification repository
@@ -43,53 +86,174 @@ public class NotificationItemWriter implements ItemWriter<Notification> {
 	 */
 	public NotificationItemWriter(NotificationRepository notificationRepository,
 			NotificationTypeRegistry notificationTypeRegistry) {
+		this(notificationRepository, null, notificationTypeRegistry, null, 1);
+	}
+
+	/**
+	 * 
+	 * @param notificationRepository
+	 *            the notification repository
+	 * @param notificationJdbcWriter
+	 *            the inserter for new notifications, or null to save them through the repository
+	 * @param notificationTypeRegistry
+	 *            the notification type registry
+	 * @param dispatchExecutor
+	 *            the executor used to send notifications concurrently, or null to send them one at a time
+	 * @param dispatchConcurrency
+	 *            the maximum number of notifications in a chunk that are sent at the same time
+	 */
+	public NotificationItemWriter(NotificationRepository notificationRepository,
+			NotificationJdbcWriter notificationJdbcWriter, NotificationTypeRegistry notificationTypeRegistry,
+			Executor dispatchExecutor, int dispatchConcurrency) {
+		this(notificationRepository, notificationJdbcWriter, notificationTypeRegistry, dispatchExecutor,
+				dispatchConcurrency, NotificationMetrics.NOOP);
+	}
+
+	/**
+	 * 
+	 * @param notificationRepository
+	 *            the notification repository
+	 * @param notificationJdbcWriter
+	 *            the inserter for new notifications, or null to save them through the repository
+	 * @param notificationTypeRegistry
+	 *            the notification type registry
+	 * @param dispatchExecutor
+	 *            the executor used to send notifications concurrently, or null to send them one at a time
+	 * @param dispatchConcurrency
+	 *            the maximum number of notifications in a chunk that are sent at the same time
+	 * @param notificationMetrics
+	 *            the metrics for dispatch time, results and duplicates
+	 */
+	public NotificationItemWriter(NotificationRepository notificationRepository,
+			NotificationJdbcWriter notificationJdbcWriter, NotificationTypeRegistry notificationTypeRegistry,
+			Executor dispatchExecutor, int dispatchConcurrency, NotificationMetrics notificationMetrics) {
+		Assert.isTrue(dispatchConcurrency > 0, "Dispatch concurrency must be greater than zero");
 		this.notificationRepository = notificationRepository;
+		this.notificationJdbcWriter = notificationJdbcWriter;
 		this.notificationTypeRegistry = notificationTypeRegistry;
+		this.dispatchExecutor = dispatchExecutor;
+		this.dispatchConcurrency = dispatchConcurrency;
+		this.notificationMetrics = notificationMetrics;
 	}
 
 	@Override
 	public void write(Chunk<? extends Notification> notifications) throws Exception {
+		List<PendingDispatch> pendingDispatches = new ArrayList<>();
+		Map<String, List<PendingDispatch>> dispatchesByKey = new LinkedHashMap<>();
 		for (Notification notification : notifications) {
 			var notificationStatusMetadata = notification.getStatusMetadata();
 			notification.setDateTimeProcessed(LocalDateTime.now());
 			if (isNotificationValid(notificationStatusMetadata)) {
-				var dispatchKey = notification.getDispatchKey();
-				if (dispatchedKeys.contains(dispatchKey)) {
-					var validationResult = new ValidationResult(false, "Duplicate notification - will not be sent.");
-					notification.setNotificationStatusMetadata(new NotificationStatusMetadata(validationResult, null));
-					notification = updateInvalidNotification(notification);
-				} else {
-					var handler = notificationTypeRegistry.getHandler(notification.getNotificationType());
-					if (handler == null) {
-						throw new MissingHandlerException(
-								String.format("No handler found for notification type: %s",
-										notification.getNotificationType()));
-					}
-					var dispatcher = handler.getDispatcher();
-					var dispatchResults = dispatcher.handleDispatches(notification);
-					createAdditionalNotificationsIfNeeded(notification, dispatchResults);
-					if (notification
-							.getNotificationMetadata(
-									handler.getMetadataClass()) instanceof ReminderDayProgressionTracker) {
-						ReminderDayProgressionTracker progressionTracker = (ReminderDayProgressionTracker) notification
-								.getNotificationMetadata(handler.getMetadataClass());
-						Optional<Notification> nextNotification = nextNotification(notification, progressionTracker);
-						if (nextNotification.isPresent()) {
-							notificationRepository.save(nextNotification.get());
-						}
-					}
-					notification = updateDispatchedNotification(notification,
-							notificationStatusMetadata.validationResult(),
-							dispatchResults.get(0));
-					if (dispatchResults.get(0).successful()) {
-						dispatchedKeys.add(dispatchKey);
-					}
+				var handler = notificationTypeRegistry.getHandler(notification.getNotificationType());
+				if (handler == null) {
+					throw new MissingHandlerException(
+							String.format("No handler found for notification type: %s",
+									notification.getNotificationType()));
 				}
+				var pendingDispatch = new PendingDispatch(notification, notificationStatusMetadata.validationResult(),
+						handler);
+				pendingDispatches.add(pendingDispatch);
+				dispatchesByKey.computeIfAbsent(pendingDispatch.dispatchKey, k -> new ArrayList<>())
+						.add(pendingDispatch);
 			} else {
-				notification = updateInvalidNotification(notification);
+				updateInvalidNotification(notification);
+			}
+		}
+
+		dispatchAll(dispatchesByKey);
+
+		List<Notification> additionalNotifications = new ArrayList<>();
+		for (PendingDispatch pendingDispatch : pendingDispatches) {
+			var notification = pendingDispatch.notification;
+			if (pendingDispatch.duplicate) {
+				notificationMetrics.recordDuplicate(notification.getNotificationType());
+				var validationResult = new ValidationResult(false, "Duplicate notification - will not be sent.");
+				notification.setNotificationStatusMetadata(new NotificationStatusMetadata(validationResult, null));
+				updateInvalidNotification(notification);
+				continue;
+			}
+			var dispatchResults = pendingDispatch.dispatchResults;
+			additionalNotifications.addAll(createAdditionalNotificationsIfNeeded(notification, dispatchResults));
+			var metadata = notification.getNotificationMetadata(pendingDispatch.handler.getMetadataClass());
+			if (metadata instanceof ReminderDayProgressionTracker progressionTracker) {
+				nextNotification(notification, progressionTracker).ifPresent(additionalNotifications::add);
+			}
+			updateDispatchedNotification(notification, pendingDispatch.validationResult, dispatchResults.get(0));
+			if (dispatchResults.get(0).successful()) {
+				dispatchedKeys.add(pendingDispatch.dispatchKey);
 			}
+		}
+
+		// Saving the outcome releases any claim on the notifications written, and only on those
+		for (Notification notification : notifications) {
+			notification.setClaimedUntil(null);
+			notification.setClaimedBy(null);
+		}
+
+		// Notifications read in the chunk's transaction are already managed, so their updates are batched at flush
+		if (notificationJdbcWriter == null) {
+			List<Notification> toSave = new ArrayList<>(notifications.getItems());
+			toSave.addAll(additionalNotifications);
+			notificationRepository.saveAll(toSave);
+		} else {
+			notificationRepository.saveAll(notifications);
+			notificationJdbcWriter.insertAll(additionalNotifications);
+		}
+	}
+
+	/**
+	 * Send each group of notifications that share a dispatch key. Within a group, notifications are sent in order and
+	 * later ones are marked as duplicates once one has been sent successfully, whether in this chunk or an earlier one.
+	 * 
+	 * @param dispatchesByKey
+	 *            the notifications to send, grouped by dispatch key
+	 * @throws Exception
+	 *             the first exception thrown by a dispatcher
+	 */
+	private void dispatchAll(Map<String, List<PendingDispatch>> dispatchesByKey) throws Exception {
+		if (dispatchExecutor == null || dispatchConcurrency == 1 || dispatchesByKey.size() <= 1) {
+			for (var entry : dispatchesByKey.entrySet()) {
+				dispatchGroup(dispatchedKeys.contains(entry.getKey()), entry.getValue());
+			}
+			return;
+		}
+
+		Semaphore permits = new Semaphore(dispatchConcurrency);
+		List<CompletableFuture<Void>> futures = new ArrayList<>();
+		for (var entry : dispatchesByKey.entrySet()) {
+			boolean alreadyDispatched = dispatchedKeys.contains(entry.getKey());
+			permits.acquire();
+			try {
+				futures.add(CompletableFuture.runAsync(() -> dispatchGroup(alreadyDispatched, entry.getValue()),
+						dispatchExecutor).whenComplete((result, e) -> permits.release()));
+			} catch (RuntimeException e) {
+				permits.release();
+				throw e;
+			}
+		}
+		try {
+			CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof Exception cause) {
+				throw cause;
+			}
+			throw e;
+		}
+	}
 
-			notificationRepository.save(notification);
+	private void dispatchGroup(boolean alreadyDispatched, List<PendingDispatch> group) {
+		boolean dispatched = alreadyDispatched;
+		for (PendingDispatch pendingDispatch : group) {
+			if (dispatched) {
+				pendingDispatch.duplicate = true;
+			} else {
+				var dispatcher = pendingDispatch.handler.getDispatcher();
+				long start = System.nanoTime();
+				pendingDispatch.dispatchResults = dispatcher.handleDispatches(pendingDispatch.notification);
+				notificationMetrics.recordDispatch(pendingDispatch.notification.getNotificationType(),
+						pendingDispatch.dispatchResults, System.nanoTime() - start);
+				dispatched = pendingDispatch.dispatchResults.get(0).successful();
+			}
 		}
 	}
 
@@ -98,12 +262,13 @@ public class NotificationItemWriter implements ItemWriter<Notification> {
 	 * 
 	 * @param notification
 	 * @param dispatchResults
+	 * @return the additional notifications, which have not been saved
 	 */
-	private void createAdditionalNotificationsIfNeeded(Notification notification,
+	private List<Notification> createAdditionalNotificationsIfNeeded(Notification notification,
 			List<DispatchResult> dispatchResults) {
 
+		List<Notification> newNotifications = new ArrayList<>();
 		if (dispatchResults.size() > 1) {
-			List<Notification> newNotifications = new ArrayList<>();
 			for (int i = 1; i < dispatchResults.size(); i++) {
 				DispatchResult dispatchResult = dispatchResults.get(i);
 				Notification copy = new Notification();
@@ -111,18 +276,19 @@ public class NotificationItemWriter implements ItemWriter<Notification> {
 				copy.setDateTimeProcessed(notification.getDateTimeProcessed());
 				copy.setNotificationMetadata(notification.getNotificationMetadata());
 				copy.setNotificationStatus(notification.getNotificationStatus());
-				copy.setNotificationStatusMetadata(notification.getNotificationStatusMetadata());
+				copy.setNotificationStatusMetadata(notification.getStatusMetadata());
 				copy.setNotificationType(notification.getNotificationType());
 				copy.setRecipientUuid(notification.getRecipientUuid());
 				copy = updateDispatchedNotification(copy, copy.getStatusMetadata().validationResult(), dispatchResult);
 				newNotifications.add(copy);
 			}
-			notificationRepository.saveAll(newNotifications);
 		}
+		return newNotifications;
 	}
 
 	/**
-	 * Generate the next future Notification in the progression of reminders
+	 * Generate the next future Notification in the progression of reminders. The tracker is restored to its current
+	 * position afterwards, since it may be the metadata object held by the notification.
 	 * 
 	 * @param notification
 	 * @param progressionTracker
@@ -133,28 +299,48 @@ public class NotificationItemWriter implements ItemWriter<Notification> {
 			ReminderDayProgressionTracker progressionTracker)
 			throws JsonProcessingException {
 
-		// Skip any notifications that fall in the past, advancing to the next future date in the progression tracker
-		while (!progressionTracker.isFinal()) {
-			progressionTracker.advance();
-			if (progressionTracker.getCurrentDate().isAfter(LocalDate.now())) {
-				logger.debug("Adding the next notification in the series.");
-				Notification copy = new Notification();
-				copy.setNotificationType(notification.getNotificationType());
-				copy.setRecipientUuid(notification.getRecipientUuid());
-				copy.setNotificationStatus(DefaultNotificationStatus.SCHEDULED);
-				copy.setDateScheduled(progressionTracker.getCurrentDate());
-				copy.setNotificationMetadata(notification.getObjectMapper().writeValueAsString(progressionTracker));
-				return Optional.of(copy);
+		int currentIndex = progressionTracker.getCurrentIndex();
+		try {
+			// Skip any notifications that fall in the past, advancing to the next future date in the progression tracker
+			while (!progressionTracker.isFinal()) {
+				progressionTracker.advance();
+				if (progressionTracker.getCurrentDate().isAfter(LocalDate.now())) {
+					logger.debug("Adding the next notification in the series.");
+					Notification copy = new Notification();
+					copy.setNotificationType(notification.getNotificationType());
+					copy.setRecipientUuid(notification.getRecipientUuid());
+					copy.setNotificationStatus(DefaultNotificationStatus.SCHEDULED);
+					copy.setDateScheduled(progressionTracker.getCurrentDate());
+					copy.setNotificationMetadata(NotificationJson.write(progressionTracker));
+					return Optional.of(copy);
+				}
 			}
+			return Optional.empty();
+		} finally {
+			progressionTracker.setCurrentIndex(currentIndex);
 		}
-
-		return Optional.empty();
 	}
 
 	static boolean isNotificationValid(NotificationStatusMetadata notificationStatusMetadata) {
 		return notificationStatusMetadata.validationResult().successful();
 	}
 
+	/**
+	 * Whether the delivery details were recorded from a Twilio message, which is what the generated delivery_provider
+	 * column checks
+	 */
+	static boolean isTwilioDelivery(DispatchResult dispatchResult) {
+		var deliveryDetails = dispatchResult.deliveryDetails();
+		if (deliveryDetails == null || !deliveryDetails.contains("accountSid")) {
+			return false;
+		}
+		try {
+			return NotificationJson.getObjectMapper().readTree(deliveryDetails).has("accountSid");
+		} catch (JsonProcessingException e) {
+			return false;
+		}
+	}
+
 	static Notification updateInvalidNotification(Notification notification) {
 		logger.debug(String.format("Notification %s marked invalid", notification.getId()));
 		notification.setNotificationStatus(DefaultNotificationStatus.INVALID);
@@ -167,6 +353,10 @@ public class NotificationItemWriter implements ItemWriter<Notification> {
 		notification.setNotificationStatusMetadata(
 				new NotificationStatusMetadata(validationResult,
 						dispatchResult));
+		if (isTwilioDelivery(dispatchResult)) {
+			// Only messages sent with Twilio are polled for their delivery status, starting from the next status job
+			notification.setNextStatusCheckAt(LocalDateTime.now());
+		}
 		if (dispatchResult.successful()) {
 			notification.setNotificationStatus(DefaultNotificationStatus.SENT);
 			logger.debug(String.format("Notification %s sent successfully", notification.getId()));
@@ -0,0 +1,91 @@
+package org.octri.notification.batch;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.octri.notification.domain.DefaultNotificationStatus;
+import org.octri.notification.domain.ProcessingMode;
+import org.octri.notification.registry.NotificationTypeRegistry;
+import org.octri.notification.repository.NotificationRepository;
+import org.octri.notification.repository.OverdueNotificationCount;
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+
+/**
+ * Splits the due notifications of a processing mode into partitions by notification type, so that each partition can
+ * be read, validated and dispatched by its own worker step. Every type is kept in a single partition, so duplicate
+ * suppression, which compares notifications of the same type, is not split across workers. Types are assigned largest
+ * first to the partition with the fewest due notifications, and a slow type only holds up its own partition.
+ */
+public class NotificationTypePartitioner implements Partitioner {
+
+	/**
+	 * The key of the notification types in the execution context of each partition
+	 */
+	public static final String NOTIFICATION_TYPES_KEY = "notificationTypes";
+
+	private final NotificationRepository notificationRepository;
+	private final NotificationTypeRegistry notificationTypeRegistry;
+	private final ProcessingMode processingMode;
+
+	/**
+	 *
+	 * @param notificationRepository
+	 *            the notification repository
+	 * @param notificationTypeRegistry
+	 *            the notification type registry
+	 * @param processingMode
+	 *            the processing mode of the job
+	 */
+	public NotificationTypePartitioner(NotificationRepository notificationRepository,
+			NotificationTypeRegistry notificationTypeRegistry, ProcessingMode processingMode) {
+		this.notificationRepository = notificationRepository;
+		this.notificationTypeRegistry = notificationTypeRegistry;
+		this.processingMode = processingMode;
+	}
+
+	@Override
+	public Map<String, ExecutionContext> partition(int gridSize) {
+		Set<String> immediateTypes = notificationTypeRegistry.getRegisteredTypes(ProcessingMode.IMMEDIATE);
+		boolean immediate = ProcessingMode.IMMEDIATE.equals(processingMode);
+		// Counts notifications scheduled before tomorrow, which are the ones the readers will find due
+		Map<String, Long> dueCounts = notificationRepository
+				.countOverdue(DefaultNotificationStatus.SCHEDULED, LocalDate.now().plusDays(1)).stream()
+				.filter(count -> immediateTypes.contains(count.notificationType()) == immediate)
+				.collect(Collectors.toMap(OverdueNotificationCount::notificationType, OverdueNotificationCount::count,
+						Long::sum));
+
+		int partitionCount = Math.max(1, Math.min(gridSize, dueCounts.size()));
+		List<ArrayList<String>> types = new ArrayList<>();
+		long[] loads = new long[partitionCount];
+		for (int i = 0; i < partitionCount; i++) {
+			types.add(new ArrayList<>());
+		}
+		dueCounts.entrySet().stream()
+				.sorted(Map.Entry.<String, Long> comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+				.forEach(entry -> {
+					int lightest = 0;
+					for (int i = 1; i < partitionCount; i++) {
+						if (loads[i] < loads[lightest]) {
+							lightest = i;
+						}
+					}
+					types.get(lightest).add(entry.getKey());
+					loads[lightest] += entry.getValue();
+				});
+
+		Map<String, ExecutionContext> partitions = new HashMap<>();
+		for (int i = 0; i < partitionCount; i++) {
+			var context = new ExecutionContext();
+			context.put(NOTIFICATION_TYPES_KEY, types.get(i));
+			partitions.put("partition" + i, context);
+		}
+		return partitions;
+	}
+
+}
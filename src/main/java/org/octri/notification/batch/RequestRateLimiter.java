@@ -0,0 +1,45 @@
+package org.octri.notification.batch;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.util.Assert;
+
+/**
+ * Spaces requests to an external service evenly so that no more than the configured number start in any second. The
+ * limiter is shared by the threads making the requests.
+ */
+class RequestRateLimiter {
+
+	private final long intervalNanos;
+	private long nextPermitNanos = System.nanoTime();
+
+	/**
+	 * 
+	 * @param requestsPerSecond
+	 *            the maximum number of requests to start each second
+	 */
+	RequestRateLimiter(double requestsPerSecond) {
+		Assert.isTrue(requestsPerSecond > 0, "Requests per second must be greater than zero");
+		this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / requestsPerSecond);
+	}
+
+	/**
+	 * Wait until the next request may start
+	 * 
+	 * @throws InterruptedException
+	 *             if the thread is interrupted while waiting
+	 */
+	void acquire() throws InterruptedException {
+		long waitNanos;
+		synchronized (this) {
+			long now = System.nanoTime();
+			long permitNanos = Math.max(now, nextPermitNanos);
+			nextPermitNanos = permitNanos + intervalNanos;
+			waitNanos = permitNanos - now;
+		}
+		if (waitNanos > 0) {
+			TimeUnit.NANOSECONDS.sleep(waitNanos);
+		}
+	}
+
+}
@@ -1,40 +1,68 @@
 package org.octri.notification.batch;
 
+import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
 
-import org.octri.notification.domain.Notification;
 import org.octri.notification.repository.NotificationRepository;
+import org.octri.notification.repository.QueuedTwilioNotification;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.batch.item.ItemReader;
+import org.springframework.util.Assert;
 
 /**
- * Determines the set of Notifications that need to be checked for final disposition in Twilio
+ * Determines the set of Notifications that need to be checked for final disposition in Twilio. Only the notifications
+ * whose next status check is due are read, once each, a page at a time in id order, selecting only the columns the
+ * status check needs.
  */
-public class TwilioStatusItemReader implements ItemReader<Notification> {
+public class TwilioStatusItemReader implements ItemReader<QueuedTwilioNotification> {
 
 	private static final Logger log = LoggerFactory.getLogger(TwilioStatusItemReader.class);
 
 	private final NotificationRepository notificationRepository;
-	private Iterator<Notification> iterator;
+	private final int pageSize;
+	private Iterator<QueuedTwilioNotification> iterator = Collections.emptyIterator();
+	private LocalDateTime now;
+	private long lastId = 0;
+	private boolean exhausted = false;
 
 	/**
 	 * 
 	 * @param notificationRepository
 	 *            the Notification repository
+	 * @param pageSize
+	 *            the number of notifications to read from the database at a time
 	 */
-	public TwilioStatusItemReader(NotificationRepository notificationRepository) {
+	public TwilioStatusItemReader(NotificationRepository notificationRepository, int pageSize) {
+		Assert.isTrue(pageSize > 0, "Page size must be greater than zero");
 		this.notificationRepository = notificationRepository;
+		this.pageSize = pageSize;
 	}
 
 	@Override
-	public Notification read() {
-		var queuedNotifications = notificationRepository.findAllQueuedTwilioNotifications();
-		log.debug("Updating status for {} queued Twilio notifications.", queuedNotifications.size());
-		if (iterator == null) {
-			iterator = queuedNotifications.iterator();
+	public QueuedTwilioNotification read() {
+		while (!iterator.hasNext() && !exhausted) {
+			iterator = readPage().iterator();
 		}
 		return iterator.hasNext() ? iterator.next() : null;
 	}
 
+	private List<QueuedTwilioNotification> readPage() {
+		if (now == null) {
+			// Fix the due time for the whole run so notifications rescheduled by this run are not read again
+			now = LocalDateTime.now();
+		}
+		var queuedNotifications = notificationRepository.findTwilioStatusCheckPage(now, lastId, pageSize).stream()
+				.map(QueuedTwilioNotification::parseOnce)
+				.toList();
+		log.debug("Updating status for a page of {} due Twilio notifications.", queuedNotifications.size());
+		exhausted = queuedNotifications.size() < pageSize;
+		if (!queuedNotifications.isEmpty()) {
+			lastId = queuedNotifications.get(queuedNotifications.size() - 1).getId();
+		}
+		return queuedNotifications;
+	}
+
 }
@@ -1,67 +1,174 @@
 package org.octri.notification.batch;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+
 import org.octri.messaging.sms.TwilioHelper;
-import org.octri.notification.domain.DefaultNotificationStatus;
-import org.octri.notification.domain.DispatchResult;
-import org.octri.notification.domain.Notification;
-import org.octri.notification.domain.Notification.NotificationStatusMetadata;
-import org.octri.notification.repository.NotificationRepository;
+import org.octri.notification.metrics.NotificationMetrics;
+import org.octri.notification.repository.QueuedTwilioNotification;
+import org.octri.notification.service.TwilioStatusService;
+import org.octri.notification.service.TwilioStatusService.StatusUpdate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.batch.item.Chunk;
 import org.springframework.batch.item.ItemWriter;
+import org.springframework.util.Assert;
+
+import com.twilio.rest.api.v2010.account.Message;
 
 /**
- * Checks the final disposition of the Notifications in Twilio and updates the Notification status
+ * Checks the disposition of the Notifications in Twilio, updates the Notification status and schedules the next check.
+ * The messages in a chunk can be fetched concurrently and at a limited rate, and the results are saved together by id
+ * without loading the entities.
  */
-public class TwilioStatusItemWriter implements ItemWriter<Notification> {
+public class TwilioStatusItemWriter implements ItemWriter<QueuedTwilioNotification> {
 
 	private static final Logger log = LoggerFactory.getLogger(TwilioStatusItemWriter.class);
 
-	private final NotificationRepository notificationRepository;
+	private final TwilioStatusService twilioStatusService;
 	private final TwilioHelper twilioHelper;
+	private final Executor fetchExecutor;
+	private final int fetchConcurrency;
+	private final RequestRateLimiter rateLimiter;
+	private final NotificationMetrics notificationMetrics;
+
+	/**
+	 * Create a writer that fetches messages one at a time without a rate limit
+	 * 
+	 * @param twilioStatusService
+	 *            the service for recording Twilio delivery status
+	 * @param twilioHelper
+	 *            the helper for Twilio
+	 */
+	public TwilioStatusItemWriter(TwilioStatusService twilioStatusService, TwilioHelper twilioHelper) {
+		this(twilioStatusService, twilioHelper, null, 1, 0);
+	}
+
+	/**
+	 * 
+	 * @param twilioStatusService
+	 *            the service for recording Twilio delivery status
+	 * @param twilioHelper
+	 *            the helper for Twilio
+	 * @param fetchExecutor
+	 *            the executor used to fetch messages concurrently, or null to fetch them one at a time
+	 * @param fetchConcurrency
+	 *            the maximum number of messages fetched at the same time
+	 * @param requestsPerSecond
+	 *            the maximum number of fetches to start each second, or 0 for no limit
+	 */
+	public TwilioStatusItemWriter(TwilioStatusService twilioStatusService, TwilioHelper twilioHelper,
+			Executor fetchExecutor, int fetchConcurrency, double requestsPerSecond) {
+		this(twilioStatusService, twilioHelper, fetchExecutor, fetchConcurrency, requestsPerSecond,
+				NotificationMetrics.NOOP);
+	}
 
 	/**
 	 * 
-	 * @param notificationRepository
-	 *            the Notification repository
+	 * @param twilioStatusService
+	 *            the service for recording Twilio delivery status
 	 * @param twilioHelper
 	 *            the helper for Twilio
+	 * @param fetchExecutor
+	 *            the executor used to fetch messages concurrently, or null to fetch them one at a time
+	 * @param fetchConcurrency
+	 *            the maximum number of messages fetched at the same time
+	 * @param requestsPerSecond
+	 *            the maximum number of fetches to start each second, or 0 for no limit
+	 * @param notificationMetrics
+	 *            the metrics for Twilio fetch time
 	 */
-	public TwilioStatusItemWriter(NotificationRepository notificationRepository, TwilioHelper twilioHelper) {
-		this.notificationRepository = notificationRepository;
+	public TwilioStatusItemWriter(TwilioStatusService twilioStatusService, TwilioHelper twilioHelper,
+			Executor fetchExecutor, int fetchConcurrency, double requestsPerSecond,
+			NotificationMetrics notificationMetrics) {
+		Assert.isTrue(fetchConcurrency > 0, "Fetch concurrency must be greater than zero");
+		this.twilioStatusService = twilioStatusService;
 		this.twilioHelper = twilioHelper;
+		this.fetchExecutor = fetchExecutor;
+		this.fetchConcurrency = fetchConcurrency;
+		this.rateLimiter = requestsPerSecond > 0 ? new RequestRateLimiter(requestsPerSecond) : null;
+		this.notificationMetrics = notificationMetrics;
 	}
 
 	@Override
-	public void write(Chunk<? extends Notification> chunk) throws Exception {
-		for (Notification notification : chunk) {
-			var statusMetadata = notification.getStatusMetadata();
-			var dispatchResult = statusMetadata.dispatchResult();
-			var messageJson = dispatchResult.deliveryDetails();
-
-			var oldState = twilioHelper.loadMessageFromString(messageJson);
-			var messageSid = oldState.getSid();
+	public void write(Chunk<? extends QueuedTwilioNotification> chunk) throws Exception {
+		var notifications = chunk.getItems();
+		var updatedStates = fetchAll(notifications);
 
-			log.debug("Getting updated status for message {}", messageSid);
-			var updatedState = twilioHelper.fetchMessage(messageSid);
+		List<StatusUpdate> statusUpdates = new ArrayList<>();
+		for (int i = 0; i < notifications.size(); i++) {
+			statusUpdates.add(twilioStatusService.statusCheck(notifications.get(i), updatedStates[i]));
+		}
+		twilioStatusService.applyStatusUpdates(statusUpdates);
+	}
 
-			log.debug("Old status: {} current status: {}", oldState.getStatus(), updatedState.getStatus());
-			if (!oldState.getStatus().equals(updatedState.getStatus())) {
-				if (!twilioHelper.isSuccessResponse(updatedState)) {
-					notification.setNotificationStatus(DefaultNotificationStatus.FAILED);
-				}
+	/**
+	 * Fetch the latest state of each notification's message, concurrently when an executor is configured
+	 * 
+	 * @param notifications
+	 *            the notifications in the chunk
+	 * @return the latest message states, in the order of the notifications
+	 * @throws Exception
+	 *             the first exception thrown while fetching a message
+	 */
+	private Message[] fetchAll(List<? extends QueuedTwilioNotification> notifications) throws Exception {
+		var updatedStates = new Message[notifications.size()];
+		if (fetchExecutor == null || fetchConcurrency == 1 || notifications.size() <= 1) {
+			for (int i = 0; i < notifications.size(); i++) {
+				updatedStates[i] = fetch(notifications.get(i));
+			}
+			return updatedStates;
+		}
 
-				var updatedDeliveryDetails = twilioHelper.serializeMessageToJson(updatedState);
-				var updatedDispatchResult = new DispatchResult(twilioHelper.isSuccessResponse(updatedState),
-						dispatchResult.messageContent(), dispatchResult.recipient(), updatedDeliveryDetails,
-						updatedState.getErrorMessage() != null ? updatedState.getErrorMessage() : null);
-				var updatedStatusMetadata = new NotificationStatusMetadata(
-						statusMetadata.validationResult(), updatedDispatchResult);
-				notification.setNotificationStatusMetadata(updatedStatusMetadata);
+		Semaphore permits = new Semaphore(fetchConcurrency);
+		List<CompletableFuture<Void>> futures = new ArrayList<>();
+		for (int i = 0; i < notifications.size(); i++) {
+			var index = i;
+			permits.acquire();
+			try {
+				futures.add(CompletableFuture.runAsync(() -> updatedStates[index] = fetch(notifications.get(index)),
+						fetchExecutor).whenComplete((result, e) -> permits.release()));
+			} catch (RuntimeException e) {
+				permits.release();
+				throw e;
+			}
+		}
+		try {
+			CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof Exception cause) {
+				throw cause;
 			}
+			throw e;
+		}
+		return updatedStates;
+	}
 
-			notificationRepository.save(notification);
+	private Message fetch(QueuedTwilioNotification notification) {
+		var messageJson = notification.getStatusMetadata().dispatchResult().deliveryDetails();
+		var messageSid = twilioHelper.loadMessageFromString(messageJson).getSid();
+		if (rateLimiter != null) {
+			try {
+				rateLimiter.acquire();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while waiting to fetch message " + messageSid, e);
+			}
+		}
+		log.debug("Getting updated status for message {}", messageSid);
+		// The wait for the rate limiter is left out so the timer shows Twilio's latency
+		long start = System.nanoTime();
+		boolean successful = false;
+		try {
+			var message = twilioHelper.fetchMessage(messageSid);
+			successful = true;
+			return message;
+		} finally {
+			notificationMetrics.recordTwilioFetch(successful, System.nanoTime() - start);
 		}
 	}
 
@@ -0,0 +1,27 @@
+package org.octri.notification.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionOutcome;
+import org.springframework.boot.autoconfigure.condition.SpringBootCondition;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+/**
+ * Matches when {@code octri.notifications.immediate-concurrency} is greater than 0. The properties are bound the same
+ * way as {@link NotificationProperties}, so the default is the one declared there.
+ */
+public class ImmediateNotificationCondition extends SpringBootCondition {
+
+	@Override
+	public ConditionOutcome getMatchOutcome(ConditionContext context, AnnotatedTypeMetadata metadata) {
+		var properties = Binder.get(context.getEnvironment())
+				.bind("octri.notifications", NotificationProperties.class)
+				.orElseGet(NotificationProperties::new);
+		var concurrency = properties.getImmediateConcurrency();
+		if (concurrency != null && concurrency > 0) {
+			return ConditionOutcome.match("octri.notifications.immediate-concurrency is " + concurrency);
+		}
+		return ConditionOutcome.noMatch("octri.notifications.immediate-concurrency is not greater than 0");
+	}
+
+}
@@ -1,26 +1,47 @@
 package org.octri.notification.config;
 
+import java.util.concurrent.Executor;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.octri.common.customizer.IdentifiableEntityFinder;
 import org.octri.notification.batch.NotificationBatchJob;
 import org.octri.notification.controller.NotificationController;
+import org.octri.notification.controller.NotificationDashboardController;
 import org.octri.notification.converter.NotificationStatusMvcConverter;
+import org.octri.notification.metrics.NotificationMetrics;
+import org.octri.notification.recipient.BoundedRecipientCache;
+import org.octri.notification.recipient.RecipientCache;
+import org.octri.notification.recipient.RecipientResolver;
 import org.octri.notification.registry.NotificationStatusRegistry;
 import org.octri.notification.registry.NotificationTypeProvider;
 import org.octri.notification.registry.NotificationTypeRegistry;
+import org.octri.notification.repository.NotificationJdbcWriter;
 import org.octri.notification.repository.NotificationRepository;
+import org.octri.notification.service.ImmediateNotificationService;
+import org.octri.notification.service.NotificationDashboardService;
 import org.octri.notification.service.NotificationService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
 import org.springframework.context.annotation.Import;
 import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.context.event.EventListener;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.util.Assert;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 /**
  * Configuration for the notification library.
  */
@@ -29,7 +50,8 @@ import org.springframework.util.Assert;
 @ConditionalOnProperty(value = "octri.notifications.enabled", havingValue = "true", matchIfMissing = true)
 @EntityScan(basePackages = { "org.octri.notification.domain", "org.octri.notification.converter" })
 @EnableJpaRepositories(basePackages = "org.octri.notification.repository")
-@Import({ NotificationBatchConfig.class, TwilioStatusBatchConfig.class, NotificationController.class })
+@Import({ NotificationBatchConfig.class, TwilioStatusBatchConfig.class, TwilioStatusCallbackConfig.class,
+		NotificationController.class, NotificationDashboardController.class })
 public class NotificationAutoConfiguration {
 
 	private static final Logger log = LoggerFactory.getLogger(NotificationAutoConfiguration.class);
@@ -52,6 +74,79 @@ public class NotificationAutoConfiguration {
 		return new NotificationStatusRegistry();
 	}
 
+	/**
+	 *
+	 * @param notificationProperties
+	 *            the notification properties
+	 * @return a bean for caching recipients, unless the application provides its own
+	 */
+	@Bean
+	@ConditionalOnMissingBean
+	public RecipientCache recipientCache(NotificationProperties notificationProperties) {
+		return new BoundedRecipientCache(notificationProperties.getRecipientCacheSize(),
+				notificationProperties.getRecipientCacheTtl());
+	}
+
+	/**
+	 *
+	 * @param recipientFinder
+	 *            the application's finder for recipients
+	 * @param recipientCache
+	 *            the cache for recipients
+	 * @return a bean for resolving the recipients of notifications
+	 */
+	@Bean
+	public RecipientResolver recipientResolver(IdentifiableEntityFinder<?> recipientFinder,
+			RecipientCache recipientCache) {
+		return new RecipientResolver(recipientFinder, recipientCache);
+	}
+
+	/**
+	 * Metrics for the batch jobs are registered with the application's {@link MeterRegistry}, such as the one provided
+	 * by Spring Boot Actuator. Without a registry nothing is recorded.
+	 *
+	 * @param meterRegistry
+	 *            the application's meter registry, if there is one
+	 * @return a bean for recording the notification metrics
+	 */
+	@Bean
+	@ConditionalOnMissingBean
+	public NotificationMetrics notificationMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+		var registry = meterRegistry.getIfUnique();
+		return registry == null ? NotificationMetrics.NOOP : new NotificationMetrics(registry);
+	}
+
+	/**
+	 *
+	 * @param jdbcTemplate
+	 *            the application's JDBC template
+	 * @return a bean for inserting the notifications created by the batch job
+	 */
+	@Bean
+	public NotificationJdbcWriter notificationJdbcWriter(JdbcTemplate jdbcTemplate) {
+		return new NotificationJdbcWriter(jdbcTemplate);
+	}
+
+	/**
+	 * Enable JDBC batching so that the updates for a chunk of notifications are sent together. The settings apply to
+	 * the whole persistence unit, so this is only done when {@code octri.notifications.hibernate-batching} is true, and
+	 * settings already made by the application are left alone.
+	 *
+	 * @param notificationProperties
+	 *            the notification properties
+	 * @return a customizer for the Hibernate properties
+	 */
+	@Bean
+	@ConditionalOnProperty(value = "octri.notifications.hibernate-batching", havingValue = "true")
+	@ConditionalOnMissingBean(name = "notificationHibernatePropertiesCustomizer")
+	public HibernatePropertiesCustomizer notificationHibernatePropertiesCustomizer(
+			NotificationProperties notificationProperties) {
+		return properties -> {
+			properties.putIfAbsent(AvailableSettings.STATEMENT_BATCH_SIZE, notificationProperties.getChunkSize());
+			properties.putIfAbsent(AvailableSettings.ORDER_UPDATES, true);
+		};
+	}
+
 	/**
 	 *
 	 * @param notificationStatusRegistry
@@ -64,6 +159,50 @@ public class NotificationAutoConfiguration {
 		return new NotificationStatusMvcConverter(notificationStatusRegistry);
 	}
 
+	/**
+	 * Sends single IMMEDIATE notifications without the batch job when
+	 * {@code octri.notifications.immediate-concurrency} is greater than 0
+	 *
+	 * @param notificationRepository
+	 *            the notification repository
+	 * @param notificationJdbcWriter
+	 *            the JDBC writer for notifications
+	 * @param notificationTypeRegistry
+	 *            the notification type registry
+	 * @param recipientResolver
+	 *            the resolver for recipients
+	 * @param transactionManager
+	 *            the transaction manager
+	 * @param notificationMetrics
+	 *            the notification metrics
+	 * @param notificationProperties
+	 *            the notification properties
+	 * @return a bean for sending IMMEDIATE notifications without the batch job
+	 */
+	@Bean
+	@Conditional(ImmediateNotificationCondition.class)
+	public ImmediateNotificationService immediateNotificationService(NotificationRepository notificationRepository,
+			NotificationJdbcWriter notificationJdbcWriter, NotificationTypeRegistry notificationTypeRegistry,
+			RecipientResolver recipientResolver, PlatformTransactionManager transactionManager,
+			NotificationMetrics notificationMetrics, NotificationProperties notificationProperties) {
+		return new ImmediateNotificationService(notificationRepository, notificationJdbcWriter,
+				notificationTypeRegistry, recipientResolver, transactionManager, notificationMetrics,
+				notificationProperties.getImmediateClaimTimeout(), immediateExecutor(),
+				notificationProperties.getImmediateConcurrency());
+	}
+
+	/**
+	 * Executor for IMMEDIATE notifications sent without the batch job. It is not registered as a bean so that it does
+	 * not replace the application's task executor. Virtual threads are used when the runtime supports them.
+	 * 
+	 * @return an executor that starts a new thread for each notification
+	 */
+	private Executor immediateExecutor() {
+		var executor = new SimpleAsyncTaskExecutor("notification-immediate-");
+		executor.setVirtualThreads(Runtime.version().feature() >= 21);
+		return executor;
+	}
+
 	/**
 	 *
 	 * @param notificationRepository
@@ -72,13 +211,31 @@ public class NotificationAutoConfiguration {
 	 *            the notification type registry
 	 * @param notificationBatchJob
 	 *            the notification batch job
+	 * @param immediateNotificationService
+	 *            the service for sending IMMEDIATE notifications without the batch job, if it is enabled
 	 * @return a bean for the notification service
 	 */
 	@Bean
 	public NotificationService notificationService(NotificationRepository notificationRepository,
 			NotificationTypeRegistry notificationTypeRegistry,
-			NotificationBatchJob notificationBatchJob) {
-		return new NotificationService(notificationRepository, notificationTypeRegistry, notificationBatchJob);
+			NotificationBatchJob notificationBatchJob,
+			ObjectProvider<ImmediateNotificationService> immediateNotificationService) {
+		return new NotificationService(notificationRepository, notificationTypeRegistry, notificationBatchJob,
+				immediateNotificationService.getIfAvailable());
+	}
+
+	/**
+	 *
+	 * @param notificationRepository
+	 *            the notification repository
+	 * @param notificationProperties
+	 *            the notification properties
+	 * @return a bean for the notification dashboard counts
+	 */
+	@Bean
+	public NotificationDashboardService notificationDashboardService(NotificationRepository notificationRepository,
+			NotificationProperties notificationProperties) {
+		return new NotificationDashboardService(notificationRepository, notificationProperties.getDashboardCacheTtl());
 	}
 
 	/**
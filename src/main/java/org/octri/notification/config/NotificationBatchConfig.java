@@ -1,13 +1,21 @@
 package org.octri.notification.config;
 
-import org.octri.common.customizer.IdentifiableEntityFinder;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.octri.notification.batch.ClaimingNotificationItemReader;
 import org.octri.notification.batch.NotificationBatchJob;
 import org.octri.notification.batch.NotificationItemProcessor;
 import org.octri.notification.batch.NotificationItemReader;
 import org.octri.notification.batch.NotificationItemWriter;
+import org.octri.notification.batch.NotificationTypePartitioner;
 import org.octri.notification.domain.Notification;
 import org.octri.notification.domain.ProcessingMode;
+import org.octri.notification.metrics.NotificationMetrics;
+import org.octri.notification.recipient.RecipientResolver;
 import org.octri.notification.registry.NotificationTypeRegistry;
+import org.octri.notification.repository.NotificationJdbcWriter;
 import org.octri.notification.repository.NotificationRepository;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
@@ -18,14 +26,18 @@ import org.springframework.batch.core.job.builder.JobBuilder;
 import org.springframework.batch.core.launch.JobLauncher;
 import org.springframework.batch.core.launch.support.RunIdIncrementer;
 import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.scope.context.JobSynchronizationManager;
 import org.springframework.batch.core.step.builder.StepBuilder;
 import org.springframework.batch.item.ItemProcessor;
 import org.springframework.batch.item.ItemReader;
+import org.springframework.batch.item.ItemStreamReader;
 import org.springframework.batch.item.ItemWriter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.scheduling.TaskScheduler;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.transaction.PlatformTransactionManager;
@@ -41,9 +53,11 @@ public class NotificationBatchConfig {
 	private final JobRepository jobRepository;
 	private final PlatformTransactionManager transactionManager;
 	private final NotificationRepository notificationRepository;
+	private final NotificationJdbcWriter notificationJdbcWriter;
 	private final NotificationProperties notificationProperties;
 	private final NotificationTypeRegistry notificationTypeRegistry;
-	private final IdentifiableEntityFinder<?> recipientFinder;
+	private final RecipientResolver recipientResolver;
+	private final NotificationMetrics notificationMetrics;
 
 	/**
 	 * 
@@ -57,25 +71,33 @@ public class NotificationBatchConfig {
 	 *            the transaction manager
 	 * @param notificationRepository
 	 *            the notification repository
+	 * @param notificationJdbcWriter
+	 *            the JDBC writer for notifications
 	 * @param notificationProperties
 	 *            the notification configuration
 	 * @param notificationTypeRegistry
 	 *            the registry for notification types
-	 * @param recipientFinder
-	 *            the finder for recipients
+	 * @param recipientResolver
+	 *            the resolver for recipients
+	 * @param notificationMetrics
+	 *            the metrics for the job
 	 */
 	public NotificationBatchConfig(JobExplorer jobExplorer, JobLauncher jobLauncher, JobRepository jobRepository,
 			PlatformTransactionManager transactionManager,
-			NotificationRepository notificationRepository, NotificationProperties notificationProperties,
-			NotificationTypeRegistry notificationTypeRegistry, IdentifiableEntityFinder<?> recipientFinder) {
+			NotificationRepository notificationRepository, NotificationJdbcWriter notificationJdbcWriter,
+			NotificationProperties notificationProperties,
+			NotificationTypeRegistry notificationTypeRegistry, RecipientResolver recipientResolver,
+			NotificationMetrics notificationMetrics) {
 		this.jobExplorer = jobExplorer;
 		this.jobLauncher = jobLauncher;
 		this.jobRepository = jobRepository;
 		this.transactionManager = transactionManager;
 		this.notificationRepository = notificationRepository;
+		this.notificationJdbcWriter = notificationJdbcWriter;
 		this.notificationProperties = notificationProperties;
 		this.notificationTypeRegistry = notificationTypeRegistry;
-		this.recipientFinder = recipientFinder;
+		this.recipientResolver = recipientResolver;
+		this.notificationMetrics = notificationMetrics;
 	}
 
 	/**
@@ -95,42 +117,108 @@ public class NotificationBatchConfig {
 	/**
 	 * 
 	 * @param notificationJob
-	 *            the spring batch job
+	 *            the spring batch job for SCHEDULED notifications
+	 * @param immediateNotificationJob
+	 *            the spring batch job for IMMEDIATE notifications
 	 * @return the Bean for the NotificationBatchJob
 	 */
 	@Bean
-	public NotificationBatchJob notificationBatchJob(Job notificationJob) {
-		return new NotificationBatchJob(jobExplorer, jobLauncher, notificationJob);
+	public NotificationBatchJob notificationBatchJob(Job notificationJob, Job immediateNotificationJob) {
+		return new NotificationBatchJob(jobExplorer, jobLauncher, notificationJob, immediateNotificationJob,
+				launchExecutor(), multiInstance() ? instanceName() : null);
+	}
+
+	/**
+	 * Executor for jobs launched without waiting, such as the IMMEDIATE runs started when notifications are created.
+	 * It is not registered as a bean so that it does not replace the application's task executor. The batch job
+	 * bounds the number of launches, so a new thread is started for each one.
+	 * 
+	 * @return an executor that starts a new thread for each launch
+	 */
+	private Executor launchExecutor() {
+		return new SimpleAsyncTaskExecutor("notification-launch-");
 	}
 
 	/**
 	 * 
 	 * @param notificationItemReader
 	 *            the ItemReader for notifications
+	 * @param notificationTypePartitioner
+	 *            the partitioner used when the job is split into partitions
 	 * @return the job bean
 	 */
 	@Bean
 	@ConditionalOnMissingBean(name = "notificationJob")
-	public Job notificationJob(ItemReader<Notification> notificationItemReader) {
+	public Job notificationJob(ItemReader<Notification> notificationItemReader,
+			NotificationTypePartitioner notificationTypePartitioner) {
 		return new JobBuilder("notificationJob", jobRepository)
 				.incrementer(new RunIdIncrementer())
-				.start(processNotificationsStep(notificationItemReader))
+				.start(processNotificationsStep("processNotificationsStep", notificationItemReader,
+						notificationTypePartitioner))
+				.build();
+	}
+
+	/**
+	 * A separate job for IMMEDIATE notifications, so that they can be sent while a SCHEDULED run is in progress
+	 * 
+	 * @param notificationItemReader
+	 *            the ItemReader for notifications
+	 * @param notificationTypePartitioner
+	 *            the partitioner used when the job is split into partitions
+	 * @return the job bean
+	 */
+	@Bean
+	@ConditionalOnMissingBean(name = "immediateNotificationJob")
+	public Job immediateNotificationJob(ItemReader<Notification> notificationItemReader,
+			NotificationTypePartitioner notificationTypePartitioner) {
+		return new JobBuilder("immediateNotificationJob", jobRepository)
+				.incrementer(new RunIdIncrementer())
+				.start(processNotificationsStep("processImmediateNotificationsStep", notificationItemReader,
+						notificationTypePartitioner))
 				.build();
 	}
 
 	/**
-	 * The scope ensures a new reader for each JobExecution and allows jobParameters to be injected
+	 * The scope ensures a new reader for each JobExecution and allows jobParameters to be injected. When
+	 * {@code octri.notifications.multi-instance} is set, the reader claims the notifications it reads so that several
+	 * application instances can share the work. The reader is returned as an ItemStreamReader so that the step closes
+	 * it.
 	 * 
 	 * @param processingMode
 	 *            the processing mode provided by the job parameters
+	 * @param partitionTypes
+	 *            the notification types of the partition when the step is partitioned, or null
 	 * @return the notification item reader bean
 	 */
 	@Bean
 	@ConditionalOnMissingBean(name = "notificationItemReader")
 	@StepScope
-	public ItemReader<Notification> notificationItemReader(
+	public ItemStreamReader<Notification> notificationItemReader(
+			@Value("#{jobParameters['processingMode']}") String processingMode,
+			@Value("#{stepExecutionContext['" + NotificationTypePartitioner.NOTIFICATION_TYPES_KEY
+					+ "']}") List<String> partitionTypes) {
+		if (multiInstance()) {
+			return new ClaimingNotificationItemReader(notificationTypeRegistry, notificationRepository,
+					recipientResolver, ProcessingMode.valueOf(processingMode), partitionTypes, readerPageSize(),
+					notificationMetrics, transactionManager, instanceName(), notificationProperties.getClaimLease());
+		}
+		return new NotificationItemReader(notificationTypeRegistry, notificationRepository, recipientResolver,
+				ProcessingMode.valueOf(processingMode), partitionTypes, readerPageSize(), notificationMetrics);
+	}
+
+	/**
+	 * Splits the due notifications into partitions by type when {@code octri.notifications.partitions} is greater than
+	 * one
+	 * 
+	 * @param processingMode
+	 *            the processing mode provided by the job parameters
+	 * @return the notification type partitioner bean
+	 */
+	@Bean
+	@StepScope
+	public NotificationTypePartitioner notificationTypePartitioner(
 			@Value("#{jobParameters['processingMode']}") String processingMode) {
-		return new NotificationItemReader(notificationTypeRegistry, notificationRepository, recipientFinder,
+		return new NotificationTypePartitioner(notificationRepository, notificationTypeRegistry,
 				ProcessingMode.valueOf(processingMode));
 	}
 
@@ -141,7 +229,7 @@ public class NotificationBatchConfig {
 	@Bean
 	@ConditionalOnMissingBean(name = "notificationItemProcessor")
 	public ItemProcessor<Notification, Notification> notificationItemProcessor() {
-		return new NotificationItemProcessor(notificationTypeRegistry);
+		return new NotificationItemProcessor(notificationTypeRegistry, notificationMetrics);
 	}
 
 	/**
@@ -152,11 +240,106 @@ public class NotificationBatchConfig {
 	@ConditionalOnMissingBean(name = "notificationItemWriter")
 	@JobScope
 	public ItemWriter<Notification> notificationItemWriter() {
-		return new NotificationItemWriter(notificationRepository, notificationTypeRegistry);
+		int dispatchConcurrency = Math.max(notificationProperties.getDispatchConcurrency(), 1);
+		return new NotificationItemWriter(notificationRepository, notificationJdbcWriter, notificationTypeRegistry,
+				dispatchConcurrency > 1 ? dispatchExecutor() : null, dispatchConcurrency, notificationMetrics);
+	}
+
+	/**
+	 * Executor for concurrent dispatch. It is not registered as a bean so that it does not replace the application's
+	 * task executor. Virtual threads are used when the runtime supports them.
+	 * 
+	 * @return an executor that starts a new thread for each dispatch
+	 */
+	private Executor dispatchExecutor() {
+		var executor = new SimpleAsyncTaskExecutor("notification-dispatch-");
+		executor.setVirtualThreads(Runtime.version().feature() >= 21);
+		return executor;
+	}
+
+	/**
+	 * Whether several application instances run the jobs against the same database, so each must claim the
+	 * notifications it reads.
+	 * 
+	 * @return true if {@code octri.notifications.multi-instance} is set
+	 */
+	private boolean multiInstance() {
+		return Boolean.TRUE.equals(notificationProperties.getMultiInstance());
+	}
+
+	/**
+	 * The name this application instance claims notifications with. Defaults to the process id and host name, which
+	 * differ between instances.
+	 * 
+	 * @return the configured instance name, or the name of the running JVM
+	 */
+	private String instanceName() {
+		var instanceName = notificationProperties.getInstanceName();
+		return instanceName != null && !instanceName.isBlank() ? instanceName
+				: ManagementFactory.getRuntimeMXBean().getName();
+	}
+
+	/**
+	 * Defaults to the chunk size so that each page of notifications is read within the transaction of the chunk that
+	 * processes it
+	 * 
+	 * @return the number of notifications the reader should fetch at a time
+	 */
+	private int readerPageSize() {
+		var pageSize = notificationProperties.getReaderPageSize();
+		return pageSize != null ? pageSize : notificationProperties.getChunkSize();
+	}
+
+	/**
+	 * A single chunk step, or when {@code octri.notifications.partitions} is greater than one, a step that splits the
+	 * due notifications by type and runs a worker chunk step for each partition in parallel. Each worker has its own
+	 * step-scoped reader, and the job-scoped writer is safe to share between them.
+	 */
+	private Step processNotificationsStep(String name, ItemReader<Notification> reader,
+			NotificationTypePartitioner partitioner) {
+		int partitions = notificationProperties.getPartitions() == null ? 1 : notificationProperties.getPartitions();
+		if (partitions <= 1) {
+			return chunkStep(name, reader);
+		}
+		var workerStep = chunkStep(name + "Worker", reader);
+		return new StepBuilder(name, jobRepository)
+				.partitioner(workerStep.getName(), partitioner)
+				.step(workerStep)
+				.gridSize(partitions)
+				.taskExecutor(partitionExecutor())
+				.build();
+	}
+
+	/**
+	 * Executor for the worker steps of a partitioned step. It is not registered as a bean so that it does not replace
+	 * the application's task executor. The partitioner creates at most one partition per configured partition, so a
+	 * new thread is started for each one. Spring Batch does not make the job scope available on the worker threads,
+	 * so the job execution is registered on each one for the job-scoped writer.
+	 * 
+	 * @return an executor that starts a new thread for each partition
+	 */
+	private TaskExecutor partitionExecutor() {
+		var executor = new SimpleAsyncTaskExecutor("notification-partition-");
+		executor.setTaskDecorator(task -> {
+			var jobContext = JobSynchronizationManager.getContext();
+			if (jobContext == null) {
+				return task;
+			}
+			var jobExecution = jobContext.getJobExecution();
+			return () -> {
+				JobSynchronizationManager.register(jobExecution);
+				try {
+					task.run();
+				} finally {
+					JobSynchronizationManager.release();
+				}
+			};
+		});
+		return executor;
 	}
 
-	private Step processNotificationsStep(ItemReader<Notification> reader) {
-		return new StepBuilder("processNotificationsStep", jobRepository)
+	private Step chunkStep(String name, ItemReader<Notification> reader) {
+		return new StepBuilder(name, jobRepository)
 				.<Notification, Notification> chunk(notificationProperties.getChunkSize(), transactionManager)
 				.reader(reader)
 				.processor(notificationItemProcessor())
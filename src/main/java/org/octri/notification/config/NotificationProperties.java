@@ -1,5 +1,8 @@
 package org.octri.notification.config;
 
+import java.time.Duration;
+
+import org.octri.notification.service.StatusCheckSchedule;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -12,6 +15,30 @@ public class NotificationProperties {
 
 	private Integer chunkSize = 50;
 
+	private Integer readerPageSize;
+
+	private Integer dispatchConcurrency = 1;
+
+	private Integer partitions = 1;
+
+	private Boolean hibernateBatching = false;
+
+	private Integer immediateConcurrency = 0;
+
+	private Duration immediateClaimTimeout = Duration.ofMinutes(5);
+
+	private Boolean multiInstance = false;
+
+	private String instanceName;
+
+	private Duration claimLease = Duration.ofMinutes(5);
+
+	private Integer recipientCacheSize = 0;
+
+	private Duration recipientCacheTtl = Duration.ofMinutes(5);
+
+	private Duration dashboardCacheTtl = Duration.ofMinutes(1);
+
 	private String email;
 
 	private String smsNumber;
@@ -20,6 +47,24 @@ public class NotificationProperties {
 
 	private String twilioUpdateSchedule = "@yearly";
 
+	private Integer twilioStatusConcurrency = 1;
+
+	private Double twilioStatusRequestsPerSecond = 0.0;
+
+	private Duration twilioStatusInitialCheckInterval = StatusCheckSchedule.DEFAULT.initialInterval();
+
+	private Duration twilioStatusMaxCheckInterval = StatusCheckSchedule.DEFAULT.maxInterval();
+
+	private Integer twilioStatusMaxCheckAttempts = StatusCheckSchedule.DEFAULT.maxAttempts();
+
+	private Boolean twilioStatusCallbackEnabled = false;
+
+	private String twilioStatusCallbackAuthToken;
+
+	private String twilioStatusCallbackUrl;
+
+	private Integer twilioStatusCallbackSecurityOrder = 0;
+
 	/**
 	 * A static getter for any custom logic relying on this flag in the application. This is available even if this bean
 	 * is never created.
@@ -69,6 +114,213 @@ public class NotificationProperties {
 		this.chunkSize = chunkSize;
 	}
 
+	/**
+	 * 
+	 * @return the number of due notifications to read from the database at a time, or null to use the chunk size
+	 */
+	public Integer getReaderPageSize() {
+		return readerPageSize;
+	}
+
+	/**
+	 * 
+	 * @param readerPageSize
+	 *            the number of due notifications to read from the database at a time
+	 */
+	public void setReaderPageSize(Integer readerPageSize) {
+		this.readerPageSize = readerPageSize;
+	}
+
+	/**
+	 * 
+	 * @return the maximum number of notifications in a chunk that are dispatched at the same time
+	 */
+	public Integer getDispatchConcurrency() {
+		return dispatchConcurrency;
+	}
+
+	/**
+	 * 
+	 * @param dispatchConcurrency
+	 *            the maximum number of notifications in a chunk that are dispatched at the same time
+	 */
+	public void setDispatchConcurrency(Integer dispatchConcurrency) {
+		this.dispatchConcurrency = dispatchConcurrency;
+	}
+
+	/**
+	 * 
+	 * @return the number of partitions, split by notification type, that the batch job processes in parallel
+	 */
+	public Integer getPartitions() {
+		return partitions;
+	}
+
+	/**
+	 * 
+	 * @param partitions
+	 *            the number of partitions, split by notification type, that the batch job processes in parallel
+	 */
+	public void setPartitions(Integer partitions) {
+		this.partitions = partitions;
+	}
+
+	/**
+	 * 
+	 * @return whether Hibernate JDBC batching is enabled for the updates the batch job saves
+	 */
+	public Boolean getHibernateBatching() {
+		return hibernateBatching;
+	}
+
+	/**
+	 * 
+	 * @param hibernateBatching
+	 *            whether Hibernate JDBC batching is enabled for the updates the batch job saves
+	 */
+	public void setHibernateBatching(Boolean hibernateBatching) {
+		this.hibernateBatching = hibernateBatching;
+	}
+
+	/**
+	 * 
+	 * @return the maximum number of new IMMEDIATE notifications sent at the same time without the batch job, or 0 to
+	 *         send them all with the batch job
+	 */
+	public Integer getImmediateConcurrency() {
+		return immediateConcurrency;
+	}
+
+	/**
+	 * 
+	 * @param immediateConcurrency
+	 *            the maximum number of new IMMEDIATE notifications sent at the same time without the batch job, or 0
+	 *            to send them all with the batch job
+	 */
+	public void setImmediateConcurrency(Integer immediateConcurrency) {
+		this.immediateConcurrency = immediateConcurrency;
+	}
+
+	/**
+	 * 
+	 * @return how long a notification sent without the batch job is kept from the batch job
+	 */
+	public Duration getImmediateClaimTimeout() {
+		return immediateClaimTimeout;
+	}
+
+	/**
+	 * 
+	 * @param immediateClaimTimeout
+	 *            how long a notification sent without the batch job is kept from the batch job
+	 */
+	public void setImmediateClaimTimeout(Duration immediateClaimTimeout) {
+		this.immediateClaimTimeout = immediateClaimTimeout;
+	}
+
+	/**
+	 * 
+	 * @return whether several application instances run the batch jobs against the same database
+	 */
+	public Boolean getMultiInstance() {
+		return multiInstance;
+	}
+
+	/**
+	 * 
+	 * @param multiInstance
+	 *            whether several application instances run the batch jobs against the same database
+	 */
+	public void setMultiInstance(Boolean multiInstance) {
+		this.multiInstance = multiInstance;
+	}
+
+	/**
+	 * 
+	 * @return the name the batch jobs of this application instance claim notifications with, or null to use the
+	 *         process id and host name
+	 */
+	public String getInstanceName() {
+		return instanceName;
+	}
+
+	/**
+	 * 
+	 * @param instanceName
+	 *            the name the batch jobs of this application instance claim notifications with
+	 */
+	public void setInstanceName(String instanceName) {
+		this.instanceName = instanceName;
+	}
+
+	/**
+	 * 
+	 * @return how long a notification claimed by the batch job of one application instance is kept from the others
+	 */
+	public Duration getClaimLease() {
+		return claimLease;
+	}
+
+	/**
+	 * 
+	 * @param claimLease
+	 *            how long a notification claimed by the batch job of one application instance is kept from the others
+	 */
+	public void setClaimLease(Duration claimLease) {
+		this.claimLease = claimLease;
+	}
+
+	/**
+	 * 
+	 * @return the maximum number of recipients to cache, or 0 to disable the recipient cache
+	 */
+	public Integer getRecipientCacheSize() {
+		return recipientCacheSize;
+	}
+
+	/**
+	 * 
+	 * @param recipientCacheSize
+	 *            the maximum number of recipients to cache, or 0 to disable the recipient cache
+	 */
+	public void setRecipientCacheSize(Integer recipientCacheSize) {
+		this.recipientCacheSize = recipientCacheSize;
+	}
+
+	/**
+	 * 
+	 * @return how long a recipient stays in the recipient cache
+	 */
+	public Duration getRecipientCacheTtl() {
+		return recipientCacheTtl;
+	}
+
+	/**
+	 * 
+	 * @param recipientCacheTtl
+	 *            how long a recipient stays in the recipient cache
+	 */
+	public void setRecipientCacheTtl(Duration recipientCacheTtl) {
+		this.recipientCacheTtl = recipientCacheTtl;
+	}
+
+	/**
+	 * 
+	 * @return how long the notification dashboard counts are reused
+	 */
+	public Duration getDashboardCacheTtl() {
+		return dashboardCacheTtl;
+	}
+
+	/**
+	 * 
+	 * @param dashboardCacheTtl
+	 *            how long the notification dashboard counts are reused
+	 */
+	public void setDashboardCacheTtl(Duration dashboardCacheTtl) {
+		this.dashboardCacheTtl = dashboardCacheTtl;
+	}
+
 	/**
 	 * 
 	 * @return The email notifications will come from
@@ -137,4 +389,157 @@ public class NotificationProperties {
 		this.twilioUpdateSchedule = twilioUpdateSchedule;
 	}
 
+	/**
+	 * 
+	 * @return whether the endpoint for Twilio status callbacks is enabled
+	 */
+	public Boolean getTwilioStatusCallbackEnabled() {
+		return twilioStatusCallbackEnabled;
+	}
+
+	/**
+	 * 
+	 * @param twilioStatusCallbackEnabled
+	 *            whether the endpoint for Twilio status callbacks is enabled
+	 */
+	public void setTwilioStatusCallbackEnabled(Boolean twilioStatusCallbackEnabled) {
+		this.twilioStatusCallbackEnabled = twilioStatusCallbackEnabled;
+	}
+
+	/**
+	 * 
+	 * @return the Twilio auth token used to validate the signature of status callbacks
+	 */
+	public String getTwilioStatusCallbackAuthToken() {
+		return twilioStatusCallbackAuthToken;
+	}
+
+	/**
+	 * 
+	 * @param twilioStatusCallbackAuthToken
+	 *            the Twilio auth token used to validate the signature of status callbacks
+	 */
+	public void setTwilioStatusCallbackAuthToken(String twilioStatusCallbackAuthToken) {
+		this.twilioStatusCallbackAuthToken = twilioStatusCallbackAuthToken;
+	}
+
+	/**
+	 * 
+	 * @return the public URL Twilio sends status callbacks to, or null to use the URL of the request
+	 */
+	public String getTwilioStatusCallbackUrl() {
+		return twilioStatusCallbackUrl;
+	}
+
+	/**
+	 * 
+	 * @param twilioStatusCallbackUrl
+	 *            the public URL Twilio sends status callbacks to, or null to use the URL of the request
+	 */
+	public void setTwilioStatusCallbackUrl(String twilioStatusCallbackUrl) {
+		this.twilioStatusCallbackUrl = twilioStatusCallbackUrl;
+	}
+
+	/**
+	 * 
+	 * @return the order of the security filter chain for the Twilio status callback path
+	 */
+	public Integer getTwilioStatusCallbackSecurityOrder() {
+		return twilioStatusCallbackSecurityOrder;
+	}
+
+	/**
+	 * 
+	 * @param twilioStatusCallbackSecurityOrder
+	 *            the order of the security filter chain for the Twilio status callback path
+	 */
+	public void setTwilioStatusCallbackSecurityOrder(Integer twilioStatusCallbackSecurityOrder) {
+		this.twilioStatusCallbackSecurityOrder = twilioStatusCallbackSecurityOrder;
+	}
+
+	/**
+	 * 
+	 * @return the maximum number of messages the Twilio status job fetches at the same time
+	 */
+	public Integer getTwilioStatusConcurrency() {
+		return twilioStatusConcurrency;
+	}
+
+	/**
+	 * 
+	 * @param twilioStatusConcurrency
+	 *            the maximum number of messages the Twilio status job fetches at the same time
+	 */
+	public void setTwilioStatusConcurrency(Integer twilioStatusConcurrency) {
+		this.twilioStatusConcurrency = twilioStatusConcurrency;
+	}
+
+	/**
+	 * 
+	 * @return the maximum number of requests the Twilio status job makes each second, or 0 for no limit
+	 */
+	public Double getTwilioStatusRequestsPerSecond() {
+		return twilioStatusRequestsPerSecond;
+	}
+
+	/**
+	 * 
+	 * @param twilioStatusRequestsPerSecond
+	 *            the maximum number of requests the Twilio status job makes each second, or 0 for no limit
+	 */
+	public void setTwilioStatusRequestsPerSecond(Double twilioStatusRequestsPerSecond) {
+		this.twilioStatusRequestsPerSecond = twilioStatusRequestsPerSecond;
+	}
+
+	/**
+	 * 
+	 * @return how long after the first status check a Twilio message is checked again
+	 */
+	public Duration getTwilioStatusInitialCheckInterval() {
+		return twilioStatusInitialCheckInterval;
+	}
+
+	/**
+	 * 
+	 * @param twilioStatusInitialCheckInterval
+	 *            how long after the first status check a Twilio message is checked again
+	 */
+	public void setTwilioStatusInitialCheckInterval(Duration twilioStatusInitialCheckInterval) {
+		this.twilioStatusInitialCheckInterval = twilioStatusInitialCheckInterval;
+	}
+
+	/**
+	 * 
+	 * @return the longest interval between status checks of a Twilio message
+	 */
+	public Duration getTwilioStatusMaxCheckInterval() {
+		return twilioStatusMaxCheckInterval;
+	}
+
+	/**
+	 * 
+	 * @param twilioStatusMaxCheckInterval
+	 *            the longest interval between status checks of a Twilio message
+	 */
+	public void setTwilioStatusMaxCheckInterval(Duration twilioStatusMaxCheckInterval) {
+		this.twilioStatusMaxCheckInterval = twilioStatusMaxCheckInterval;
+	}
+
+	/**
+	 * 
+	 * @return the number of status checks after which a Twilio message without a final status is no longer checked
+	 */
+	public Integer getTwilioStatusMaxCheckAttempts() {
+		return twilioStatusMaxCheckAttempts;
+	}
+
+	/**
+	 * 
+	 * @param twilioStatusMaxCheckAttempts
+	 *            the number of status checks after which a Twilio message without a final status is no longer checked
+	 */
+	public void setTwilioStatusMaxCheckAttempts(Integer twilioStatusMaxCheckAttempts) {
+		this.twilioStatusMaxCheckAttempts = twilioStatusMaxCheckAttempts;
+	}
+
 }
@@ -1,12 +1,18 @@
 package org.octri.notification.config;
 
+import java.util.concurrent.Executor;
+
 import org.octri.messaging.autoconfig.TwilioConfiguredCondition;
 import org.octri.messaging.sms.TwilioHelper;
 import org.octri.notification.batch.TwilioStatusItemReader;
 import org.octri.notification.batch.TwilioStatusItemWriter;
 import org.octri.notification.batch.TwilioStatusUpdateJob;
-import org.octri.notification.domain.Notification;
+import org.octri.notification.metrics.NotificationMetrics;
+import org.octri.notification.repository.NotificationJdbcWriter;
 import org.octri.notification.repository.NotificationRepository;
+import org.octri.notification.repository.QueuedTwilioNotification;
+import org.octri.notification.service.StatusCheckSchedule;
+import org.octri.notification.service.TwilioStatusService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.batch.core.Job;
@@ -24,6 +30,7 @@ import org.springframework.batch.item.ItemWriter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Conditional;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.transaction.PlatformTransactionManager;
 
 /**
@@ -43,8 +50,10 @@ public class TwilioStatusBatchConfig {
 
 	private final NotificationProperties notificationProperties;
 	private final NotificationRepository notificationRepository;
+	private final NotificationJdbcWriter notificationJdbcWriter;
 
 	private final TwilioHelper twilioHelper;
+	private final NotificationMetrics notificationMetrics;
 
 	/**
 	 * 
@@ -60,13 +69,18 @@ public class TwilioStatusBatchConfig {
 	 *            the notificationProperties
 	 * @param notificationRepository
 	 *            the NotificationRepository
+	 * @param notificationJdbcWriter
+	 *            the NotificationJdbcWriter
 	 * @param twilioHelper
 	 *            the TwilioHelper
+	 * @param notificationMetrics
+	 *            the NotificationMetrics
 	 */
 	public TwilioStatusBatchConfig(JobRepository jobRepository, JobExplorer jobExplorer, JobLauncher jobLauncher,
 			PlatformTransactionManager transactionManager,
 			NotificationProperties notificationProperties, NotificationRepository notificationRepository,
-			TwilioHelper twilioHelper) {
+			NotificationJdbcWriter notificationJdbcWriter, TwilioHelper twilioHelper,
+			NotificationMetrics notificationMetrics) {
 		log.debug("Creating Twilio update job beans");
 		this.jobRepository = jobRepository;
 		this.jobExplorer = jobExplorer;
@@ -74,7 +88,9 @@ public class TwilioStatusBatchConfig {
 		this.transactionManager = transactionManager;
 		this.notificationProperties = notificationProperties;
 		this.notificationRepository = notificationRepository;
+		this.notificationJdbcWriter = notificationJdbcWriter;
 		this.twilioHelper = twilioHelper;
+		this.notificationMetrics = notificationMetrics;
 	}
 
 	/**
@@ -83,8 +99,8 @@ public class TwilioStatusBatchConfig {
 	 */
 	@Bean
 	@StepScope
-	public ItemReader<Notification> twilioStatusItemReader() {
-		return new TwilioStatusItemReader(notificationRepository);
+	public ItemReader<QueuedTwilioNotification> twilioStatusItemReader() {
+		return new TwilioStatusItemReader(notificationRepository, notificationProperties.getChunkSize());
 	}
 
 	/**
@@ -93,8 +109,35 @@ public class TwilioStatusBatchConfig {
 	 */
 	@Bean
 	@JobScope
-	public ItemWriter<Notification> twilioStatusItemWriter() {
-		return new TwilioStatusItemWriter(notificationRepository, twilioHelper);
+	public ItemWriter<QueuedTwilioNotification> twilioStatusItemWriter() {
+		int fetchConcurrency = Math.max(notificationProperties.getTwilioStatusConcurrency(), 1);
+		return new TwilioStatusItemWriter(twilioStatusService(), twilioHelper,
+				fetchConcurrency > 1 ? twilioStatusExecutor() : null, fetchConcurrency,
+				notificationProperties.getTwilioStatusRequestsPerSecond(), notificationMetrics);
+	}
+
+	/**
+	 * Executor for concurrent status checks. It is not registered as a bean so that it does not replace the
+	 * application's task executor.
+	 * 
+	 * @return an executor that starts a new thread for each status check
+	 */
+	private Executor twilioStatusExecutor() {
+		var executor = new SimpleAsyncTaskExecutor("twilio-status-");
+		executor.setVirtualThreads(Runtime.version().feature() >= 21);
+		return executor;
+	}
+
+	/**
+	 * 
+	 * @return the bean for recording Twilio delivery status
+	 */
+	@Bean
+	public TwilioStatusService twilioStatusService() {
+		return new TwilioStatusService(notificationRepository, notificationJdbcWriter, twilioHelper,
+				new StatusCheckSchedule(notificationProperties.getTwilioStatusInitialCheckInterval(),
+						notificationProperties.getTwilioStatusMaxCheckInterval(),
+						notificationProperties.getTwilioStatusMaxCheckAttempts()));
 	}
 
 	/**
@@ -106,7 +149,8 @@ public class TwilioStatusBatchConfig {
 	 * @return the bean for the Job
 	 */
 	@Bean
-	public Job twilioUpdateJob(JobLauncher jobLauncher, ItemReader<Notification> twilioStatusItemReader) {
+	public Job twilioUpdateJob(JobLauncher jobLauncher,
+			ItemReader<QueuedTwilioNotification> twilioStatusItemReader) {
 		return new JobBuilder(TwilioStatusUpdateJob.TWILIO_UPDATE_JOB_NAME, jobRepository)
 				.incrementer(new RunIdIncrementer())
 				.start(twilioUpdateStep(twilioStatusItemReader))
@@ -124,9 +168,10 @@ public class TwilioStatusBatchConfig {
 		return new TwilioStatusUpdateJob(jobExplorer, jobLauncher, twilioUpdateJob);
 	}
 
-	private Step twilioUpdateStep(ItemReader<Notification> reader) {
+	private Step twilioUpdateStep(ItemReader<QueuedTwilioNotification> reader) {
 		return new StepBuilder("processTwilioNotificationsStep", jobRepository)
-				.<Notification, Notification> chunk(notificationProperties.getChunkSize(), transactionManager)
+				.<QueuedTwilioNotification, QueuedTwilioNotification> chunk(notificationProperties.getChunkSize(),
+						transactionManager)
 				.reader(reader)
 				.writer(twilioStatusItemWriter())
 				.build();
@@ -0,0 +1,99 @@
+package org.octri.notification.config;
+
+import java.util.List;
+
+import org.octri.messaging.autoconfig.TwilioConfiguredCondition;
+import org.octri.notification.controller.TwilioStatusCallbackController;
+import org.octri.notification.service.TwilioStatusService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.util.Assert;
+
+import com.twilio.security.RequestValidator;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Configuration for the optional Twilio status callback endpoint
+ */
+@Configuration
+@Conditional(TwilioConfiguredCondition.class)
+@ConditionalOnProperty(value = "octri.notifications.twilio-status-callback-enabled", havingValue = "true")
+public class TwilioStatusCallbackConfig {
+
+	/**
+	 * 
+	 * @param twilioStatusService
+	 *            the service for recording Twilio delivery status
+	 * @param notificationProperties
+	 *            the notification configuration
+	 * @return the bean for the Twilio status callback controller
+	 */
+	@Bean
+	public TwilioStatusCallbackController twilioStatusCallbackController(TwilioStatusService twilioStatusService,
+			NotificationProperties notificationProperties) {
+		var authToken = notificationProperties.getTwilioStatusCallbackAuthToken();
+		Assert.hasText(authToken,
+				"octri.notifications.twilio-status-callback-auth-token is required to validate Twilio callbacks");
+		return new TwilioStatusCallbackController(twilioStatusService, new RequestValidator(authToken),
+				notificationProperties.getTwilioStatusCallbackUrl());
+	}
+
+	/**
+	 * Twilio cannot log in or send a CSRF token, so the callback path is open and relies on the Twilio signature
+	 * instead. The chain only matches the callback path. Its order is set by
+	 * {@code octri.notifications.twilio-status-callback-security-order}, so that it comes before any application chain
+	 * that would otherwise match the path. Applications can replace it by defining a bean with the same name.
+	 * 
+	 * @param http
+	 *            the HttpSecurity builder
+	 * @param notificationProperties
+	 *            the notification configuration
+	 * @return the security filter chain for the callback path
+	 * @throws Exception
+	 *             if the filter chain cannot be built
+	 */
+	@Bean
+	@ConditionalOnMissingBean(name = "twilioStatusCallbackSecurityFilterChain")
+	public SecurityFilterChain twilioStatusCallbackSecurityFilterChain(HttpSecurity http,
+			NotificationProperties notificationProperties) throws Exception {
+		http.securityMatcher(TwilioStatusCallbackController.CALLBACK_PATH)
+				.authorizeHttpRequests(authorize -> authorize.anyRequest().permitAll())
+				.csrf(AbstractHttpConfigurer::disable);
+		return new OrderedSecurityFilterChain(http.build(),
+				notificationProperties.getTwilioStatusCallbackSecurityOrder());
+	}
+
+	/**
+	 * A security filter chain with an order set from configuration, since {@link Order} only takes a constant
+	 */
+	private record OrderedSecurityFilterChain(SecurityFilterChain delegate, int order)
+			implements SecurityFilterChain, Ordered {
+
+		@Override
+		public boolean matches(HttpServletRequest request) {
+			return delegate.matches(request);
+		}
+
+		@Override
+		public List<Filter> getFilters() {
+			return delegate.getFilters();
+		}
+
+		@Override
+		public int getOrder() {
+			return order;
+		}
+
+	}
+
+}
@@ -4,41 +4,57 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
 
 import org.octri.common.controller.AbstractEntityController;
-import org.octri.common.customizer.IdentifiableEntityFinder;
 import org.octri.common.view.IdentifiableOptionList;
 import org.octri.common.view.OptionList;
 import org.octri.common.view.ViewUtils;
 import org.octri.notification.domain.Notification;
+import org.octri.notification.recipient.RecipientResolver;
 import org.octri.notification.registry.NotificationStatusRegistry;
 import org.octri.notification.registry.NotificationTypeRegistry;
 import org.octri.notification.repository.NotificationRepository;
+import org.octri.notification.view.NotificationListFilter;
 import org.octri.notification.view.NotificationStatusSelectOption;
 import org.octri.notification.view.NotificationViewer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.data.domain.Page;
+import org.springframework.format.support.DefaultFormattingConversionService;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
+import org.springframework.util.StringUtils;
 import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.ServletRequestDataBinder;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 /**
  * Controller for {@link Notification} objects.
  */
 @Controller
-@RequestMapping("/admin/notification")
+@RequestMapping(NotificationController.BASE_ROUTE)
 public class NotificationController extends AbstractEntityController<Notification, NotificationRepository> {
 
 	private static final Logger logger = LoggerFactory.getLogger(NotificationController.class);
 
+	/**
+	 * The route for the notification pages
+	 */
+	public static final String BASE_ROUTE = "/admin/notification";
+
+	private static final String LIST_TEMPLATE = "notification/list";
+
+	private static final ConversionService LIST_FILTER_CONVERSION_SERVICE = new DefaultFormattingConversionService();
+
 	private final NotificationRepository repository;
-	private final IdentifiableEntityFinder<?> recipientFinder;
+	private final RecipientResolver recipientResolver;
 	private final NotificationTypeRegistry notificationTypeRegistry;
 	private final NotificationStatusRegistry notificationStatusRegistry;
 
@@ -46,61 +62,98 @@ public class NotificationController extends AbstractEntityController<Notificatio
 	 * 
 	 * @param repository
 	 *            the notification repository
-	 * @param recipientFinder
-	 *            the finder for recipients
+	 * @param recipientResolver
+	 *            the resolver for recipients
 	 * @param notificationTypeRegistry
 	 *            the registration for notification types
 	 * @param notificationStatusRegistry
 	 *            the registry for notification statuses
 	 */
-	public NotificationController(NotificationRepository repository, IdentifiableEntityFinder<?> recipientFinder,
+	public NotificationController(NotificationRepository repository, RecipientResolver recipientResolver,
 			NotificationTypeRegistry notificationTypeRegistry, NotificationStatusRegistry notificationStatusRegistry) {
 		this.repository = repository;
-		this.recipientFinder = recipientFinder;
+		this.recipientResolver = recipientResolver;
 		this.notificationTypeRegistry = notificationTypeRegistry;
 		this.notificationStatusRegistry = notificationStatusRegistry;
 	}
 
+	/**
+	 * Show one page of notifications, filtered, sorted and paged in the database according to the query string. The
+	 * base list is not used because it loads every notification. Viewers only run for the notifications on the page.
+	 */
 	@GetMapping("/")
 	@Override
 	public String list(Map<String, Object> model) {
-		var template = super.list(model);
-		@SuppressWarnings("unchecked")
-		Iterable<Notification> notifications = (Iterable<Notification>) model.get("entity_list");
-		Map<String, List<Notification>> notificationsByType = StreamSupport
-				.stream(notifications.spliterator(), false)
-				.collect(Collectors.groupingBy(Notification::getNotificationType));
+		var filter = bindListFilter();
+		var status = StringUtils.hasText(filter.getStatus())
+				? notificationStatusRegistry.getStatusByName(filter.getStatus()).orElse(null)
+				: null;
+		Page<Notification> page = repository.findListPage(status, blankToNull(filter.getType()),
+				blankToNull(filter.getRecipient()), filter.getFrom(), filter.getTo(), filter.toPageable());
+		setViews(page.getContent());
+
+		model.putIfAbsent("entityName", domainClass().getSimpleName());
+		model.putIfAbsent("baseRoute", BASE_ROUTE);
+		model.put("entity_list", page.getContent());
+		model.put("filter", filter);
+		model.put("page", page);
+		model.put("pageNumber", page.getNumber() + 1);
+		model.put("previousPageQuery", page.hasPrevious() ? filter.queryString(page.getNumber() - 1) : null);
+		model.put("nextPageQuery", page.hasNext() ? filter.queryString(page.getNumber() + 1) : null);
+		model.put("notificationStatusOptions",
+				NotificationStatusSelectOption.fromStatuses(notificationStatusRegistry.getStatuses(), status));
+		model.put("notificationTypeOptions",
+				OptionList.forStrings(new ArrayList<String>(notificationTypeRegistry.getRegisteredTypes()),
+						filter.getType()));
+		return LIST_TEMPLATE;
+	}
 
-		Map<String, NotificationViewer> viewerByType = notificationTypeRegistry.getRegisteredTypes().stream()
-				.collect(Collectors.toMap(
-						t -> t,
-						t -> notificationTypeRegistry.getHandler(t).getViewer()));
-		List<Notification> notificationViews = new ArrayList<>();
+	/**
+	 * Set the recipient and metadata views on the notifications, preparing each type's viewer once for all the
+	 * notifications of that type
+	 * 
+	 * @param notifications
+	 *            the notifications on the page, whose order is kept
+	 */
+	private void setViews(List<Notification> notifications) {
+		Map<String, List<Notification>> notificationsByType = notifications.stream()
+				.collect(Collectors.groupingBy(Notification::getNotificationType));
 
 		for (var type : notificationsByType.keySet()) {
-			NotificationViewer viewer = viewerByType.get(type);
+			var handler = notificationTypeRegistry.getHandler(type);
+			if (handler == null) {
+				// No viewer found — leave as is
+				continue;
+			}
+			NotificationViewer viewer = handler.getViewer();
 			List<Notification> typeNotifications = notificationsByType.get(type);
-
-			if (viewer != null) {
-				try (var ignored = viewer.prepareCache(typeNotifications)) {
-					for (var n : typeNotifications) {
-						n.setNotificationRecipientView(viewer.getRecipientView(n));
-						n.setNotificationMetadataView(viewer.getMetadataView(n));
-						notificationViews.add(n);
-					}
-				} catch (Exception e) {
-					logger.error("Error closing cache for viewer of type {}", type, e);
+			try (var ignored = viewer.prepareCache(typeNotifications)) {
+				for (var n : typeNotifications) {
+					n.setNotificationRecipientView(viewer.getRecipientView(n));
+					n.setNotificationMetadataView(viewer.getMetadataView(n));
 				}
-			} else {
-				// No viewer found — just add as is
-				notificationViews.addAll(typeNotifications);
+			} catch (Exception e) {
+				logger.error("Error closing cache for viewer of type {}", type, e);
 			}
 		}
-		model.put("entity_list", notificationViews);
-		model.put("notificationStatuses", notificationStatusRegistry.getStatuses());
-		ViewUtils.addPageScript(model, "table-filtering.js");
+	}
 
-		return template;
+	/**
+	 * Bind the list filter from the parameters of the current request. The list keeps the signature of the base
+	 * controller so that it keeps its route, so the filter cannot be a handler argument. Values that cannot be
+	 * converted are ignored.
+	 */
+	private NotificationListFilter bindListFilter() {
+		var filter = new NotificationListFilter();
+		var binder = new ServletRequestDataBinder(filter);
+		binder.setConversionService(LIST_FILTER_CONVERSION_SERVICE);
+		var request = ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest();
+		binder.bind(request);
+		return filter;
+	}
+
+	private static String blankToNull(String value) {
+		return StringUtils.hasText(value) ? value : null;
 	}
 
 	@GetMapping("/{id}")
@@ -131,7 +184,7 @@ public class NotificationController extends AbstractEntityController<Notificatio
 
 		// Add options for select.
 		model.put("recipientOptions",
-				IdentifiableOptionList.fromAll(recipientFinder, null));
+				IdentifiableOptionList.fromAll(recipientResolver.asEntityFinder(), null));
 		model.put("notificationStatusOptions",
 				NotificationStatusSelectOption.fromStatuses(notificationStatusRegistry.getStatuses(),
 						null));
@@ -149,7 +202,7 @@ public class NotificationController extends AbstractEntityController<Notificatio
 
 		// Add options for select.
 		model.put("recipientOptions",
-				IdentifiableOptionList.fromAll(recipientFinder, entity.getRecipientUuid()));
+				IdentifiableOptionList.fromAll(recipientResolver.asEntityFinder(), entity.getRecipientUuid()));
 		model.put("notificationStatusOptions",
 				NotificationStatusSelectOption.fromStatuses(notificationStatusRegistry.getStatuses(),
 						entity.getNotificationStatus()));
@@ -0,0 +1,59 @@
+package org.octri.notification.controller;
+
+import java.util.Map;
+
+import org.octri.notification.service.NotificationDashboard;
+import org.octri.notification.service.NotificationDashboardService;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+/**
+ * Controller for the notification dashboard, which shows aggregate counts of notifications by status, type and date
+ */
+@Controller
+@RequestMapping(NotificationDashboardController.DASHBOARD_ROUTE)
+public class NotificationDashboardController {
+
+	/**
+	 * The route for the dashboard
+	 */
+	public static final String DASHBOARD_ROUTE = NotificationController.BASE_ROUTE + "/dashboard";
+
+	private final NotificationDashboardService notificationDashboardService;
+
+	/**
+	 * 
+	 * @param notificationDashboardService
+	 *            the service for the dashboard counts
+	 */
+	public NotificationDashboardController(NotificationDashboardService notificationDashboardService) {
+		this.notificationDashboardService = notificationDashboardService;
+	}
+
+	/**
+	 * 
+	 * @param model
+	 *            the model
+	 * @return the dashboard template
+	 */
+	@GetMapping({ "", "/" })
+	public String dashboard(Map<String, Object> model) {
+		model.put("dashboard", notificationDashboardService.getDashboard());
+		model.put("baseRoute", NotificationController.BASE_ROUTE);
+		return "notification/dashboard";
+	}
+
+	/**
+	 * 
+	 * @return the dashboard counts for monitoring
+	 */
+	@GetMapping(value = "/data", produces = MediaType.APPLICATION_JSON_VALUE)
+	@ResponseBody
+	public NotificationDashboard dashboardData() {
+		return notificationDashboardService.getDashboard();
+	}
+
+}
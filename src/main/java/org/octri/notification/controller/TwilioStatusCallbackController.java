@@ -0,0 +1,103 @@
+package org.octri.notification.controller;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.octri.notification.service.TwilioStatusService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import com.twilio.security.RequestValidator;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Receives Twilio message status callbacks so that delivery status is recorded as soon as Twilio reports it. Requests
+ * must carry a valid Twilio signature. The Twilio status job still sweeps up any messages whose callbacks were missed.
+ */
+@Controller
+public class TwilioStatusCallbackController {
+
+	private static final Logger log = LoggerFactory.getLogger(TwilioStatusCallbackController.class);
+
+	/**
+	 * The path Twilio should send status callbacks to
+	 */
+	public static final String CALLBACK_PATH = "/notification/twilio/status";
+
+	/**
+	 * The header carrying the Twilio request signature
+	 */
+	public static final String SIGNATURE_HEADER = "X-Twilio-Signature";
+
+	private final TwilioStatusService twilioStatusService;
+	private final RequestValidator requestValidator;
+	private final String callbackUrl;
+
+	/**
+	 * 
+	 * @param twilioStatusService
+	 *            the service for recording Twilio delivery status
+	 * @param requestValidator
+	 *            the validator for Twilio request signatures
+	 * @param callbackUrl
+	 *            the public URL Twilio sends callbacks to, or null to use the URL of the request. Set this when the
+	 *            application is behind a proxy that changes the URL.
+	 */
+	public TwilioStatusCallbackController(TwilioStatusService twilioStatusService, RequestValidator requestValidator,
+			String callbackUrl) {
+		this.twilioStatusService = twilioStatusService;
+		this.requestValidator = requestValidator;
+		this.callbackUrl = callbackUrl;
+	}
+
+	/**
+	 * 
+	 * @param request
+	 *            the request
+	 * @param signature
+	 *            the Twilio signature of the request
+	 * @param parameters
+	 *            the form parameters sent by Twilio
+	 * @return 204 if the callback was accepted, 403 if the signature is not valid, or 400 if required parameters are
+	 *         missing
+	 */
+	@PostMapping(path = CALLBACK_PATH, consumes = MediaType.APPLICATION_FORM_URLENCODED_VALUE)
+	public ResponseEntity<Void> statusCallback(HttpServletRequest request,
+			@RequestHeader(name = SIGNATURE_HEADER, required = false) String signature,
+			@RequestParam MultiValueMap<String, String> parameters) {
+		Map<String, String> params = new HashMap<>(parameters.toSingleValueMap());
+		if (signature == null || !requestValidator.validate(requestUrl(request), params, signature)) {
+			log.warn("Rejected Twilio status callback with an invalid signature");
+			return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+		}
+
+		var messageSid = params.get("MessageSid");
+		var messageStatus = params.get("MessageStatus");
+		if (messageSid == null || messageStatus == null) {
+			return ResponseEntity.badRequest().build();
+		}
+		twilioStatusService.handleStatusCallback(messageSid, messageStatus);
+		return ResponseEntity.noContent().build();
+	}
+
+	private String requestUrl(HttpServletRequest request) {
+		if (callbackUrl != null) {
+			return callbackUrl;
+		}
+		var url = request.getRequestURL();
+		if (request.getQueryString() != null) {
+			url.append('?').append(request.getQueryString());
+		}
+		return url.toString();
+	}
+
+}
@@ -17,6 +17,7 @@ public abstract class AbstractNotificationDispatcher implements NotificationDisp
 	private final MessageDeliveryService messageDeliveryService;
 	private final NotificationProperties notificationProperties;
 	private final Mustache.Compiler mustacheCompiler;
+	private final TemplateCache templateCache;
 
 	/**
 	 * Constructor
@@ -33,10 +34,13 @@ public abstract class AbstractNotificationDispatcher implements NotificationDisp
 		this.messageDeliveryService = messageDeliveryService;
 		this.notificationProperties = notificationProperties;
 		this.mustacheCompiler = mustacheCompiler;
+		this.templateCache = new TemplateCache(mustacheCompiler == null ? null : mustacheCompiler.escapeHTML(false),
+				TemplateCache.DEFAULT_MAX_SIZE);
 	}
 
 	/**
-	 * Generate message content by applying the given values to the provided template
+	 * Generate message content by applying the given values to the provided template. Compiled templates are cached by
+	 * their text, so a template is only parsed once for all of the notifications that use it.
 	 * 
 	 * @param template
 	 *            the message template
@@ -45,8 +49,34 @@ public abstract class AbstractNotificationDispatcher implements NotificationDisp
 	 * @return the generated message content
 	 */
 	public String generateMessageContent(String template, Map<String, String> values) {
-		Mustache.Compiler noEscapeCompiler = mustacheCompiler.escapeHTML(false);
-		return noEscapeCompiler.compile(template).execute(values);
+		return templateCache.get(template).execute(values);
+	}
+
+	/**
+	 * Compile a template ahead of time, for example at startup, so that it can be used with
+	 * {@link #generateRegisteredMessageContent(String, Map)}
+	 * 
+	 * @param templateId
+	 *            the id used to look up the template
+	 * @param template
+	 *            the message template
+	 */
+	public void registerTemplate(String templateId, String template) {
+		templateCache.register(templateId, template);
+	}
+
+	/**
+	 * Generate message content by applying the given values to a template registered with
+	 * {@link #registerTemplate(String, String)}
+	 * 
+	 * @param templateId
+	 *            the id the template was registered with
+	 * @param values
+	 *            the values to apply to the template
+	 * @return the generated message content
+	 */
+	public String generateRegisteredMessageContent(String templateId, Map<String, String> values) {
+		return templateCache.getRegistered(templateId).execute(values);
 	}
 
 	/**
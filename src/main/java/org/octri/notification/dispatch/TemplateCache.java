@@ -0,0 +1,109 @@
+package org.octri.notification.dispatch;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.util.Assert;
+
+import com.samskivert.mustache.Mustache;
+import com.samskivert.mustache.Template;
+
+/**
+ * A cache of compiled Mustache templates. Templates are looked up by their text, keeping the most recently used ones up
+ * to a maximum size, or by an id they were registered with at startup. Registered templates are never evicted.
+ */
+public class TemplateCache {
+
+	/**
+	 * The default number of templates cached by their text
+	 */
+	public static final int DEFAULT_MAX_SIZE = 256;
+
+	private final Mustache.Compiler compiler;
+	private final Map<String, Template> registered = new ConcurrentHashMap<>();
+	private final LinkedHashMap<String, Template> compiled;
+
+	/**
+	 * 
+	 * @param compiler
+	 *            the compiler used for templates that are not cached yet
+	 * @param maxSize
+	 *            the maximum number of templates cached by their text
+	 */
+	public TemplateCache(Mustache.Compiler compiler, int maxSize) {
+		Assert.isTrue(maxSize > 0, "Maximum size must be greater than zero");
+		this.compiler = compiler;
+		this.compiled = new LinkedHashMap<>(16, 0.75f, true) {
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Template> eldest) {
+				return size() > maxSize;
+			}
+
+		};
+	}
+
+	/**
+	 * 
+	 * @param template
+	 *            the template text
+	 * @return the compiled template, compiling it if it is not cached
+	 */
+	public Template get(String template) {
+		Template result;
+		synchronized (compiled) {
+			result = compiled.get(template);
+		}
+		if (result == null) {
+			// Compile outside the lock. Two threads may compile the same text, but only the first result is kept.
+			var newTemplate = compiler.compile(template);
+			synchronized (compiled) {
+				result = compiled.putIfAbsent(template, newTemplate);
+			}
+			if (result == null) {
+				result = newTemplate;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Compile a template and register it under an id
+	 * 
+	 * @param templateId
+	 *            the id used to look up the template
+	 * @param template
+	 *            the template text
+	 */
+	public void register(String templateId, String template) {
+		registered.put(templateId, compiler.compile(template));
+	}
+
+	/**
+	 * 
+	 * @param templateId
+	 *            the id the template was registered with
+	 * @return the compiled template
+	 * @throws IllegalArgumentException
+	 *             if no template is registered with the id
+	 */
+	public Template getRegistered(String templateId) {
+		var template = registered.get(templateId);
+		if (template == null) {
+			throw new IllegalArgumentException(String.format("No template registered with id: %s", templateId));
+		}
+		return template;
+	}
+
+	/**
+	 * 
+	 * @return the number of templates cached by their text
+	 */
+	public int size() {
+		synchronized (compiled) {
+			return compiled.size();
+		}
+	}
+
+}
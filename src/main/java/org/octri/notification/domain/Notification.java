@@ -9,9 +9,9 @@ import org.octri.notification.metadata.NotificationMetadata;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
+import jakarta.persistence.Access;
+import jakarta.persistence.AccessType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Transient;
@@ -61,9 +61,10 @@ public class Notification extends AbstractEntity {
 	private String notificationType;
 
 	/**
-	 * Metadata about the notification to be used for validation and dispatch
+	 * Metadata about the notification to be used for validation and dispatch. Mapped through its getter so that metadata
+	 * set as an object is serialized when the entity is flushed.
 	 */
-	@Column(columnDefinition = "JSON")
+	@Transient
 	private String notificationMetadata;
 
 	/**
@@ -72,16 +73,52 @@ public class Notification extends AbstractEntity {
 	private LocalDateTime dateTimeProcessed;
 
 	/**
-	 * Metadata about the disposition of the notification
+	 * Time until which the notification is claimed for sending, either outside the batch job or by the batch job of
+	 * one application instance. The batch job skips notifications with a claim that has not expired.
 	 */
-	@Column(columnDefinition = "JSON")
+	private LocalDateTime claimedUntil;
+
+	/**
+	 * The application instance whose batch job claimed the notification
+	 */
+	private String claimedBy;
+
+	/**
+	 * When the Twilio status job should next check the delivery status of the message sent for the notification. It is
+	 * only set for notifications sent with Twilio, and is cleared once a final status is recorded.
+	 */
+	private LocalDateTime nextStatusCheckAt;
+
+	/**
+	 * Metadata about the disposition of the notification. Mapped through its getter so that metadata set as a record is
+	 * serialized when the entity is flushed.
+	 */
+	@Transient
 	private String notificationStatusMetadata;
 
 	/**
-	 * Custom ObjectMapper for serializing/deserializing metadata
+	 * The parsed notification metadata, or metadata set as an object that has not been serialized yet
 	 */
 	@Transient
-	private ObjectMapper mapper = new ObjectMapper();
+	private NotificationMetadata parsedMetadata;
+
+	/**
+	 * Whether parsedMetadata is newer than the JSON string
+	 */
+	@Transient
+	private boolean metadataPendingWrite = false;
+
+	/**
+	 * The parsed status metadata, or status metadata set as a record that has not been serialized yet
+	 */
+	@Transient
+	private NotificationStatusMetadata parsedStatusMetadata;
+
+	/**
+	 * Whether parsedStatusMetadata is newer than the JSON string
+	 */
+	@Transient
+	private boolean statusMetadataPendingWrite = false;
 
 	/**
 	 * The recipient entity. The caller must ensure this is set along with the recipientUuid
@@ -105,7 +142,6 @@ public class Notification extends AbstractEntity {
 	 * Create an empty Notification
 	 */
 	public Notification() {
-		this.configureMapper();
 	}
 
 	/**
@@ -115,20 +151,9 @@ public class Notification extends AbstractEntity {
 	 *            the recipient entity
 	 */
 	public Notification(Recipient relatedEntity) {
-		this.configureMapper();
 		this.setRecipient(relatedEntity);
 	}
 
-	private void configureMapper() {
-		// Adds support for LocalDate
-		mapper.registerModule(new JavaTimeModule());
-		mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-		// This ensures that an empty NotificationMetadata can be serialized
-		mapper.configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
-		// This ensures unnecessary fields aren't serialized/deserialized if the ReminderDayProgressionTracker is used
-		mapper.addMixIn(ReminderDayProgressionTracker.class, ProgressionTrackerMixin.class);
-	}
-
 	/**
 	 * @return the scheduled date
 	 */
@@ -205,7 +230,17 @@ public class Notification extends AbstractEntity {
 	 * 
 	 * @return the notification metadata as a JSON string
 	 */
+	@Access(AccessType.PROPERTY)
+	@Column(columnDefinition = "JSON")
 	public String getNotificationMetadata() {
+		if (metadataPendingWrite) {
+			try {
+				notificationMetadata = NotificationJson.write(parsedMetadata);
+			} catch (JsonProcessingException e) {
+				throw new RuntimeException("Failed to serialize metadata", e);
+			}
+			metadataPendingWrite = false;
+		}
 		return notificationMetadata;
 	}
 
@@ -216,23 +251,26 @@ public class Notification extends AbstractEntity {
 	 */
 	public void setNotificationMetadata(String notificationMetadata) {
 		this.notificationMetadata = notificationMetadata;
+		this.parsedMetadata = null;
+		this.metadataPendingWrite = false;
 	}
 
 	/**
+	 * Set the notification metadata. It is serialized when the JSON string is first needed, usually when the entity is
+	 * flushed.
 	 * 
 	 * @param notificationMetadata
 	 *            the notification metadata object
 	 */
 	public void setNotificationMetadata(NotificationMetadata notificationMetadata) {
-		try {
-			this.notificationMetadata = mapper.writeValueAsString(notificationMetadata);
-		} catch (JsonProcessingException e) {
-			throw new RuntimeException("Failed to serialize metadata", e);
-		}
+		this.parsedMetadata = notificationMetadata;
+		this.metadataPendingWrite = true;
 	}
 
 	/**
-	 * Deserialize the notification metadata into the specified class
+	 * Deserialize the notification metadata into the specified class. The result is kept, so later calls for the same
+	 * class return the same object without parsing the JSON again. Changes made to the returned object are not saved
+	 * unless it is passed back to {@link #setNotificationMetadata(NotificationMetadata)}.
 	 * 
 	 * @param <T>
 	 *            the type of the metadata
@@ -241,14 +279,19 @@ public class Notification extends AbstractEntity {
 	 * @return the deserialized metadata
 	 */
 	public <T extends NotificationMetadata> T getNotificationMetadata(Class<T> metadataClass) {
-		if (notificationMetadata == null) {
+		if (metadataClass.isInstance(parsedMetadata)) {
+			return metadataClass.cast(parsedMetadata);
+		}
+		var json = getNotificationMetadata();
+		if (json == null) {
 			throw new IllegalStateException("Notification metadata is null");
 		}
 		try {
-			return mapper.readValue(notificationMetadata, metadataClass);
+			parsedMetadata = NotificationJson.read(json, metadataClass);
 		} catch (Exception e) {
 			throw new RuntimeException("Failed to deserialize metadata", e);
 		}
+		return metadataClass.cast(parsedMetadata);
 	}
 
 	/**
@@ -268,11 +311,73 @@ public class Notification extends AbstractEntity {
 		this.dateTimeProcessed = dateTimeProcessed;
 	}
 
+	/**
+	 * 
+	 * @return the time until which the notification is claimed for sending outside the batch job, if it is claimed
+	 */
+	public LocalDateTime getClaimedUntil() {
+		return claimedUntil;
+	}
+
+	/**
+	 * 
+	 * @param claimedUntil
+	 *            the time until which the notification is claimed for sending outside the batch job
+	 */
+	public void setClaimedUntil(LocalDateTime claimedUntil) {
+		this.claimedUntil = claimedUntil;
+	}
+
+	/**
+	 * 
+	 * @return the application instance whose batch job claimed the notification, if it is claimed by a batch job
+	 */
+	public String getClaimedBy() {
+		return claimedBy;
+	}
+
+	/**
+	 * 
+	 * @param claimedBy
+	 *            the application instance whose batch job claimed the notification
+	 */
+	public void setClaimedBy(String claimedBy) {
+		this.claimedBy = claimedBy;
+	}
+
+	/**
+	 * 
+	 * @return when the delivery status of the message sent with Twilio should next be checked, if it should be
+	 */
+	public LocalDateTime getNextStatusCheckAt() {
+		return nextStatusCheckAt;
+	}
+
+	/**
+	 * 
+	 * @param nextStatusCheckAt
+	 *            when the delivery status of the message sent with Twilio should next be checked
+	 */
+	public void setNextStatusCheckAt(LocalDateTime nextStatusCheckAt) {
+		this.nextStatusCheckAt = nextStatusCheckAt;
+	}
+
 	/**
 	 * 
 	 * @return the notification status metadata as a JSON string
 	 */
+	@Access(AccessType.PROPERTY)
+	@Column(columnDefinition = "JSON")
 	public String getNotificationStatusMetadata() {
+		if (statusMetadataPendingWrite) {
+			try {
+				notificationStatusMetadata = NotificationJson.write(parsedStatusMetadata);
+			} catch (JsonProcessingException e) {
+				throw new RuntimeException(
+						"Failed to serialize status metadata", e);
+			}
+			statusMetadataPendingWrite = false;
+		}
 		return notificationStatusMetadata;
 	}
 
@@ -283,35 +388,39 @@ public class Notification extends AbstractEntity {
 	 */
 	public void setNotificationStatusMetadata(String notificationStatusMetadata) {
 		this.notificationStatusMetadata = notificationStatusMetadata;
+		this.parsedStatusMetadata = null;
+		this.statusMetadataPendingWrite = false;
 	}
 
 	/**
+	 * Set the status metadata. It is serialized when the JSON string is first needed, usually when the entity is
+	 * flushed.
 	 * 
 	 * @param notificationStatusMetadataRecord
 	 *            the notification status metadata record
 	 */
 	public void setNotificationStatusMetadata(NotificationStatusMetadata notificationStatusMetadataRecord) {
-		try {
-			this.notificationStatusMetadata = mapper.writeValueAsString(notificationStatusMetadataRecord);
-		} catch (JsonProcessingException e) {
-			throw new RuntimeException(
-					"Failed to serialize status metadata", e);
-		}
+		this.parsedStatusMetadata = notificationStatusMetadataRecord;
+		this.statusMetadataPendingWrite = true;
 	}
 
 	/**
 	 * 
-	 * @return the deserialized notification status metadata
+	 * @return the deserialized notification status metadata. The JSON is parsed on the first call only.
 	 */
 	public NotificationStatusMetadata getStatusMetadata() {
+		if (parsedStatusMetadata != null || statusMetadataPendingWrite) {
+			return parsedStatusMetadata;
+		}
 		if (notificationStatusMetadata == null) {
 			return null;
 		}
 		try {
-			return mapper.readValue(notificationStatusMetadata, NotificationStatusMetadata.class);
+			parsedStatusMetadata = NotificationJson.read(notificationStatusMetadata, NotificationStatusMetadata.class);
 		} catch (Exception e) {
 			throw new RuntimeException("Failed to deserialize status metadata", e);
 		}
+		return parsedStatusMetadata;
 	}
 
 	/**
@@ -392,10 +501,11 @@ public class Notification extends AbstractEntity {
 
 	/**
 	 * 
-	 * @return The JSON ObjectMapper to use for parsing NotificationMetadata and NotificationStatusMetadata
+	 * @return The JSON ObjectMapper to use for parsing NotificationMetadata and NotificationStatusMetadata. The mapper
+	 *         is shared by all notifications and must not be reconfigured.
 	 */
 	public ObjectMapper getObjectMapper() {
-		return mapper;
+		return NotificationJson.getObjectMapper();
 	}
 
 	@Override
@@ -0,0 +1,78 @@
+package org.octri.notification.domain;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+/**
+ * The JSON mapper shared by all {@link Notification} entities for reading and writing their metadata. The mapper is
+ * configured once and is thread-safe as long as it is not reconfigured. Readers and writers are cached per class so
+ * that the type introspection is done once rather than once per entity.
+ */
+public final class NotificationJson {
+
+	private static final ObjectMapper MAPPER = createMapper();
+	private static final ConcurrentMap<Class<?>, ObjectReader> READERS = new ConcurrentHashMap<>();
+	private static final ConcurrentMap<Class<?>, ObjectWriter> WRITERS = new ConcurrentHashMap<>();
+
+	private NotificationJson() {
+	}
+
+	private static ObjectMapper createMapper() {
+		var mapper = new ObjectMapper();
+		// Adds support for LocalDate
+		mapper.registerModule(new JavaTimeModule());
+		mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+		// This ensures that an empty NotificationMetadata can be serialized
+		mapper.configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
+		// This ensures unnecessary fields aren't serialized/deserialized if the ReminderDayProgressionTracker is used
+		mapper.addMixIn(ReminderDayProgressionTracker.class, ProgressionTrackerMixin.class);
+		return mapper;
+	}
+
+	/**
+	 * 
+	 * @return the shared mapper. Callers must not change its configuration.
+	 */
+	public static ObjectMapper getObjectMapper() {
+		return MAPPER;
+	}
+
+	/**
+	 * 
+	 * @param <T>
+	 *            the type to read
+	 * @param json
+	 *            the JSON string
+	 * @param type
+	 *            the class to deserialize into
+	 * @return the deserialized value
+	 * @throws JsonProcessingException
+	 *             if the JSON cannot be read as the given type
+	 */
+	public static <T> T read(String json, Class<T> type) throws JsonProcessingException {
+		return READERS.computeIfAbsent(type, MAPPER::readerFor).readValue(json);
+	}
+
+	/**
+	 * 
+	 * @param value
+	 *            the value to serialize
+	 * @return the value as a JSON string
+	 * @throws JsonProcessingException
+	 *             if the value cannot be serialized
+	 */
+	public static String write(Object value) throws JsonProcessingException {
+		if (value == null) {
+			return MAPPER.writeValueAsString(null);
+		}
+		return WRITERS.computeIfAbsent(value.getClass(), MAPPER::writerFor).writeValueAsString(value);
+	}
+
+}
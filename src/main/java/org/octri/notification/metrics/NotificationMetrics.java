@@ -0,0 +1,184 @@
+package org.octri.notification.metrics;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.octri.notification.domain.DispatchResult;
+import org.octri.notification.domain.ProcessingMode;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Records timers and counters for the notification and Twilio status jobs. Meters are registered with the
+ * application's {@link MeterRegistry} the first time they are used. When there is no registry, {@link #NOOP} is used
+ * and nothing is recorded.
+ */
+public class NotificationMetrics {
+
+	/**
+	 * Metrics that are not recorded anywhere
+	 */
+	public static final NotificationMetrics NOOP = new NotificationMetrics(null);
+
+	/**
+	 * Time to read a page of due notifications
+	 */
+	public static final String READER_PAGE = "notification.reader.page";
+
+	/**
+	 * Time to resolve the recipients for a page of notifications
+	 */
+	public static final String RECIPIENT_LOOKUP = "notification.recipient.lookup";
+
+	/**
+	 * Time to validate a notification, by type and outcome
+	 */
+	public static final String VALIDATION = "notification.validation";
+
+	/**
+	 * Time to dispatch a notification, by type, channel and outcome
+	 */
+	public static final String DISPATCH = "notification.dispatch";
+
+	/**
+	 * Count of dispatch results, by type, channel and outcome
+	 */
+	public static final String DISPATCH_RESULTS = "notification.dispatch.results";
+
+	/**
+	 * Count of notifications not sent because a copy had already been sent, by type
+	 */
+	public static final String DUPLICATES = "notification.dispatch.duplicates";
+
+	/**
+	 * Time to fetch the latest state of a message from Twilio, by outcome
+	 */
+	public static final String TWILIO_FETCH = "notification.twilio.fetch";
+
+	static final String CHANNEL_EMAIL = "email";
+	static final String CHANNEL_SMS = "sms";
+	static final String CHANNEL_MIXED = "mixed";
+	static final String CHANNEL_NONE = "none";
+	static final String OUTCOME_SUCCESS = "success";
+	static final String OUTCOME_FAILURE = "failure";
+
+	private final MeterRegistry meterRegistry;
+
+	/**
+	 *
+	 * @param meterRegistry
+	 *            the registry meters are recorded in, or null to record nothing
+	 */
+	public NotificationMetrics(MeterRegistry meterRegistry) {
+		this.meterRegistry = meterRegistry;
+	}
+
+	/**
+	 *
+	 * @param processingMode
+	 *            the processing mode of the job that read the page
+	 * @param nanos
+	 *            the time taken to read the page
+	 */
+	public void recordReaderPage(ProcessingMode processingMode, long nanos) {
+		record(READER_PAGE, nanos, "mode", String.valueOf(processingMode));
+	}
+
+	/**
+	 *
+	 * @param processingMode
+	 *            the processing mode of the job that read the page
+	 * @param nanos
+	 *            the time taken to resolve the recipients of the page
+	 */
+	public void recordRecipientLookup(ProcessingMode processingMode, long nanos) {
+		record(RECIPIENT_LOOKUP, nanos, "mode", String.valueOf(processingMode));
+	}
+
+	/**
+	 *
+	 * @param notificationType
+	 *            the notification type
+	 * @param valid
+	 *            whether the notification was still valid
+	 * @param nanos
+	 *            the time taken to validate the notification
+	 */
+	public void recordValidation(String notificationType, boolean valid, long nanos) {
+		record(VALIDATION, nanos, "type", notificationType, "outcome", valid ? "valid" : "invalid");
+	}
+
+	/**
+	 * Record the time taken to dispatch a notification and count each of its results. The channel is taken from the
+	 * recipients of the results: an email address for email, anything else for SMS.
+	 *
+	 * @param notificationType
+	 *            the notification type
+	 * @param dispatchResults
+	 *            the results returned by the dispatcher
+	 * @param nanos
+	 *            the time taken to dispatch the notification
+	 */
+	public void recordDispatch(String notificationType, List<DispatchResult> dispatchResults, long nanos) {
+		if (meterRegistry == null) {
+			return;
+		}
+		String channel = null;
+		boolean successful = !dispatchResults.isEmpty();
+		for (DispatchResult dispatchResult : dispatchResults) {
+			var resultChannel = channel(dispatchResult);
+			channel = channel == null || channel.equals(resultChannel) ? resultChannel : CHANNEL_MIXED;
+			successful &= Boolean.TRUE.equals(dispatchResult.successful());
+			Counter.builder(DISPATCH_RESULTS)
+					.tags("type", notificationType, "channel", resultChannel, "outcome",
+							outcome(Boolean.TRUE.equals(dispatchResult.successful())))
+					.register(meterRegistry)
+					.increment();
+		}
+		record(DISPATCH, nanos, "type", notificationType, "channel", channel == null ? CHANNEL_NONE : channel,
+				"outcome", outcome(successful));
+	}
+
+	/**
+	 *
+	 * @param notificationType
+	 *            the type of the duplicate notification
+	 */
+	public void recordDuplicate(String notificationType) {
+		if (meterRegistry != null) {
+			Counter.builder(DUPLICATES).tag("type", notificationType).register(meterRegistry).increment();
+		}
+	}
+
+	/**
+	 *
+	 * @param successful
+	 *            whether the message was fetched
+	 * @param nanos
+	 *            the time taken to fetch the message from Twilio
+	 */
+	public void recordTwilioFetch(boolean successful, long nanos) {
+		record(TWILIO_FETCH, nanos, "outcome", outcome(successful));
+	}
+
+	static String channel(DispatchResult dispatchResult) {
+		var recipient = dispatchResult.recipient();
+		if (recipient == null) {
+			return CHANNEL_NONE;
+		}
+		return recipient.contains("@") ? CHANNEL_EMAIL : CHANNEL_SMS;
+	}
+
+	private static String outcome(boolean successful) {
+		return successful ? OUTCOME_SUCCESS : OUTCOME_FAILURE;
+	}
+
+	private void record(String name, long nanos, String... tags) {
+		if (meterRegistry != null) {
+			Timer.builder(name).tags(tags).register(meterRegistry).record(nanos, TimeUnit.NANOSECONDS);
+		}
+	}
+
+}
@@ -0,0 +1,104 @@
+package org.octri.notification.recipient;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.octri.notification.domain.Recipient;
+import org.springframework.util.Assert;
+
+/**
+ * The default {@link RecipientCache}. Recipients are kept in least-recently-used order and expire a fixed time after
+ * they were cached, so changes made by the application are eventually seen even if it never invalidates them. A
+ * maximum size of zero disables caching.
+ */
+public class BoundedRecipientCache implements RecipientCache {
+
+	private final int maxSize;
+	private final Duration timeToLive;
+	private final Clock clock;
+	private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+	private long hits = 0;
+	private long misses = 0;
+	private long evictions = 0;
+
+	private record Entry(Recipient recipient, Instant expiresAt) {
+	}
+
+	/**
+	 *
+	 * @param maxSize
+	 *            the maximum number of recipients to cache
+	 * @param timeToLive
+	 *            how long a recipient stays cached
+	 */
+	public BoundedRecipientCache(int maxSize, Duration timeToLive) {
+		this(maxSize, timeToLive, Clock.systemUTC());
+	}
+
+	/**
+	 *
+	 * @param maxSize
+	 *            the maximum number of recipients to cache
+	 * @param timeToLive
+	 *            how long a recipient stays cached
+	 * @param clock
+	 *            the clock used to expire entries
+	 */
+	public BoundedRecipientCache(int maxSize, Duration timeToLive, Clock clock) {
+		Assert.isTrue(maxSize >= 0, "Maximum size must not be negative");
+		Assert.isTrue(timeToLive != null && !timeToLive.isNegative(), "Time to live must not be negative");
+		this.maxSize = maxSize;
+		this.timeToLive = timeToLive;
+		this.clock = clock;
+	}
+
+	@Override
+	public synchronized Recipient get(String uuid) {
+		var entry = entries.get(uuid);
+		if (entry != null && entry.expiresAt().isBefore(clock.instant())) {
+			entries.remove(uuid);
+			evictions++;
+			entry = null;
+		}
+		if (entry == null) {
+			misses++;
+			return null;
+		}
+		hits++;
+		return entry.recipient();
+	}
+
+	@Override
+	public synchronized void put(Recipient recipient) {
+		if (maxSize == 0 || recipient == null || recipient.getUuid() == null) {
+			return;
+		}
+		entries.put(recipient.getUuid(), new Entry(recipient, clock.instant().plus(timeToLive)));
+		Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+		while (entries.size() > maxSize) {
+			eldest.next();
+			eldest.remove();
+			evictions++;
+		}
+	}
+
+	@Override
+	public synchronized void invalidate(String uuid) {
+		entries.remove(uuid);
+	}
+
+	@Override
+	public synchronized void invalidateAll() {
+		entries.clear();
+	}
+
+	@Override
+	public synchronized RecipientCacheStats getStats() {
+		return new RecipientCacheStats(hits, misses, evictions, entries.size());
+	}
+
+}
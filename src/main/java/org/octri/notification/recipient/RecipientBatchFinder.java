@@ -0,0 +1,26 @@
+package org.octri.notification.recipient;
+
+import java.util.Collection;
+
+import org.octri.notification.domain.Recipient;
+
+/**
+ * Optional interface for the application's recipient finder. When the bean that implements
+ * {@link org.octri.common.customizer.IdentifiableEntityFinder} also implements this interface, the batch job resolves
+ * the recipients for a whole page of notifications with a single call instead of one lookup per notification.
+ *
+ * @param <T>
+ *            the type of recipient
+ */
+public interface RecipientBatchFinder<T extends Recipient> {
+
+	/**
+	 * Find all of the recipients with the given UUIDs. UUIDs that do not match a recipient are ignored.
+	 *
+	 * @param uuids
+	 *            the UUIDs of the recipients to find
+	 * @return the recipients found
+	 */
+	Iterable<T> findAllByUuids(Collection<String> uuids);
+
+}
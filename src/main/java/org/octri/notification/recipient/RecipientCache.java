@@ -0,0 +1,46 @@
+package org.octri.notification.recipient;
+
+import org.octri.notification.domain.Recipient;
+
+/**
+ * A cache of {@link Recipient} entities keyed by UUID, used by the
+ * {@link RecipientResolver} in front of the application's recipient finder. Applications can replace the default
+ * {@link BoundedRecipientCache} by defining their own bean of this type.
+ */
+public interface RecipientCache {
+
+	/**
+	 *
+	 * @param uuid
+	 *            the UUID of the recipient
+	 * @return the cached recipient, or null if it is not cached
+	 */
+	Recipient get(String uuid);
+
+	/**
+	 *
+	 * @param recipient
+	 *            the recipient to cache
+	 */
+	void put(Recipient recipient);
+
+	/**
+	 * Remove a recipient from the cache, for example when the application updates it.
+	 *
+	 * @param uuid
+	 *            the UUID of the recipient
+	 */
+	void invalidate(String uuid);
+
+	/**
+	 * Remove all recipients from the cache
+	 */
+	void invalidateAll();
+
+	/**
+	 *
+	 * @return the hit, miss, and eviction counts for the cache
+	 */
+	RecipientCacheStats getStats();
+
+}
@@ -0,0 +1,26 @@
+package org.octri.notification.recipient;
+
+/**
+ * Record of the statistics for a {@link RecipientCache}
+ *
+ * @param hits
+ *            the number of lookups answered by the cache
+ * @param misses
+ *            the number of lookups that were not cached
+ * @param evictions
+ *            the number of recipients removed because the cache was full or the entry expired
+ * @param size
+ *            the number of recipients currently cached
+ */
+public record RecipientCacheStats(long hits, long misses, long evictions, long size) {
+
+	/**
+	 *
+	 * @return the fraction of lookups answered by the cache, or 0 if there have been no lookups
+	 */
+	public double hitRate() {
+		long lookups = hits + misses;
+		return lookups == 0 ? 0 : (double) hits / lookups;
+	}
+
+}
@@ -0,0 +1,176 @@
+package org.octri.notification.recipient;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.octri.common.customizer.IdentifiableEntityFinder;
+import org.octri.notification.domain.Notification;
+import org.octri.notification.domain.Recipient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Resolves {@link Recipient} entities for notifications using the application's recipient finder. If the finder
+ * implements {@link RecipientBatchFinder}, recipients for many notifications are found with a single lookup.
+ * Recipients are kept in a {@link RecipientCache} so that recipients who are notified repeatedly are not looked up
+ * again while they remain cached.
+ */
+public class RecipientResolver {
+
+	private static final Logger logger = LoggerFactory.getLogger(RecipientResolver.class);
+
+	private final IdentifiableEntityFinder<?> recipientFinder;
+	private final RecipientCache recipientCache;
+
+	/**
+	 * Create a resolver that does not cache recipients.
+	 *
+	 * @param recipientFinder
+	 *            the application's finder for recipients
+	 */
+	public RecipientResolver(IdentifiableEntityFinder<?> recipientFinder) {
+		this(recipientFinder, new BoundedRecipientCache(0, Duration.ZERO));
+	}
+
+	/**
+	 *
+	 * @param recipientFinder
+	 *            the application's finder for recipients
+	 * @param recipientCache
+	 *            the cache consulted before the finder
+	 */
+	public RecipientResolver(IdentifiableEntityFinder<?> recipientFinder, RecipientCache recipientCache) {
+		this.recipientFinder = recipientFinder;
+		this.recipientCache = recipientCache;
+	}
+
+	/**
+	 *
+	 * @param uuid
+	 *            the UUID of the recipient
+	 * @return the recipient with the given UUID, or null if none is found
+	 */
+	public Recipient findByUuid(String uuid) {
+		if (uuid == null) {
+			return null;
+		}
+		var recipient = recipientCache.get(uuid);
+		if (recipient == null) {
+			recipient = (Recipient) recipientFinder.findByUuid(uuid);
+			recipientCache.put(recipient);
+		}
+		return recipient;
+	}
+
+	/**
+	 *
+	 * @param uuids
+	 *            the UUIDs of the recipients
+	 * @return the recipients that were found, keyed by UUID
+	 */
+	public Map<String, Recipient> findAllByUuids(Collection<String> uuids) {
+		Set<String> distinctUuids = new LinkedHashSet<>(uuids);
+		distinctUuids.remove(null);
+		Map<String, Recipient> recipients = new HashMap<>();
+		Set<String> uncachedUuids = new LinkedHashSet<>();
+		for (String uuid : distinctUuids) {
+			var recipient = recipientCache.get(uuid);
+			if (recipient != null) {
+				recipients.put(uuid, recipient);
+			} else {
+				uncachedUuids.add(uuid);
+			}
+		}
+		if (uncachedUuids.isEmpty()) {
+			return recipients;
+		}
+		if (recipientFinder instanceof RecipientBatchFinder<?> batchFinder) {
+			for (Recipient recipient : batchFinder.findAllByUuids(uncachedUuids)) {
+				recipients.put(recipient.getUuid(), recipient);
+				recipientCache.put(recipient);
+			}
+		} else {
+			for (String uuid : uncachedUuids) {
+				var recipient = (Recipient) recipientFinder.findByUuid(uuid);
+				if (recipient != null) {
+					recipients.put(uuid, recipient);
+					recipientCache.put(recipient);
+				}
+			}
+		}
+		return recipients;
+	}
+
+	/**
+	 * Find the recipients of the notifications and set them on each notification. Notifications whose recipient cannot
+	 * be found are left without one so that validation can flag them.
+	 *
+	 * @param notifications
+	 *            the notifications that need recipients
+	 */
+	public void attachRecipients(Collection<Notification> notifications) {
+		var recipients = findAllByUuids(notifications.stream().map(Notification::getRecipientUuid).toList());
+		for (Notification notification : notifications) {
+			var recipient = recipients.get(notification.getRecipientUuid());
+			if (recipient != null) {
+				notification.setRecipient(recipient);
+			} else {
+				logger.warn("No recipient found for notification {}", notification.getId());
+			}
+		}
+	}
+
+	/**
+	 * Remove a recipient from the cache. Applications should call this when they change a recipient so that
+	 * notifications are not validated or sent using stale details.
+	 *
+	 * @param uuid
+	 *            the UUID of the recipient
+	 */
+	public void invalidate(String uuid) {
+		recipientCache.invalidate(uuid);
+	}
+
+	/**
+	 * Remove all recipients from the cache
+	 */
+	public void invalidateAll() {
+		recipientCache.invalidateAll();
+	}
+
+	/**
+	 *
+	 * @return the statistics for the recipient cache
+	 */
+	public RecipientCacheStats getCacheStats() {
+		return recipientCache.getStats();
+	}
+
+	/**
+	 * Adapt this resolver to the finder interface expected by the shared view helpers. Lookups by UUID go through the
+	 * cache; listing all recipients is passed straight to the application's finder.
+	 *
+	 * @return a finder backed by this resolver
+	 */
+	public IdentifiableEntityFinder<Recipient> asEntityFinder() {
+		return new IdentifiableEntityFinder<Recipient>() {
+
+			@Override
+			@SuppressWarnings("unchecked")
+			public Iterable<Recipient> findAll() {
+				return (Iterable<Recipient>) recipientFinder.findAll();
+			}
+
+			@Override
+			public Recipient findByUuid(String uuid) {
+				return RecipientResolver.this.findByUuid(uuid);
+			}
+
+		};
+	}
+
+}
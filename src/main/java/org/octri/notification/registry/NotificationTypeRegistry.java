@@ -3,6 +3,7 @@ package org.octri.notification.registry;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 import org.octri.notification.dispatch.NotificationDispatcher;
 import org.octri.notification.domain.ProcessingMode;
@@ -60,6 +61,19 @@ public class NotificationTypeRegistry {
 		return handlers.keySet();
 	}
 
+	/**
+	 *
+	 * @param mode
+	 *            the processing mode
+	 * @return the set of registered types that use the given processing mode
+	 */
+	public Set<String> getRegisteredTypes(ProcessingMode mode) {
+		return handlers.entrySet().stream()
+				.filter(entry -> mode.equals(entry.getValue().getProcessingMode()))
+				.map(Map.Entry::getKey)
+				.collect(Collectors.toSet());
+	}
+
 	/**
 	 *
 	 * @param type
@@ -0,0 +1,22 @@
+package org.octri.notification.repository;
+
+import java.time.LocalDate;
+
+import org.octri.notification.domain.NotificationStatus;
+
+/**
+ * The number of notifications with a status and type scheduled on a date, as counted by an aggregate query
+ * 
+ * @param notificationStatus
+ *            the status of the notifications
+ * @param notificationType
+ *            the type of the notifications
+ * @param dateScheduled
+ *            the date the notifications are scheduled for
+ * @param count
+ *            the number of notifications
+ */
+public record NotificationCount(NotificationStatus notificationStatus, String notificationType, LocalDate dateScheduled,
+		Long count) {
+
+}
@@ -0,0 +1,157 @@
+package org.octri.notification.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.octri.notification.domain.Notification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Writes notifications with JDBC batch statements, for writes that cover many rows at once. Statements for one
+ * notification at a time belong in {@link NotificationRepository}.
+ * <p>
+ * Hibernate cannot batch inserts for entities with IDENTITY ids, so the batch job uses this for the follow-up
+ * notifications and dispatch copies it creates. The inserted notifications are not attached to the persistence context
+ * and their ids are not set. The Twilio status job also uses it to save the status changes found in a chunk with one
+ * batch statement.
+ */
+public class NotificationJdbcWriter {
+
+	/**
+	 * The statement used to insert a notification
+	 */
+	static final String insertStatement = """
+			INSERT INTO notification (version, created_at, updated_at, updated_by, date_scheduled, recipient_uuid,
+			  notification_status, notification_type, notification_metadata, date_time_processed,
+			  notification_status_metadata, next_status_check_at)
+			VALUES (0, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+			""";
+
+	/**
+	 * The statement used to update the status of a notification by id
+	 */
+	static final String updateStatusStatement = """
+			UPDATE notification
+			SET notification_status = ?, notification_status_metadata = ?, status_check_attempts = ?,
+			  next_status_check_at = ?, version = version + 1, updated_at = ?, updated_by = ?
+			WHERE id = ?
+			""";
+
+	/**
+	 * The statement used to schedule the next status check of a notification by id
+	 */
+	static final String rescheduleStatusCheckStatement = """
+			UPDATE notification
+			SET status_check_attempts = ?, next_status_check_at = ?
+			WHERE id = ?
+			""";
+
+	/**
+	 * Record representing the result of a status check for a notification that has not been loaded
+	 * 
+	 * @param id
+	 *            the id of the notification
+	 * @param notificationStatus
+	 *            the name of the new notification status, or null if the status has not changed
+	 * @param notificationStatusMetadata
+	 *            the new notification status metadata as a JSON string, or null if the status has not changed
+	 * @param statusCheckAttempts
+	 *            the number of times the status has been checked
+	 * @param nextStatusCheckAt
+	 *            when the status should be checked next, or null if it should not be checked again
+	 */
+	public record StatusChange(Long id, String notificationStatus, String notificationStatusMetadata,
+			int statusCheckAttempts, LocalDateTime nextStatusCheckAt) {
+
+	}
+
+	private final JdbcTemplate jdbcTemplate;
+
+	/**
+	 * 
+	 * @param jdbcTemplate
+	 *            the JDBC template, which takes part in the current transaction
+	 */
+	public NotificationJdbcWriter(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	/**
+	 * Insert the notifications using batch statements
+	 * 
+	 * @param notifications
+	 *            the new notifications
+	 */
+	public void insertAll(List<Notification> notifications) {
+		if (notifications.isEmpty()) {
+			return;
+		}
+		var now = LocalDateTime.now();
+		var updatedBy = currentUsername();
+		jdbcTemplate.batchUpdate(insertStatement, notifications, notifications.size(), (ps, notification) -> {
+			ps.setObject(1, now);
+			ps.setObject(2, now);
+			ps.setString(3, updatedBy);
+			ps.setObject(4, notification.getDateScheduled());
+			ps.setString(5, notification.getRecipientUuid());
+			ps.setString(6, notification.getNotificationStatus().name());
+			ps.setString(7, notification.getNotificationType());
+			ps.setString(8, notification.getNotificationMetadata());
+			ps.setObject(9, notification.getDateTimeProcessed());
+			ps.setString(10, notification.getNotificationStatusMetadata());
+			ps.setObject(11, notification.getNextStatusCheckAt());
+		});
+	}
+
+	/**
+	 * Update the status and the next status check of notifications by id using batch statements
+	 * 
+	 * @param statusChanges
+	 *            the new statuses
+	 */
+	public void updateStatuses(List<StatusChange> statusChanges) {
+		if (statusChanges.isEmpty()) {
+			return;
+		}
+		var now = LocalDateTime.now();
+		var updatedBy = currentUsername();
+		jdbcTemplate.batchUpdate(updateStatusStatement, statusChanges, statusChanges.size(), (ps, statusChange) -> {
+			ps.setString(1, statusChange.notificationStatus());
+			ps.setString(2, statusChange.notificationStatusMetadata());
+			ps.setInt(3, statusChange.statusCheckAttempts());
+			ps.setObject(4, statusChange.nextStatusCheckAt());
+			ps.setObject(5, now);
+			ps.setString(6, updatedBy);
+			ps.setLong(7, statusChange.id());
+		});
+	}
+
+	/**
+	 * Schedule the next status check of notifications whose status has not changed using batch statements
+	 * 
+	 * @param statusChanges
+	 *            the status checks, whose notification status and metadata are ignored
+	 */
+	public void rescheduleStatusChecks(List<StatusChange> statusChanges) {
+		if (statusChanges.isEmpty()) {
+			return;
+		}
+		jdbcTemplate.batchUpdate(rescheduleStatusCheckStatement, statusChanges, statusChanges.size(),
+				(ps, statusChange) -> {
+					ps.setInt(1, statusChange.statusCheckAttempts());
+					ps.setObject(2, statusChange.nextStatusCheckAt());
+					ps.setLong(3, statusChange.id());
+				});
+	}
+
+	/**
+	 * The name of the authenticated user, recorded in updated_by as it is for notifications saved through JPA. Jobs
+	 * started by the scheduler have no authenticated user, so this is null for them.
+	 */
+	private static String currentUsername() {
+		var authentication = SecurityContextHolder.getContext().getAuthentication();
+		return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+	}
+
+}
@@ -1,12 +1,26 @@
 package org.octri.notification.repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
+import org.hibernate.cfg.AvailableSettings;
 import org.octri.notification.domain.DefaultNotificationStatus;
 import org.octri.notification.domain.Notification;
+import org.octri.notification.domain.NotificationStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 
 /**
  * The repository for working with notifications in the database
@@ -14,15 +28,192 @@ import org.springframework.data.repository.CrudRepository;
 public interface NotificationRepository extends CrudRepository<Notification, Long> {
 
 	/**
-	 * The query to get Twilio notifications that need to be checked for final disposition
+	 * The lock timeout that makes a pessimistic lock skip rows locked by another transaction instead of waiting for
+	 * them ({@code SKIP LOCKED}). It is the value of {@code org.hibernate.LockOptions.SKIP_LOCKED}.
+	 */
+	static final String SKIP_LOCKED = "-2";
+
+	/**
+	 * The query to get Twilio notifications that have not reached a final disposition. The delivery provider is
+	 * generated from the status metadata, and the next status check is cleared once the disposition is final.
 	 */
 	static final String queuedTwilioNotificationQuery = """
 			SELECT *
 			FROM notification
-			WHERE notification_status = 'SENT'
-			  AND JSON_TYPE(notification_status_metadata->'$.dispatchResult') <> 'NULL'
-			  AND JSON_CONTAINS_PATH(notification_status_metadata->>'$.dispatchResult.deliveryDetails', 'one', '$.accountSid')
-			  AND JSON_UNQUOTE(JSON_EXTRACT(notification_status_metadata->>'$.dispatchResult.deliveryDetails', '$.status')) = 'QUEUED'
+			WHERE delivery_provider = 'TWILIO'
+			  AND next_status_check_at IS NOT NULL
+			""";
+
+	/**
+	 * The query to get the next page of Twilio notifications whose status check is due, ordered by id. Only the columns
+	 * needed by the status check are selected.
+	 */
+	static final String twilioStatusCheckPageQuery = """
+			SELECT id, notification_status_metadata AS notificationStatusMetadata,
+			  status_check_attempts AS statusCheckAttempts
+			FROM notification
+			WHERE delivery_provider = 'TWILIO'
+			  AND next_status_check_at <= :now
+			  AND id > :lastId
+			ORDER BY id
+			LIMIT :pageSize
+			""";
+
+	/**
+	 * The query to find the notifications for a Twilio message, using the generated message_sid column
+	 */
+	static final String messageSidQuery = """
+			SELECT id, notification_status_metadata AS notificationStatusMetadata,
+			  status_check_attempts AS statusCheckAttempts
+			FROM notification
+			WHERE message_sid = :messageSid
+			""";
+
+	/**
+	 * The statement to claim a notification for sending outside the batch job. A notification can only be claimed
+	 * while it has the given status and no other claim on it has expired. Times come from the database clock, which
+	 * the due queries compare the claim against. The version is not changed, so that a batch job that has already read
+	 * the notification can still save it.
+	 */
+	static final String claimStatement = """
+			UPDATE notification
+			SET claimed_until = TIMESTAMPADD(SECOND, :claimSeconds, CURRENT_TIMESTAMP)
+			WHERE id = :id
+			  AND notification_status = :notificationStatus
+			  AND (claimed_until IS NULL OR claimed_until < CURRENT_TIMESTAMP)
+			""";
+
+	/**
+	 * The statement to release the claim on a notification so that the batch job can process it
+	 */
+	static final String releaseClaimStatement = """
+			UPDATE notification
+			SET claimed_until = NULL
+			WHERE id = :id
+			""";
+
+	/**
+	 * The statement to claim notifications read by the batch job of one application instance. The notifications are
+	 * locked by the read that found them, so no other instance can claim them first.
+	 */
+	static final String claimAllStatement = """
+			UPDATE notification
+			SET claimed_until = TIMESTAMPADD(SECOND, :claimSeconds, CURRENT_TIMESTAMP),
+			  claimed_by = :claimedBy
+			WHERE id IN (:ids)
+			""";
+
+	/**
+	 * The statement to release the claims a reader still holds on notifications it claimed but did not save
+	 */
+	static final String releaseClaimsStatement = """
+			UPDATE notification
+			SET claimed_until = NULL,
+			  claimed_by = NULL
+			WHERE id IN (:ids)
+			  AND claimed_by = :claimedBy
+			""";
+
+	/**
+	 * The query for a page of the admin notification list. Each filter is skipped when its parameter is null.
+	 */
+	static final String listPageQuery = """
+			SELECT n
+			FROM Notification n
+			WHERE (:notificationStatus IS NULL OR n.notificationStatus = :notificationStatus)
+			  AND (:notificationType IS NULL OR n.notificationType = :notificationType)
+			  AND (:recipientUuid IS NULL OR n.recipientUuid = :recipientUuid)
+			  AND (:fromDate IS NULL OR n.dateScheduled >= :fromDate)
+			  AND (:toDate IS NULL OR n.dateScheduled <= :toDate)
+			""";
+
+	/**
+	 * The query to count notifications by status, type and scheduled date over a range of dates
+	 */
+	static final String countByStatusTypeAndDateQuery = """
+			SELECT new org.octri.notification.repository.NotificationCount(
+			  n.notificationStatus, n.notificationType, n.dateScheduled, COUNT(n))
+			FROM Notification n
+			WHERE n.dateScheduled >= :fromDate
+			  AND n.dateScheduled <= :toDate
+			GROUP BY n.dateScheduled, n.notificationType, n.notificationStatus
+			ORDER BY n.dateScheduled, n.notificationType
+			""";
+
+	/**
+	 * The query to count notifications with a status by type and scheduled date over a range of dates
+	 */
+	static final String countByTypeAndDateQuery = """
+			SELECT new org.octri.notification.repository.NotificationCount(
+			  n.notificationStatus, n.notificationType, n.dateScheduled, COUNT(n))
+			FROM Notification n
+			WHERE n.notificationStatus = :notificationStatus
+			  AND n.dateScheduled >= :fromDate
+			  AND n.dateScheduled <= :toDate
+			GROUP BY n.notificationStatus, n.notificationType, n.dateScheduled
+			ORDER BY n.dateScheduled, n.notificationType
+			""";
+
+	/**
+	 * The query to count notifications with a status scheduled before a date, by type
+	 */
+	static final String countOverdueQuery = """
+			SELECT new org.octri.notification.repository.OverdueNotificationCount(
+			  n.notificationType, MIN(n.dateScheduled), COUNT(n))
+			FROM Notification n
+			WHERE n.notificationStatus = :notificationStatus
+			  AND n.dateScheduled < :currentDate
+			GROUP BY n.notificationType
+			ORDER BY n.notificationType
+			""";
+
+	/**
+	 * The query to get the next page of due notifications, ordered by the (date_scheduled, id) keyset. When lastId is
+	 * null the first page is returned. Notifications with an unexpired claim are being sent outside the batch job and
+	 * are left out.
+	 */
+	static final String duePageQuery = """
+			SELECT n
+			FROM Notification n
+			WHERE n.notificationStatus = :notificationStatus
+			  AND n.dateScheduled <= :currentDate
+			  AND (n.claimedUntil IS NULL OR n.claimedUntil < CURRENT_TIMESTAMP)
+			  AND (:lastId IS NULL
+			    OR n.dateScheduled > :lastDateScheduled
+			    OR (n.dateScheduled = :lastDateScheduled AND n.id > :lastId))
+			ORDER BY n.dateScheduled, n.id
+			""";
+
+	/**
+	 * The same as {@link #duePageQuery}, restricted to a set of notification types
+	 */
+	static final String duePageForTypesQuery = """
+			SELECT n
+			FROM Notification n
+			WHERE n.notificationStatus = :notificationStatus
+			  AND n.notificationType IN :notificationTypes
+			  AND n.dateScheduled <= :currentDate
+			  AND (n.claimedUntil IS NULL OR n.claimedUntil < CURRENT_TIMESTAMP)
+			  AND (:lastId IS NULL
+			    OR n.dateScheduled > :lastDateScheduled
+			    OR (n.dateScheduled = :lastDateScheduled AND n.id > :lastId))
+			ORDER BY n.dateScheduled, n.id
+			""";
+
+	/**
+	 * The same as {@link #duePageQuery}, excluding a set of notification types
+	 */
+	static final String duePageExcludingTypesQuery = """
+			SELECT n
+			FROM Notification n
+			WHERE n.notificationStatus = :notificationStatus
+			  AND n.notificationType NOT IN :notificationTypes
+			  AND n.dateScheduled <= :currentDate
+			  AND (n.claimedUntil IS NULL OR n.claimedUntil < CURRENT_TIMESTAMP)
+			  AND (:lastId IS NULL
+			    OR n.dateScheduled > :lastDateScheduled
+			    OR (n.dateScheduled = :lastDateScheduled AND n.id > :lastId))
+			ORDER BY n.dateScheduled, n.id
 			""";
 
 	/**
@@ -38,9 +229,296 @@ public interface NotificationRepository extends CrudRepository<Notification, Lon
 			LocalDate currentDate);
 
 	/**
+	 * Find a page of notifications with the given status scheduled before or on the date passed in, starting after
+	 * the last notification of the previous page.
 	 * 
-	 * @return all the Twilio notifications that have not been checked for final disposition
+	 * @param notificationStatus
+	 *            the notification status of notifications to find
+	 * @param currentDate
+	 *            the date to check for notifications against
+	 * @param lastDateScheduled
+	 *            the scheduled date of the last notification on the previous page, or null for the first page
+	 * @param lastId
+	 *            the id of the last notification on the previous page, or null for the first page
+	 * @param limit
+	 *            the maximum number of notifications to return
+	 * @return the page of notifications ordered by scheduled date and id
+	 */
+	@Query(duePageQuery)
+	List<Notification> findDuePage(@Param("notificationStatus") DefaultNotificationStatus notificationStatus,
+			@Param("currentDate") LocalDate currentDate, @Param("lastDateScheduled") LocalDate lastDateScheduled,
+			@Param("lastId") Long lastId, Limit limit);
+
+	/**
+	 * Find a page of notifications of the given types with the given status scheduled before or on the date passed
+	 * in, starting after the last notification of the previous page.
+	 * 
+	 * @param notificationStatus
+	 *            the notification status of notifications to find
+	 * @param notificationTypes
+	 *            the notification types to include; must not be empty
+	 * @param currentDate
+	 *            the date to check for notifications against
+	 * @param lastDateScheduled
+	 *            the scheduled date of the last notification on the previous page, or null for the first page
+	 * @param lastId
+	 *            the id of the last notification on the previous page, or null for the first page
+	 * @param limit
+	 *            the maximum number of notifications to return
+	 * @return the page of notifications ordered by scheduled date and id
+	 */
+	@Query(duePageForTypesQuery)
+	List<Notification> findDuePageForTypes(@Param("notificationStatus") DefaultNotificationStatus notificationStatus,
+			@Param("notificationTypes") Collection<String> notificationTypes,
+			@Param("currentDate") LocalDate currentDate, @Param("lastDateScheduled") LocalDate lastDateScheduled,
+			@Param("lastId") Long lastId, Limit limit);
+
+	/**
+	 * Find a page of notifications that are not of the given types with the given status scheduled before or on the
+	 * date passed in, starting after the last notification of the previous page.
+	 * 
+	 * @param notificationStatus
+	 *            the notification status of notifications to find
+	 * @param notificationTypes
+	 *            the notification types to leave out; must not be empty
+	 * @param currentDate
+	 *            the date to check for notifications against
+	 * @param lastDateScheduled
+	 *            the scheduled date of the last notification on the previous page, or null for the first page
+	 * @param lastId
+	 *            the id of the last notification on the previous page, or null for the first page
+	 * @param limit
+	 *            the maximum number of notifications to return
+	 * @return the page of notifications ordered by scheduled date and id
+	 */
+	@Query(duePageExcludingTypesQuery)
+	List<Notification> findDuePageExcludingTypes(
+			@Param("notificationStatus") DefaultNotificationStatus notificationStatus,
+			@Param("notificationTypes") Collection<String> notificationTypes,
+			@Param("currentDate") LocalDate currentDate, @Param("lastDateScheduled") LocalDate lastDateScheduled,
+			@Param("lastId") Long lastId, Limit limit);
+
+	/**
+	 * Lock a page of due notifications for claiming, skipping notifications locked by another application instance.
+	 * The same as {@link #findDuePage(DefaultNotificationStatus, LocalDate, LocalDate, Long, Limit)}, but must be
+	 * called in a transaction, which holds the locks until the notifications are claimed.
+	 * 
+	 * @param notificationStatus
+	 *            the notification status of notifications to find
+	 * @param currentDate
+	 *            the date to check for notifications against
+	 * @param lastDateScheduled
+	 *            the scheduled date of the last notification on the previous page, or null for the first page
+	 * @param lastId
+	 *            the id of the last notification on the previous page, or null for the first page
+	 * @param limit
+	 *            the maximum number of notifications to return
+	 * @return the page of unlocked notifications ordered by scheduled date and id
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@QueryHints(@QueryHint(name = AvailableSettings.JAKARTA_LOCK_TIMEOUT, value = SKIP_LOCKED))
+	@Query(duePageQuery)
+	List<Notification> lockDuePage(@Param("notificationStatus") DefaultNotificationStatus notificationStatus,
+			@Param("currentDate") LocalDate currentDate, @Param("lastDateScheduled") LocalDate lastDateScheduled,
+			@Param("lastId") Long lastId, Limit limit);
+
+	/**
+	 * Lock a page of due notifications of the given types for claiming, skipping notifications locked by another
+	 * application instance. Must be called in a transaction.
+	 * 
+	 * @param notificationStatus
+	 *            the notification status of notifications to find
+	 * @param notificationTypes
+	 *            the notification types to include; must not be empty
+	 * @param currentDate
+	 *            the date to check for notifications against
+	 * @param lastDateScheduled
+	 *            the scheduled date of the last notification on the previous page, or null for the first page
+	 * @param lastId
+	 *            the id of the last notification on the previous page, or null for the first page
+	 * @param limit
+	 *            the maximum number of notifications to return
+	 * @return the page of unlocked notifications ordered by scheduled date and id
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@QueryHints(@QueryHint(name = AvailableSettings.JAKARTA_LOCK_TIMEOUT, value = SKIP_LOCKED))
+	@Query(duePageForTypesQuery)
+	List<Notification> lockDuePageForTypes(@Param("notificationStatus") DefaultNotificationStatus notificationStatus,
+			@Param("notificationTypes") Collection<String> notificationTypes,
+			@Param("currentDate") LocalDate currentDate, @Param("lastDateScheduled") LocalDate lastDateScheduled,
+			@Param("lastId") Long lastId, Limit limit);
+
+	/**
+	 * Lock a page of due notifications that are not of the given types for claiming, skipping notifications locked by
+	 * another application instance. Must be called in a transaction.
+	 * 
+	 * @param notificationStatus
+	 *            the notification status of notifications to find
+	 * @param notificationTypes
+	 *            the notification types to leave out; must not be empty
+	 * @param currentDate
+	 *            the date to check for notifications against
+	 * @param lastDateScheduled
+	 *            the scheduled date of the last notification on the previous page, or null for the first page
+	 * @param lastId
+	 *            the id of the last notification on the previous page, or null for the first page
+	 * @param limit
+	 *            the maximum number of notifications to return
+	 * @return the page of unlocked notifications ordered by scheduled date and id
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@QueryHints(@QueryHint(name = AvailableSettings.JAKARTA_LOCK_TIMEOUT, value = SKIP_LOCKED))
+	@Query(duePageExcludingTypesQuery)
+	List<Notification> lockDuePageExcludingTypes(
+			@Param("notificationStatus") DefaultNotificationStatus notificationStatus,
+			@Param("notificationTypes") Collection<String> notificationTypes,
+			@Param("currentDate") LocalDate currentDate, @Param("lastDateScheduled") LocalDate lastDateScheduled,
+			@Param("lastId") Long lastId, Limit limit);
+
+	/**
+	 * 
+	 * @param notificationStatus
+	 *            the status to show, or null for all
+	 * @param notificationType
+	 *            the type to show, or null for all
+	 * @param recipientUuid
+	 *            the UUID of the recipient to show, or null for all
+	 * @param fromDate
+	 *            the earliest scheduled date to show, or null
+	 * @param toDate
+	 *            the latest scheduled date to show, or null
+	 * @param pageable
+	 *            the page and sort order
+	 * @return a page of notifications matching the filters
+	 */
+	@Query(listPageQuery)
+	Page<Notification> findListPage(@Param("notificationStatus") NotificationStatus notificationStatus,
+			@Param("notificationType") String notificationType, @Param("recipientUuid") String recipientUuid,
+			@Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate, Pageable pageable);
+
+	/**
+	 * 
+	 * @param fromDate
+	 *            the earliest scheduled date to count
+	 * @param toDate
+	 *            the latest scheduled date to count
+	 * @return the number of notifications for each status, type and scheduled date in the range
+	 */
+	@Query(countByStatusTypeAndDateQuery)
+	List<NotificationCount> countByStatusTypeAndDate(@Param("fromDate") LocalDate fromDate,
+			@Param("toDate") LocalDate toDate);
+
+	/**
+	 * 
+	 * @param notificationStatus
+	 *            the status to count
+	 * @param fromDate
+	 *            the earliest scheduled date to count
+	 * @param toDate
+	 *            the latest scheduled date to count
+	 * @return the number of notifications with the status for each type and scheduled date in the range
+	 */
+	@Query(countByTypeAndDateQuery)
+	List<NotificationCount> countByTypeAndDate(@Param("notificationStatus") NotificationStatus notificationStatus,
+			@Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
+
+	/**
+	 * 
+	 * @param notificationStatus
+	 *            the status of notifications that have not been processed
+	 * @param currentDate
+	 *            the current date
+	 * @return the number of notifications with the status scheduled before the current date, by type
+	 */
+	@Query(countOverdueQuery)
+	List<OverdueNotificationCount> countOverdue(@Param("notificationStatus") NotificationStatus notificationStatus,
+			@Param("currentDate") LocalDate currentDate);
+
+	/**
+	 * 
+	 * @return all the Twilio notifications that have not reached a final disposition
 	 */
 	@Query(value = queuedTwilioNotificationQuery, nativeQuery = true)
 	List<Notification> findAllQueuedTwilioNotifications();
-}
\ No newline at end of file
+
+	/**
+	 * 
+	 * @param now
+	 *            the time the status checks are due by
+	 * @param lastId
+	 *            the id of the last notification on the previous page, or 0 for the first page
+	 * @param pageSize
+	 *            the maximum number of notifications to return
+	 * @return the next page of Twilio notifications whose status check is due
+	 */
+	@Query(value = twilioStatusCheckPageQuery, nativeQuery = true)
+	List<QueuedTwilioNotification> findTwilioStatusCheckPage(@Param("now") LocalDateTime now,
+			@Param("lastId") Long lastId, @Param("pageSize") int pageSize);
+
+	/**
+	 * 
+	 * @param messageSid
+	 *            the SID of a Twilio message
+	 * @return the notifications the message was sent for
+	 */
+	@Query(value = messageSidQuery, nativeQuery = true)
+	List<QueuedTwilioNotification> findByMessageSid(@Param("messageSid") String messageSid);
+
+	/**
+	 * Claim a notification for sending outside the batch job
+	 * 
+	 * @param id
+	 *            the id of the notification
+	 * @param notificationStatus
+	 *            the status the notification must have to be claimed
+	 * @param claimSeconds
+	 *            how long the claim lasts
+	 * @return 1 if the notification was claimed, or 0 if it does not have the status or is already claimed
+	 */
+	@Modifying
+	@Query(value = claimStatement, nativeQuery = true)
+	int claim(@Param("id") Long id, @Param("notificationStatus") String notificationStatus,
+			@Param("claimSeconds") long claimSeconds);
+
+	/**
+	 * Release the claim on a notification
+	 * 
+	 * @param id
+	 *            the id of the notification
+	 * @return the number of notifications updated
+	 */
+	@Modifying
+	@Query(value = releaseClaimStatement, nativeQuery = true)
+	int releaseClaim(@Param("id") Long id);
+
+	/**
+	 * Claim notifications locked by {@link #lockDuePage(DefaultNotificationStatus, LocalDate, LocalDate, Long, Limit)}
+	 * or its variants for the batch job of an application instance
+	 * 
+	 * @param ids
+	 *            the ids of the locked notifications
+	 * @param claimedBy
+	 *            the name to claim the notifications with
+	 * @param claimSeconds
+	 *            how long the claim lasts
+	 * @return the number of notifications claimed
+	 */
+	@Modifying
+	@Query(value = claimAllStatement, nativeQuery = true)
+	int claimAll(@Param("ids") Collection<Long> ids, @Param("claimedBy") String claimedBy,
+			@Param("claimSeconds") long claimSeconds);
+
+	/**
+	 * Release the claims made with a name on notifications. Notifications that have been saved since they were claimed
+	 * no longer hold the claim and are left alone.
+	 * 
+	 * @param ids
+	 *            the ids of the claimed notifications
+	 * @param claimedBy
+	 *            the name the notifications were claimed with
+	 * @return the number of notifications released
+	 */
+	@Modifying
+	@Query(value = releaseClaimsStatement, nativeQuery = true)
+	int releaseClaims(@Param("ids") Collection<Long> ids, @Param("claimedBy") String claimedBy);
+}
@@ -0,0 +1,18 @@
+package org.octri.notification.repository;
+
+import java.time.LocalDate;
+
+/**
+ * The number of notifications of a type that are still scheduled for a date that has passed, as counted by an aggregate
+ * query
+ * 
+ * @param notificationType
+ *            the type of the notifications
+ * @param oldestDateScheduled
+ *            the earliest date the overdue notifications were scheduled for
+ * @param count
+ *            the number of overdue notifications
+ */
+public record OverdueNotificationCount(String notificationType, LocalDate oldestDateScheduled, Long count) {
+
+}
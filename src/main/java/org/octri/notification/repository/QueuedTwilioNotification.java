@@ -0,0 +1,99 @@
+package org.octri.notification.repository;
+
+import org.octri.notification.domain.Notification.NotificationStatusMetadata;
+import org.octri.notification.domain.NotificationJson;
+
+/**
+ * Projection of a Twilio notification awaiting its final disposition, with only the columns needed to check it
+ */
+public interface QueuedTwilioNotification {
+
+	/**
+	 * 
+	 * @return the id of the notification
+	 */
+	Long getId();
+
+	/**
+	 * 
+	 * @return the notification status metadata as a JSON string
+	 */
+	String getNotificationStatusMetadata();
+
+	/**
+	 * 
+	 * @return the number of times the delivery status has been checked
+	 */
+	Integer getStatusCheckAttempts();
+
+	/**
+	 * 
+	 * @return the deserialized notification status metadata
+	 */
+	default NotificationStatusMetadata getStatusMetadata() {
+		try {
+			return NotificationJson.read(getNotificationStatusMetadata(), NotificationStatusMetadata.class);
+		} catch (Exception e) {
+			throw new RuntimeException("Failed to deserialize status metadata", e);
+		}
+	}
+
+	/**
+	 * Copy a notification read from the database into one that deserializes its status metadata once, like
+	 * {@link org.octri.notification.domain.Notification} does, since the status check reads it more than once
+	 * 
+	 * @param notification
+	 *            the projection returned by the repository
+	 * @return a copy that keeps its status metadata once it has been read
+	 */
+	static QueuedTwilioNotification parseOnce(QueuedTwilioNotification notification) {
+		if (notification instanceof ParsedQueuedTwilioNotification) {
+			return notification;
+		}
+		return new ParsedQueuedTwilioNotification(notification.getId(), notification.getNotificationStatusMetadata(),
+				notification.getStatusCheckAttempts());
+	}
+
+	/**
+	 * A queued notification that keeps its status metadata once it has been deserialized
+	 */
+	final class ParsedQueuedTwilioNotification implements QueuedTwilioNotification {
+
+		private final Long id;
+		private final String notificationStatusMetadata;
+		private final Integer statusCheckAttempts;
+		private NotificationStatusMetadata statusMetadata;
+
+		private ParsedQueuedTwilioNotification(Long id, String notificationStatusMetadata,
+				Integer statusCheckAttempts) {
+			this.id = id;
+			this.notificationStatusMetadata = notificationStatusMetadata;
+			this.statusCheckAttempts = statusCheckAttempts;
+		}
+
+		@Override
+		public Long getId() {
+			return id;
+		}
+
+		@Override
+		public String getNotificationStatusMetadata() {
+			return notificationStatusMetadata;
+		}
+
+		@Override
+		public Integer getStatusCheckAttempts() {
+			return statusCheckAttempts;
+		}
+
+		@Override
+		public NotificationStatusMetadata getStatusMetadata() {
+			if (statusMetadata == null) {
+				statusMetadata = QueuedTwilioNotification.super.getStatusMetadata();
+			}
+			return statusMetadata;
+		}
+
+	}
+
+}
@@ -0,0 +1,139 @@
+package org.octri.notification.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+
+import org.octri.notification.batch.NotificationItemProcessor;
+import org.octri.notification.batch.NotificationItemWriter;
+import org.octri.notification.domain.DefaultNotificationStatus;
+import org.octri.notification.metrics.NotificationMetrics;
+import org.octri.notification.recipient.RecipientResolver;
+import org.octri.notification.registry.NotificationTypeRegistry;
+import org.octri.notification.repository.NotificationJdbcWriter;
+import org.octri.notification.repository.NotificationRepository;
+import org.springframework.batch.item.Chunk;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+/**
+ * Sends a new IMMEDIATE notification without starting the batch job. The notification is claimed first, so the batch
+ * job skips it while it is being sent. It is then validated, dispatched and saved by the same processor and writer the
+ * batch job uses, so the outcome is recorded the same way. If the notification cannot be sent here, the batch job is
+ * the safety net: the claim is released when sending fails, and a claim left behind by a stopped application expires.
+ */
+public class ImmediateNotificationService {
+
+	private final NotificationRepository notificationRepository;
+	private final NotificationJdbcWriter notificationJdbcWriter;
+	private final NotificationTypeRegistry notificationTypeRegistry;
+	private final RecipientResolver recipientResolver;
+	private final NotificationItemProcessor notificationItemProcessor;
+	private final NotificationMetrics notificationMetrics;
+	private final TransactionTemplate transactionTemplate;
+	private final Duration claimTimeout;
+	private final Executor executor;
+	private final Semaphore permits;
+
+	/**
+	 *
+	 * @param notificationRepository
+	 *            the notification repository
+	 * @param notificationJdbcWriter
+	 *            the inserter for the notifications created when a notification is sent
+	 * @param notificationTypeRegistry
+	 *            the notification type registry
+	 * @param recipientResolver
+	 *            the resolver for recipients
+	 * @param transactionManager
+	 *            the transaction manager
+	 * @param notificationMetrics
+	 *            the metrics for validation and dispatch
+	 * @param claimTimeout
+	 *            how long a claimed notification is kept from the batch job
+	 * @param executor
+	 *            the executor notifications are sent on by {@link #submit(Long)}
+	 * @param concurrency
+	 *            the maximum number of notifications sent by {@link #submit(Long)} at the same time
+	 */
+	public ImmediateNotificationService(NotificationRepository notificationRepository,
+			NotificationJdbcWriter notificationJdbcWriter, NotificationTypeRegistry notificationTypeRegistry,
+			RecipientResolver recipientResolver, PlatformTransactionManager transactionManager,
+			NotificationMetrics notificationMetrics, Duration claimTimeout, Executor executor, int concurrency) {
+		Assert.isTrue(concurrency > 0, "Concurrency must be greater than zero");
+		Assert.isTrue(claimTimeout.toSeconds() > 0, "The claim timeout must be at least one second");
+		this.notificationRepository = notificationRepository;
+		this.notificationJdbcWriter = notificationJdbcWriter;
+		this.notificationTypeRegistry = notificationTypeRegistry;
+		this.recipientResolver = recipientResolver;
+		this.notificationItemProcessor = new NotificationItemProcessor(notificationTypeRegistry, notificationMetrics);
+		this.notificationMetrics = notificationMetrics;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.claimTimeout = claimTimeout;
+		this.executor = executor;
+		this.permits = new Semaphore(concurrency);
+	}
+
+	/**
+	 * Send a notification on the executor. When the maximum number of notifications are already being sent, nothing
+	 * is done and the returned future completes with false, so that the caller can leave the notification to the
+	 * batch job.
+	 *
+	 * @param id
+	 *            the id of the notification
+	 * @return a future that completes with whether the notification was sent here, or fails with the exception
+	 *         thrown while sending it
+	 */
+	public CompletableFuture<Boolean> submit(Long id) {
+		if (!permits.tryAcquire()) {
+			return CompletableFuture.completedFuture(false);
+		}
+		try {
+			return CompletableFuture.supplyAsync(() -> send(id), executor)
+					.whenComplete((sent, e) -> permits.release());
+		} catch (RuntimeException e) {
+			permits.release();
+			throw e;
+		}
+	}
+
+	/**
+	 * Claim, validate, dispatch and save a notification on the caller's thread. The notification is only sent if it
+	 * is still SCHEDULED and is not claimed by someone else. If sending fails, the claim is released so that the batch
+	 * job can send the notification instead.
+	 *
+	 * @param id
+	 *            the id of the notification
+	 * @return whether the notification was sent here
+	 */
+	public boolean send(Long id) {
+		Integer claimed = transactionTemplate.execute(status -> notificationRepository.claim(id,
+				DefaultNotificationStatus.SCHEDULED.name(), claimTimeout.toSeconds()));
+		if (claimed == null || claimed == 0) {
+			return false;
+		}
+		try {
+			transactionTemplate.executeWithoutResult(status -> {
+				var notification = notificationRepository.findById(id).orElseThrow();
+				recipientResolver.attachRecipients(List.of(notification));
+				var writer = new NotificationItemWriter(notificationRepository, notificationJdbcWriter,
+						notificationTypeRegistry, null, 1, notificationMetrics);
+				try {
+					writer.write(Chunk.of(notificationItemProcessor.process(notification)));
+				} catch (RuntimeException e) {
+					throw e;
+				} catch (Exception e) {
+					throw new IllegalStateException("Notification " + id + " could not be sent.", e);
+				}
+			});
+		} catch (RuntimeException e) {
+			transactionTemplate.executeWithoutResult(status -> notificationRepository.releaseClaim(id));
+			throw e;
+		}
+		return true;
+	}
+
+}
@@ -0,0 +1,30 @@
+package org.octri.notification.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.octri.notification.repository.NotificationCount;
+import org.octri.notification.repository.OverdueNotificationCount;
+
+/**
+ * Aggregate counts of notifications for monitoring
+ * 
+ * @param generatedAt
+ *            when the counts were made
+ * @param fromDate
+ *            the earliest scheduled date included in the status counts
+ * @param toDate
+ *            the latest scheduled date included in the upcoming counts
+ * @param statusCounts
+ *            the number of notifications by status, type and scheduled date, up to the current date
+ * @param overdue
+ *            the number of notifications by type that are still scheduled for a date that has passed
+ * @param upcoming
+ *            the number of notifications scheduled by type and date, from the current date
+ */
+public record NotificationDashboard(LocalDateTime generatedAt, LocalDate fromDate, LocalDate toDate,
+		List<NotificationCount> statusCounts, List<OverdueNotificationCount> overdue,
+		List<NotificationCount> upcoming) {
+
+}
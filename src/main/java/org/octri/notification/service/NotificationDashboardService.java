@@ -0,0 +1,87 @@
+package org.octri.notification.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.octri.notification.domain.DefaultNotificationStatus;
+import org.octri.notification.repository.NotificationRepository;
+import org.springframework.util.Assert;
+
+/**
+ * Service for the notification dashboard. The counts come from aggregate queries, so no notifications are loaded, and
+ * they are cached for a short time so that frequent monitoring does not repeat the queries.
+ */
+public class NotificationDashboardService {
+
+	/**
+	 * The number of days of history and of upcoming notifications counted
+	 */
+	public static final int DASHBOARD_DAYS = 30;
+
+	private final NotificationRepository notificationRepository;
+	private final Duration cacheTtl;
+	private final Clock clock;
+	private NotificationDashboard cachedDashboard;
+	private Instant cachedUntil;
+
+	/**
+	 * 
+	 * @param notificationRepository
+	 *            the notification repository
+	 * @param cacheTtl
+	 *            how long the counts are reused
+	 */
+	public NotificationDashboardService(NotificationRepository notificationRepository, Duration cacheTtl) {
+		this(notificationRepository, cacheTtl, Clock.systemDefaultZone());
+	}
+
+	/**
+	 * 
+	 * @param notificationRepository
+	 *            the notification repository
+	 * @param cacheTtl
+	 *            how long the counts are reused
+	 * @param clock
+	 *            the clock used for the current date and to expire the counts
+	 */
+	public NotificationDashboardService(NotificationRepository notificationRepository, Duration cacheTtl, Clock clock) {
+		Assert.isTrue(cacheTtl != null && !cacheTtl.isNegative(), "Cache time to live must not be negative");
+		this.notificationRepository = notificationRepository;
+		this.cacheTtl = cacheTtl;
+		this.clock = clock;
+	}
+
+	/**
+	 * 
+	 * @return the current counts, which may be up to the cache time to live old
+	 */
+	public synchronized NotificationDashboard getDashboard() {
+		var now = clock.instant();
+		if (cachedDashboard == null || !now.isBefore(cachedUntil)) {
+			cachedDashboard = countNotifications();
+			cachedUntil = now.plus(cacheTtl);
+		}
+		return cachedDashboard;
+	}
+
+	/**
+	 * Discard the cached counts so the next request counts again
+	 */
+	public synchronized void invalidate() {
+		cachedDashboard = null;
+	}
+
+	private NotificationDashboard countNotifications() {
+		var today = LocalDate.now(clock);
+		var fromDate = today.minusDays(DASHBOARD_DAYS);
+		var toDate = today.plusDays(DASHBOARD_DAYS);
+		return new NotificationDashboard(LocalDateTime.now(clock), fromDate, toDate,
+				notificationRepository.countByStatusTypeAndDate(fromDate, today),
+				notificationRepository.countOverdue(DefaultNotificationStatus.SCHEDULED, today),
+				notificationRepository.countByTypeAndDate(DefaultNotificationStatus.SCHEDULED, today, toDate));
+	}
+
+}
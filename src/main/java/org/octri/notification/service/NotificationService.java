@@ -1,5 +1,8 @@
 package org.octri.notification.service;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 import java.util.stream.StreamSupport;
 
 import org.octri.notification.batch.NotificationBatchJob;
@@ -7,19 +10,31 @@ import org.octri.notification.domain.Notification;
 import org.octri.notification.domain.ProcessingMode;
 import org.octri.notification.registry.NotificationTypeRegistry;
 import org.octri.notification.repository.NotificationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.JobExecution;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /**
- * Service for working with Notifications
+ * Service for working with Notifications. When notifications that need immediate processing are created, they are sent
+ * without waiting for them, so the caller only waits for the insert. A single notification is sent directly by the
+ * {@link ImmediateNotificationService} when one is configured; otherwise, or if that fails, the batch job is launched.
+ * If the caller has a transaction, sending starts once it commits so that the new notifications can be read.
  */
 @Service
 public class NotificationService {
 
+	private static final Logger log = LoggerFactory.getLogger(NotificationService.class);
+
 	private final NotificationRepository notificationRepository;
 	private final NotificationTypeRegistry notificationTypeRegistry;
 	private final NotificationBatchJob notificationBatchJob;
+	private final ImmediateNotificationService immediateNotificationService;
 
 	/**
+	 * Create a service that sends every IMMEDIATE notification with the batch job
 	 * 
 	 * @param notificationRepository
 	 *            the notification repository
@@ -30,53 +45,156 @@ public class NotificationService {
 	 */
 	public NotificationService(NotificationRepository notificationRepository,
 			NotificationTypeRegistry notificationTypeRegistry, NotificationBatchJob notificationBatchJob) {
+		this(notificationRepository, notificationTypeRegistry, notificationBatchJob, null);
+	}
+
+	/**
+	 * 
+	 * @param notificationRepository
+	 *            the notification repository
+	 * @param notificationTypeRegistry
+	 *            the notification type registry
+	 * @param notificationBatchJob
+	 *            the notification batch job
+	 * @param immediateNotificationService
+	 *            the service that sends a single IMMEDIATE notification without the batch job, or null to send them
+	 *            all with the batch job
+	 */
+	public NotificationService(NotificationRepository notificationRepository,
+			NotificationTypeRegistry notificationTypeRegistry, NotificationBatchJob notificationBatchJob,
+			ImmediateNotificationService immediateNotificationService) {
 		this.notificationRepository = notificationRepository;
 		this.notificationTypeRegistry = notificationTypeRegistry;
 		this.notificationBatchJob = notificationBatchJob;
+		this.immediateNotificationService = immediateNotificationService;
 	}
 
 	/**
-	 * Persist a new notification. If the registered Notification type needs immediate processing, kick off the batch
-	 * job.
+	 * Persist a new notification. If the registered Notification type needs immediate processing, send it without
+	 * waiting for it.
 	 * 
 	 * @param notification
 	 *            the notification to save
 	 * @return the persisted notification
 	 * @throws Exception
-	 *             thrown by the JobLauncher if the batch job is triggered
+	 *             not thrown for job failures, which are logged
 	 */
 	public Notification createNew(Notification notification) throws Exception {
 		assert notification.getId() == null;
 		Notification saved = notificationRepository.save(notification);
-		var handler = notificationTypeRegistry.getHandler(notification.getNotificationType());
-		if (handler != null && ProcessingMode.IMMEDIATE.equals(handler.getProcessingMode())) {
-			notificationBatchJob.runImmediateNotificationJob();
-		}
-
+		launchIfNeeded(List.of(saved));
 		return saved;
 	}
 
 	/**
-	 * Persist multiple notifications. If any of the registered Notification types need immediate processing, kick off
-	 * the batch job.
+	 * Persist a new notification. If the registered Notification type needs immediate processing, send it and return
+	 * a future for callers that need to know when it has been sent.
+	 * 
+	 * @param notification
+	 *            the notification to save
+	 * @return a future that completes with the JobExecution once the batch job has finished, or with null if the
+	 *         notification was sent without the batch job or no job was needed
+	 */
+	public CompletableFuture<JobExecution> submitNew(Notification notification) {
+		assert notification.getId() == null;
+		return launchIfNeeded(List.of(notificationRepository.save(notification)));
+	}
+
+	/**
+	 * Persist multiple notifications. If any of the registered Notification types need immediate processing, send
+	 * them without waiting for them.
 	 * 
 	 * @param notifications
 	 *            the notifications to save
 	 * @return the persisted notifications
 	 * @throws Exception
-	 *             thrown by the JobLauncher if the batch job is triggered
+	 *             not thrown for job failures, which are logged
 	 */
 	public Iterable<Notification> createAll(Iterable<Notification> notifications) throws Exception {
 		Iterable<Notification> saved = notificationRepository.saveAll(notifications);
-		var needsImmediateHandling = StreamSupport.stream(saved.spliterator(), false)
-				.map(n -> notificationTypeRegistry.getHandler(n.getNotificationType()))
-				.anyMatch(h -> h != null && ProcessingMode.IMMEDIATE.equals(h.getProcessingMode()));
+		launchIfNeeded(saved);
+		return saved;
+	}
+
+	/**
+	 * Persist multiple notifications. If any of the registered Notification types need immediate processing, send
+	 * them and return a future for callers that need to know when they have been sent.
+	 * 
+	 * @param notifications
+	 *            the notifications to save
+	 * @return a future that completes with the JobExecution once the batch job has finished, or with null if the
+	 *         notification was sent without the batch job or no job was needed
+	 */
+	public CompletableFuture<JobExecution> submitAll(Iterable<Notification> notifications) {
+		return launchIfNeeded(notificationRepository.saveAll(notifications));
+	}
 
-		if (needsImmediateHandling) {
-			notificationBatchJob.runImmediateNotificationJob();
+	private CompletableFuture<JobExecution> launchIfNeeded(Iterable<Notification> saved) {
+		List<Notification> immediateNotifications = StreamSupport.stream(saved.spliterator(), false)
+				.filter(n -> {
+					var handler = notificationTypeRegistry.getHandler(n.getNotificationType());
+					return handler != null && ProcessingMode.IMMEDIATE.equals(handler.getProcessingMode());
+				})
+				.toList();
+		if (immediateNotifications.isEmpty()) {
+			return CompletableFuture.completedFuture(null);
 		}
+		if (immediateNotifications.size() == 1 && immediateNotificationService != null) {
+			return afterCommit(() -> send(immediateNotifications.get(0).getId()));
+		}
+		return afterCommit(this::launch);
+	}
 
-		return saved;
+	/**
+	 * Start the work once the caller's transaction has committed, so that it can read the new notifications. Without
+	 * a transaction it is started straight away.
+	 */
+	private CompletableFuture<JobExecution> afterCommit(Supplier<CompletableFuture<JobExecution>> work) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			return work.get();
+		}
+		var afterCommit = new CompletableFuture<JobExecution>();
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+			@Override
+			public void afterCompletion(int status) {
+				if (status == STATUS_COMMITTED) {
+					work.get().whenComplete((jobExecution, e) -> {
+						if (e != null) {
+							afterCommit.completeExceptionally(e);
+						} else {
+							afterCommit.complete(jobExecution);
+						}
+					});
+				} else {
+					afterCommit.complete(null);
+				}
+			}
+
+		});
+		return afterCommit;
+	}
+
+	/**
+	 * Send a single notification without the batch job, falling back to the batch job if it is not sent
+	 */
+	private CompletableFuture<JobExecution> send(Long id) {
+		return immediateNotificationService.submit(id)
+				.exceptionally(e -> {
+					log.warn("Notification {} could not be sent without the batch job: {}", id, e.getMessage());
+					return false;
+				})
+				.thenCompose(sent -> sent ? CompletableFuture.completedFuture(null) : launch());
+	}
+
+	private CompletableFuture<JobExecution> launch() {
+		var launched = notificationBatchJob.launchImmediateNotificationJob();
+		launched.whenComplete((jobExecution, e) -> {
+			if (e != null) {
+				log.warn("The immediate notification job did not run: {}", e.getMessage());
+			}
+		});
+		return launched;
 	}
 
 }
@@ -0,0 +1,60 @@
+package org.octri.notification.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import org.springframework.util.Assert;
+
+/**
+ * Exponential backoff for checking the delivery status of a message. The interval before the next check doubles after
+ * each check, starting at the initial interval and capped at the maximum interval, until the maximum number of checks
+ * has been made.
+ * 
+ * @param initialInterval
+ *            the interval after the first check
+ * @param maxInterval
+ *            the longest interval between checks
+ * @param maxAttempts
+ *            the number of checks after which a message that has not reached a final status is no longer checked
+ */
+public record StatusCheckSchedule(Duration initialInterval, Duration maxInterval, int maxAttempts) {
+
+	/**
+	 * Checks after 5 minutes, then 10, 20 and so on up to once a day, for about a week
+	 */
+	public static final StatusCheckSchedule DEFAULT = new StatusCheckSchedule(Duration.ofMinutes(5), Duration.ofDays(1),
+			15);
+
+	/**
+	 * 
+	 * @param initialInterval
+	 *            the interval after the first check
+	 * @param maxInterval
+	 *            the longest interval between checks
+	 * @param maxAttempts
+	 *            the number of checks after which a message is no longer checked
+	 */
+	public StatusCheckSchedule {
+		Assert.isTrue(!initialInterval.isNegative() && !initialInterval.isZero(), "Initial interval must be positive");
+		Assert.isTrue(maxInterval.compareTo(initialInterval) >= 0,
+				"Max interval must not be less than the initial interval");
+		Assert.isTrue(maxAttempts > 0, "Max attempts must be greater than zero");
+	}
+
+	/**
+	 * 
+	 * @param attempts
+	 *            the number of checks made so far, including the one just made
+	 * @param now
+	 *            the time of the check just made
+	 * @return when the message should be checked next, or null if it should not be checked again
+	 */
+	public LocalDateTime nextCheckAt(int attempts, LocalDateTime now) {
+		if (attempts >= maxAttempts) {
+			return null;
+		}
+		double intervalMillis = initialInterval.toMillis() * Math.pow(2, Math.max(attempts - 1, 0));
+		return now.plus(Duration.ofMillis((long) Math.min(intervalMillis, maxInterval.toMillis())));
+	}
+
+}
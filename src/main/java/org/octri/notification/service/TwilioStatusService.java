@@ -0,0 +1,217 @@
+package org.octri.notification.service;
+
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.octri.messaging.sms.TwilioHelper;
+import org.octri.notification.domain.DefaultNotificationStatus;
+import org.octri.notification.domain.DispatchResult;
+import org.octri.notification.domain.Notification.NotificationStatusMetadata;
+import org.octri.notification.domain.NotificationJson;
+import org.octri.notification.domain.NotificationStatus;
+import org.octri.notification.repository.NotificationJdbcWriter;
+import org.octri.notification.repository.NotificationJdbcWriter.StatusChange;
+import org.octri.notification.repository.NotificationRepository;
+import org.octri.notification.repository.QueuedTwilioNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.Assert;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.twilio.rest.api.v2010.account.Message;
+
+/**
+ * Service for recording the delivery status of SMS notifications sent through Twilio, whether the status was polled by
+ * the Twilio status job or reported by a Twilio status callback. Each check also schedules the next one, backing off
+ * according to the {@link StatusCheckSchedule} until Twilio reports a final status.
+ */
+public class TwilioStatusService {
+
+	private static final Logger log = LoggerFactory.getLogger(TwilioStatusService.class);
+
+	/**
+	 * Message statuses that Twilio will not change again
+	 */
+	public static final Set<Message.Status> TERMINAL_STATUSES = EnumSet.of(Message.Status.DELIVERED,
+			Message.Status.UNDELIVERED, Message.Status.FAILED, Message.Status.READ, Message.Status.CANCELED);
+
+	/**
+	 * Record representing the result of checking the delivery status of a notification
+	 * 
+	 * @param id
+	 *            the id of the notification
+	 * @param notificationStatus
+	 *            the new status of the notification, or null if the message status has not changed
+	 * @param statusMetadata
+	 *            the new status metadata with the updated Twilio delivery details, or null if the message status has
+	 *            not changed
+	 * @param statusCheckAttempts
+	 *            the number of times the status has been checked, including this check
+	 * @param nextStatusCheckAt
+	 *            when the status should be checked next, or null if it should not be checked again
+	 */
+	public record StatusUpdate(Long id, NotificationStatus notificationStatus, NotificationStatusMetadata statusMetadata,
+			int statusCheckAttempts, LocalDateTime nextStatusCheckAt) {
+
+		/**
+		 * 
+		 * @return whether the message status has changed
+		 */
+		public boolean statusChanged() {
+			return notificationStatus != null;
+		}
+
+	}
+
+	private final NotificationRepository notificationRepository;
+	private final NotificationJdbcWriter notificationJdbcWriter;
+	private final TwilioHelper twilioHelper;
+	private final StatusCheckSchedule statusCheckSchedule;
+
+	/**
+	 * Create a service that uses the default schedule
+	 * 
+	 * @param notificationRepository
+	 *            the notification repository
+	 * @param notificationJdbcWriter
+	 *            used to save status changes with batch statements
+	 * @param twilioHelper
+	 *            the helper for Twilio
+	 */
+	public TwilioStatusService(NotificationRepository notificationRepository,
+			NotificationJdbcWriter notificationJdbcWriter, TwilioHelper twilioHelper) {
+		this(notificationRepository, notificationJdbcWriter, twilioHelper, StatusCheckSchedule.DEFAULT);
+	}
+
+	/**
+	 * 
+	 * @param notificationRepository
+	 *            the notification repository
+	 * @param notificationJdbcWriter
+	 *            used to save status changes with batch statements
+	 * @param twilioHelper
+	 *            the helper for Twilio
+	 * @param statusCheckSchedule
+	 *            the schedule for checking a message again until it reaches a final status
+	 */
+	public TwilioStatusService(NotificationRepository notificationRepository,
+			NotificationJdbcWriter notificationJdbcWriter, TwilioHelper twilioHelper,
+			StatusCheckSchedule statusCheckSchedule) {
+		Assert.notNull(notificationJdbcWriter, "The notification JDBC writer is required to save status changes");
+		this.notificationRepository = notificationRepository;
+		this.notificationJdbcWriter = notificationJdbcWriter;
+		this.twilioHelper = twilioHelper;
+		this.statusCheckSchedule = statusCheckSchedule;
+	}
+
+	/**
+	 * Compare the latest state of a message with the state stored for the notification and schedule the next check.
+	 * Messages that have reached a final status are not checked again.
+	 * 
+	 * @param notification
+	 *            the notification the message was sent for
+	 * @param updatedState
+	 *            the latest state of the message
+	 * @return the result of the check
+	 */
+	public StatusUpdate statusCheck(QueuedTwilioNotification notification, Message updatedState) {
+		var statusMetadata = notification.getStatusMetadata();
+		var dispatchResult = statusMetadata.dispatchResult();
+		var oldState = twilioHelper.loadMessageFromString(dispatchResult.deliveryDetails());
+
+		int attempts = (notification.getStatusCheckAttempts() != null ? notification.getStatusCheckAttempts() : 0) + 1;
+		var nextStatusCheckAt = TERMINAL_STATUSES.contains(updatedState.getStatus())
+				? null
+				: statusCheckSchedule.nextCheckAt(attempts, LocalDateTime.now());
+
+		log.debug("Old status: {} current status: {}", oldState.getStatus(), updatedState.getStatus());
+		if (oldState.getStatus().equals(updatedState.getStatus())) {
+			return new StatusUpdate(notification.getId(), null, null, attempts, nextStatusCheckAt);
+		}
+
+		var notificationStatus = twilioHelper.isSuccessResponse(updatedState)
+				? DefaultNotificationStatus.SENT
+				: DefaultNotificationStatus.FAILED;
+		var updatedDeliveryDetails = twilioHelper.serializeMessageToJson(updatedState);
+		var updatedDispatchResult = new DispatchResult(twilioHelper.isSuccessResponse(updatedState),
+				dispatchResult.messageContent(), dispatchResult.recipient(), updatedDeliveryDetails,
+				updatedState.getErrorMessage() != null ? updatedState.getErrorMessage() : null);
+		return new StatusUpdate(notification.getId(), notificationStatus,
+				new NotificationStatusMetadata(statusMetadata.validationResult(), updatedDispatchResult), attempts,
+				nextStatusCheckAt);
+	}
+
+	/**
+	 * Save the results of status checks without loading the notifications. Notifications whose status has not changed
+	 * only have their next check scheduled. Each kind of change is saved with one batch statement.
+	 * 
+	 * @param statusUpdates
+	 *            the results to save
+	 */
+	public void applyStatusUpdates(List<StatusUpdate> statusUpdates) {
+		List<StatusChange> statusChanges = new ArrayList<>();
+		List<StatusChange> reschedules = new ArrayList<>();
+		for (StatusUpdate statusUpdate : statusUpdates) {
+			if (!statusUpdate.statusChanged()) {
+				reschedules.add(new StatusChange(statusUpdate.id(), null, null, statusUpdate.statusCheckAttempts(),
+						statusUpdate.nextStatusCheckAt()));
+				continue;
+			}
+			try {
+				statusChanges.add(new StatusChange(statusUpdate.id(), statusUpdate.notificationStatus().name(),
+						NotificationJson.write(statusUpdate.statusMetadata()), statusUpdate.statusCheckAttempts(),
+						statusUpdate.nextStatusCheckAt()));
+			} catch (JsonProcessingException e) {
+				throw new UncheckedIOException("Failed to serialize status metadata", e);
+			}
+		}
+		notificationJdbcWriter.updateStatuses(statusChanges);
+		notificationJdbcWriter.rescheduleStatusChecks(reschedules);
+	}
+
+	/**
+	 * Record a status reported by a Twilio status callback. Callbacks can arrive out of order, so a terminal status
+	 * that has already been recorded is not replaced by an intermediate one. Otherwise the message is fetched from
+	 * Twilio, so the delivery details are stored in the same form the dispatcher stored them, along with everything
+	 * else Twilio knows about the message.
+	 * 
+	 * @param messageSid
+	 *            the SID of the message
+	 * @param messageStatus
+	 *            the status reported by Twilio, for example "delivered"
+	 * @return whether a notification was found for the message
+	 */
+	@Transactional
+	public boolean handleStatusCallback(String messageSid, String messageStatus) {
+		var notifications = notificationRepository.findByMessageSid(messageSid);
+		if (notifications.isEmpty()) {
+			log.debug("No notification found for message {}", messageSid);
+			return false;
+		}
+		var status = Message.Status.forValue(messageStatus);
+		Message updatedState = null;
+		for (QueuedTwilioNotification queued : notifications) {
+			var notification = QueuedTwilioNotification.parseOnce(queued);
+			var oldState = twilioHelper
+					.loadMessageFromString(notification.getStatusMetadata().dispatchResult().deliveryDetails());
+			if (TERMINAL_STATUSES.contains(oldState.getStatus()) && !TERMINAL_STATUSES.contains(status)) {
+				log.debug("Ignoring {} callback for message {} already {}", status, messageSid, oldState.getStatus());
+				continue;
+			}
+			if (updatedState == null) {
+				updatedState = twilioHelper.fetchMessage(messageSid);
+			}
+			var statusUpdate = statusCheck(notification, updatedState);
+			if (statusUpdate.statusChanged()) {
+				applyStatusUpdates(List.of(statusUpdate));
+			}
+		}
+		return true;
+	}
+
+}
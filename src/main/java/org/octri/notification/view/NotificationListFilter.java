@@ -0,0 +1,267 @@
+package org.octri.notification.view;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.util.StringUtils;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * The filter, sort and page requested on the notification list. Values are bound from the query string, and blank
+ * values mean the list is not filtered by that field.
+ */
+public class NotificationListFilter {
+
+	/**
+	 * The default number of notifications shown on a page
+	 */
+	public static final int DEFAULT_PAGE_SIZE = 50;
+
+	/**
+	 * The largest number of notifications that can be requested on a page
+	 */
+	public static final int MAX_PAGE_SIZE = 500;
+
+	/**
+	 * The properties the list can be sorted by. The first is the default.
+	 */
+	public static final List<String> SORT_PROPERTIES = List.of("dateScheduled", "dateTimeProcessed", "id");
+
+	private String status;
+	private String type;
+	private String recipient;
+	@DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+	private LocalDate from;
+	@DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+	private LocalDate to;
+	private String sort = SORT_PROPERTIES.get(0);
+	private String direction = "desc";
+	private int page = 0;
+	private int size = DEFAULT_PAGE_SIZE;
+
+	/**
+	 * The requested page, sorted by the requested property and then by id. Unknown sort properties fall back to the
+	 * default, and the page size is limited to {@link #MAX_PAGE_SIZE}.
+	 * 
+	 * @return the page to query
+	 */
+	public Pageable toPageable() {
+		var sortDirection = "asc".equalsIgnoreCase(direction) ? Sort.Direction.ASC : Sort.Direction.DESC;
+		var property = SORT_PROPERTIES.contains(sort) ? sort : SORT_PROPERTIES.get(0);
+		var order = Sort.by(sortDirection, property);
+		if (!"id".equals(property)) {
+			order = order.and(Sort.by(sortDirection, "id"));
+		}
+		return PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE), order);
+	}
+
+	/**
+	 * 
+	 * @param page
+	 *            the zero-based page number
+	 * @return the query string for another page of the list with the same filter and sort
+	 */
+	public String queryString(int page) {
+		var builder = UriComponentsBuilder.newInstance();
+		queryParam(builder, "status", status);
+		queryParam(builder, "type", type);
+		queryParam(builder, "recipient", recipient);
+		queryParam(builder, "from", from);
+		queryParam(builder, "to", to);
+		queryParam(builder, "sort", sort);
+		queryParam(builder, "direction", direction);
+		if (size != DEFAULT_PAGE_SIZE) {
+			builder.queryParam("size", size);
+		}
+		builder.queryParam("page", page);
+		return builder.encode().build().getQuery();
+	}
+
+	private static void queryParam(UriComponentsBuilder builder, String name, Object value) {
+		if (value != null && StringUtils.hasText(value.toString())) {
+			builder.queryParam(name, value);
+		}
+	}
+
+	/**
+	 * 
+	 * @return the name of the notification status to show, or blank for all
+	 */
+	public String getStatus() {
+		return status;
+	}
+
+	/**
+	 * 
+	 * @param status
+	 *            the name of the notification status to show, or blank for all
+	 */
+	public void setStatus(String status) {
+		this.status = status;
+	}
+
+	/**
+	 * 
+	 * @return the notification type to show, or blank for all
+	 */
+	public String getType() {
+		return type;
+	}
+
+	/**
+	 * 
+	 * @param type
+	 *            the notification type to show, or blank for all
+	 */
+	public void setType(String type) {
+		this.type = type;
+	}
+
+	/**
+	 * 
+	 * @return the UUID of the recipient to show, or blank for all
+	 */
+	public String getRecipient() {
+		return recipient;
+	}
+
+	/**
+	 * 
+	 * @param recipient
+	 *            the UUID of the recipient to show, or blank for all
+	 */
+	public void setRecipient(String recipient) {
+		this.recipient = recipient;
+	}
+
+	/**
+	 * 
+	 * @return the earliest scheduled date to show, or null
+	 */
+	public LocalDate getFrom() {
+		return from;
+	}
+
+	/**
+	 * 
+	 * @param from
+	 *            the earliest scheduled date to show, or null
+	 */
+	public void setFrom(LocalDate from) {
+		this.from = from;
+	}
+
+	/**
+	 * 
+	 * @return the latest scheduled date to show, or null
+	 */
+	public LocalDate getTo() {
+		return to;
+	}
+
+	/**
+	 * 
+	 * @param to
+	 *            the latest scheduled date to show, or null
+	 */
+	public void setTo(LocalDate to) {
+		this.to = to;
+	}
+
+	/**
+	 * 
+	 * @return the property to sort by
+	 */
+	public String getSort() {
+		return sort;
+	}
+
+	/**
+	 * 
+	 * @param sort
+	 *            the property to sort by
+	 */
+	public void setSort(String sort) {
+		this.sort = sort;
+	}
+
+	/**
+	 * 
+	 * @return the sort direction, "asc" or "desc"
+	 */
+	public String getDirection() {
+		return direction;
+	}
+
+	/**
+	 * 
+	 * @param direction
+	 *            the sort direction, "asc" or "desc"
+	 */
+	public void setDirection(String direction) {
+		this.direction = direction;
+	}
+
+	/**
+	 * 
+	 * @return whether the list is sorted by scheduled date
+	 */
+	public boolean isSortedByDateScheduled() {
+		return !SORT_PROPERTIES.contains(sort) || "dateScheduled".equals(sort);
+	}
+
+	/**
+	 * 
+	 * @return whether the list is sorted by the date and time processed
+	 */
+	public boolean isSortedByDateTimeProcessed() {
+		return "dateTimeProcessed".equals(sort);
+	}
+
+	/**
+	 * 
+	 * @return whether the list is sorted in ascending order
+	 */
+	public boolean isAscending() {
+		return "asc".equalsIgnoreCase(direction);
+	}
+
+	/**
+	 * 
+	 * @return the zero-based page number
+	 */
+	public int getPage() {
+		return page;
+	}
+
+	/**
+	 * 
+	 * @param page
+	 *            the zero-based page number
+	 */
+	public void setPage(int page) {
+		this.page = page;
+	}
+
+	/**
+	 * 
+	 * @return the number of notifications on a page
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * 
+	 * @param size
+	 *            the number of notifications on a page
+	 */
+	public void setSize(int size) {
+		this.size = size;
+	}
+
+}
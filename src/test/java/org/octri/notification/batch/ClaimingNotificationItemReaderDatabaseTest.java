@@ -0,0 +1,180 @@
+package org.octri.notification.batch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.octri.common.customizer.IdentifiableEntityFinder;
+import org.octri.notification.NotificationTestUtil;
+import org.octri.notification.RecipientExample;
+import org.octri.notification.dispatch.NotificationDispatcher;
+import org.octri.notification.domain.DefaultNotificationStatus;
+import org.octri.notification.domain.DispatchResult;
+import org.octri.notification.domain.Notification;
+import org.octri.notification.domain.ProcessingMode;
+import org.octri.notification.metadata.EmptyMetadata;
+import org.octri.notification.metrics.NotificationMetrics;
+import org.octri.notification.recipient.RecipientResolver;
+import org.octri.notification.registry.NotificationStatusRegistry;
+import org.octri.notification.registry.NotificationTypeRegistry;
+import org.octri.notification.repository.NotificationRepository;
+import org.octri.notification.validator.NotificationValidator;
+import org.octri.notification.view.EmptyMetadataViewer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.batch.item.Chunk;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Runs the claiming reader and the writer against a database, with each chunk in its own transaction the way the
+ * batch step runs them
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ClaimingNotificationItemReaderDatabaseTest {
+
+	private final static LocalDate YESTERDAY = LocalDate.now().minusDays(1);
+
+	@SpringBootConfiguration
+	@EntityScan(basePackages = { "org.octri.notification.domain", "org.octri.notification.converter" })
+	@EnableJpaRepositories(basePackages = "org.octri.notification.repository")
+	static class TestConfiguration {
+
+		@Bean
+		NotificationStatusRegistry notificationStatusRegistry() {
+			return new NotificationStatusRegistry();
+		}
+
+	}
+
+	@Autowired
+	NotificationRepository notificationRepository;
+
+	@Autowired
+	PlatformTransactionManager transactionManager;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	NotificationDispatcher dispatcher = mock(NotificationDispatcher.class);
+
+	NotificationTypeRegistry notificationTypeRegistry = new NotificationTypeRegistry();
+
+	RecipientResolver recipientResolver;
+
+	TransactionTemplate chunkTransaction;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	public void setup() {
+		IdentifiableEntityFinder<RecipientExample> recipientFinder = mock(IdentifiableEntityFinder.class);
+		when(recipientFinder.findByUuid(anyString())).thenAnswer(i -> new RecipientExample(i.getArgument(0)));
+		recipientResolver = new RecipientResolver(recipientFinder);
+		notificationTypeRegistry.register("example", ProcessingMode.SCHEDULED, EmptyMetadata.class,
+				NotificationValidator.NOOP, dispatcher, new EmptyMetadataViewer());
+		when(dispatcher.handleDispatches(any()))
+				.thenReturn(List.of(new DispatchResult(true, "Hello", "a@example.com", null, null)));
+		chunkTransaction = new TransactionTemplate(transactionManager);
+		// H2 stores a string bound to a JSON column as a JSON string, so the metadata is kept as text like in MySQL
+		jdbcTemplate.execute("ALTER TABLE notification ALTER COLUMN notification_metadata VARCHAR(1000000)");
+		jdbcTemplate.execute("ALTER TABLE notification ALTER COLUMN notification_status_metadata VARCHAR(1000000)");
+		for (int i = 0; i < 4; i++) {
+			var notification = NotificationTestUtil.createNotification("example",
+					new RecipientExample(UUID.randomUUID().toString()), new EmptyMetadata(), YESTERDAY);
+			notification.setNotificationStatus(DefaultNotificationStatus.SCHEDULED);
+			notificationRepository.save(notification);
+		}
+	}
+
+	@AfterEach
+	public void cleanup() {
+		notificationRepository.deleteAll();
+	}
+
+	@Test
+	void testPageLargerThanChunkStaysClaimedUntilWritten() throws Exception {
+		var reader = reader("node-a");
+		var otherReader = reader("node-b");
+		var writer = new NotificationItemWriter(notificationRepository, notificationTypeRegistry);
+
+		writeChunk(reader, writer, 2);
+		chunkTransaction.executeWithoutResult(
+				status -> assertNull(otherReader.read(), "The rest of the page is still claimed by the first reader."));
+		writeChunk(reader, writer, 2);
+		chunkTransaction.executeWithoutResult(status -> assertNull(reader.read(), "Every notification was read."));
+		reader.close();
+		otherReader.close();
+
+		verify(dispatcher, times(4)).handleDispatches(any());
+		assertEquals(4, jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM notification WHERE notification_status = 'SENT' AND claimed_by IS NULL"
+						+ " AND claimed_until IS NULL",
+				Integer.class), "Every notification is sent once and its claim is released.");
+	}
+
+	@Test
+	void testCloseReleasesClaimsOnUnwrittenNotifications() throws Exception {
+		var reader = reader("node-a");
+		var writer = new NotificationItemWriter(notificationRepository, notificationTypeRegistry);
+
+		writeChunk(reader, writer, 2);
+		reader.close();
+
+		var otherReader = reader("node-b");
+		List<Notification> read = new ArrayList<>();
+		chunkTransaction.executeWithoutResult(status -> {
+			for (var notification = otherReader.read(); notification != null; notification = otherReader.read()) {
+				read.add(notification);
+			}
+		});
+		otherReader.close();
+		assertEquals(2, read.size(), "The notifications the first reader did not write can be claimed again.");
+	}
+
+	private void writeChunk(ClaimingNotificationItemReader reader, NotificationItemWriter writer, int chunkSize) {
+		var processor = new NotificationItemProcessor(notificationTypeRegistry, NotificationMetrics.NOOP);
+		chunkTransaction.executeWithoutResult(status -> {
+			var chunk = new Chunk<Notification>();
+			for (int i = 0; i < chunkSize; i++) {
+				var notification = reader.read();
+				assertNotNull(notification, "A claimed notification is read.");
+				chunk.add(processor.process(notification));
+			}
+			try {
+				writer.write(chunk);
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+		});
+	}
+
+	private ClaimingNotificationItemReader reader(String instanceName) {
+		return new ClaimingNotificationItemReader(notificationTypeRegistry, notificationRepository, recipientResolver,
+				ProcessingMode.SCHEDULED, null, 4, NotificationMetrics.NOOP, transactionManager, instanceName,
+				Duration.ofMinutes(5));
+	}
+
+}
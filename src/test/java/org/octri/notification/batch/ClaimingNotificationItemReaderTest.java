@@ -0,0 +1,136 @@
+package org.octri.notification.batch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.octri.common.customizer.IdentifiableEntityFinder;
+import org.octri.notification.NotificationTestUtil;
+import org.octri.notification.RecipientExample;
+import org.octri.notification.domain.DefaultNotificationStatus;
+import org.octri.notification.domain.Notification;
+import org.octri.notification.domain.ProcessingMode;
+import org.octri.notification.metadata.EmptyMetadata;
+import org.octri.notification.metrics.NotificationMetrics;
+import org.octri.notification.recipient.RecipientResolver;
+import org.octri.notification.registry.NotificationTypeRegistry;
+import org.octri.notification.repository.NotificationRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+public class ClaimingNotificationItemReaderTest {
+
+	private final static LocalDate YESTERDAY = LocalDate.now().minusDays(1);
+
+	@Mock
+	NotificationRepository notificationRepository;
+
+	@Mock
+	IdentifiableEntityFinder<RecipientExample> recipientFinder;
+
+	@Mock
+	PlatformTransactionManager transactionManager;
+
+	NotificationTypeRegistry notificationTypeRegistry = new NotificationTypeRegistry();
+
+	RecipientResolver recipientResolver;
+
+	@BeforeEach
+	public void setup() {
+		recipientResolver = new RecipientResolver(recipientFinder);
+		lenient().when(recipientFinder.findByUuid(anyString()))
+				.thenAnswer(i -> new RecipientExample(i.getArgument(0)));
+	}
+
+	@Test
+	void testClaimsEachPageBeforeReadingIt() throws Exception {
+		var notifications = createNotifications(2);
+		when(notificationRepository.lockDuePage(eq(DefaultNotificationStatus.SCHEDULED), any(), isNull(), isNull(),
+				eq(Limit.of(2))))
+				.thenReturn(notifications);
+		when(notificationRepository.lockDuePage(eq(DefaultNotificationStatus.SCHEDULED), any(), eq(YESTERDAY), eq(2L),
+				eq(Limit.of(2))))
+				.thenReturn(List.of());
+		// The notifications are loaded again after they are claimed, in any order
+		var claimedBy = ArgumentCaptor.forClass(String.class);
+		when(notificationRepository.claimAll(eq(List.of(1L, 2L)), claimedBy.capture(), eq(300L))).thenReturn(2);
+		when(notificationRepository.findAllById(List.of(1L, 2L))).thenAnswer(invocation -> {
+			var claimed = createNotifications(2);
+			claimed.forEach(notification -> {
+				notification.setClaimedUntil(LocalDateTime.now().plusMinutes(5));
+				notification.setClaimedBy(claimedBy.getValue());
+			});
+			return List.of(claimed.get(1), claimed.get(0));
+		});
+
+		var reader = reader();
+		var first = reader.read();
+		var second = reader.read();
+		assertNull(reader.read(), "The reader is exhausted when no more notifications can be claimed.");
+
+		assertTrue(claimedBy.getValue().startsWith("node-a/"), "The claim is made in the name of the instance.");
+		assertEquals(List.of(1L, 2L), List.of(first.getId(), second.getId()), "The page order is kept.");
+		assertEquals(claimedBy.getValue(), second.getClaimedBy(), "The claim is kept until the writer saves it.");
+		verify(notificationRepository, never()).findDuePage(any(), any(), any(), any(), any());
+
+		// The writer clears the claim on the notifications it writes
+		first.setClaimedUntil(null);
+		first.setClaimedBy(null);
+		reader.close();
+		verify(notificationRepository).releaseClaims(List.of(2L), claimedBy.getValue());
+	}
+
+	@Test
+	void testNothingToReleaseWhenNothingWasClaimed() throws Exception {
+		when(notificationRepository.lockDuePage(eq(DefaultNotificationStatus.SCHEDULED), any(), isNull(), isNull(),
+				eq(Limit.of(2))))
+				.thenReturn(List.of());
+
+		var reader = reader();
+		assertNull(reader.read(), "There is nothing to read.");
+		reader.close();
+		verify(notificationRepository, never()).claimAll(any(), anyString(), anyLong());
+		verify(notificationRepository, never()).releaseClaims(any(), any());
+	}
+
+	private ClaimingNotificationItemReader reader() {
+		return new ClaimingNotificationItemReader(notificationTypeRegistry, notificationRepository, recipientResolver,
+				ProcessingMode.SCHEDULED, null, 2, NotificationMetrics.NOOP, transactionManager, "node-a",
+				Duration.ofMinutes(5));
+	}
+
+	private List<Notification> createNotifications(int count) {
+		List<Notification> notifications = new ArrayList<>();
+		for (long id = 1; id <= count; id++) {
+			var notification = NotificationTestUtil.createNotification("example",
+					new RecipientExample(UUID.randomUUID().toString()), new EmptyMetadata(), YESTERDAY);
+			notification.setId(id);
+			notifications.add(notification);
+		}
+		return notifications;
+	}
+
+}
@@ -0,0 +1,238 @@
+package org.octri.notification.batch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.octri.notification.domain.ProcessingMode;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.configuration.DuplicateJobException;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+@ExtendWith(MockitoExtension.class)
+public class NotificationBatchJobTest {
+
+	@Mock
+	JobExplorer jobExplorer;
+
+	@Mock
+	JobLauncher jobLauncher;
+
+	@Mock
+	Job notificationJob;
+
+	@Mock
+	Job immediateNotificationJob;
+
+	@BeforeEach
+	public void setup() {
+		lenient().when(notificationJob.getName()).thenReturn("notificationJob");
+		lenient().when(immediateNotificationJob.getName()).thenReturn("immediateNotificationJob");
+	}
+
+	@Test
+	void testLaunchDoesNotWaitForTheJob() throws Exception {
+		var started = new CountDownLatch(1);
+		var release = new CountDownLatch(1);
+		var jobExecution = new JobExecution(1L);
+		when(jobExplorer.findRunningJobExecutions("notificationJob")).thenReturn(Set.of());
+		when(jobLauncher.run(eq(notificationJob), any(JobParameters.class))).thenAnswer(invocation -> {
+			started.countDown();
+			release.await(5, TimeUnit.SECONDS);
+			return jobExecution;
+		});
+
+		var batchJob = new NotificationBatchJob(jobExplorer, jobLauncher, notificationJob,
+				new SimpleAsyncTaskExecutor("test-launch-"));
+		var launched = batchJob.launchImmediateNotificationJob();
+		assertTrue(started.await(5, TimeUnit.SECONDS), "The job is run on the launch executor.");
+		assertFalse(launched.isDone(), "The future is not complete while the job is running.");
+
+		release.countDown();
+		assertSame(jobExecution, launched.get(5, TimeUnit.SECONDS), "The future completes with the job execution.");
+	}
+
+	@Test
+	void testLaunchesDuringRunAreCoalesced() throws Exception {
+		var release = new CountDownLatch(1);
+		when(jobExplorer.findRunningJobExecutions("notificationJob")).thenReturn(Set.of());
+		when(jobLauncher.run(eq(notificationJob), any(JobParameters.class))).thenAnswer(invocation -> {
+			release.await(5, TimeUnit.SECONDS);
+			return new JobExecution(1L);
+		});
+
+		var batchJob = new NotificationBatchJob(jobExplorer, jobLauncher, notificationJob,
+				new SimpleAsyncTaskExecutor("test-launch-"));
+		var running = batchJob.launchImmediateNotificationJob();
+		var followUp = batchJob.launchImmediateNotificationJob();
+		for (int i = 0; i < 10; i++) {
+			assertSame(followUp, batchJob.launchImmediateNotificationJob(),
+					"Launches during a run share one follow-up run.");
+		}
+
+		release.countDown();
+		running.get(5, TimeUnit.SECONDS);
+		followUp.get(5, TimeUnit.SECONDS);
+		verify(jobLauncher, times(2)).run(eq(notificationJob), any(JobParameters.class));
+
+		assertNotSame(followUp, batchJob.launchImmediateNotificationJob(),
+				"A launch after the follow-up has run starts a new run.");
+	}
+
+	@Test
+	void testLaunchDuringScheduledRunOfSharedJobStartsWhenItEnds() throws Exception {
+		var scheduledStarted = new CountDownLatch(1);
+		var release = new CountDownLatch(1);
+		var modes = new ArrayList<String>();
+		when(jobExplorer.findRunningJobExecutions("notificationJob")).thenReturn(Set.of());
+		when(jobLauncher.run(eq(notificationJob), any(JobParameters.class))).thenAnswer(invocation -> {
+			modes.add(invocation.getArgument(1, JobParameters.class).getString("processingMode"));
+			scheduledStarted.countDown();
+			release.await(5, TimeUnit.SECONDS);
+			return new JobExecution(1L);
+		});
+
+		var batchJob = new NotificationBatchJob(jobExplorer, jobLauncher, notificationJob,
+				new SimpleAsyncTaskExecutor("test-launch-"));
+		var scheduled = CompletableFuture.runAsync(() -> {
+			try {
+				batchJob.runNotificationJob(ProcessingMode.SCHEDULED);
+			} catch (Exception e) {
+				throw new CompletionException(e);
+			}
+		});
+		assertTrue(scheduledStarted.await(5, TimeUnit.SECONDS), "The scheduled job is running.");
+		var followUp = batchJob.launchImmediateNotificationJob();
+		assertFalse(followUp.isDone(), "The immediate launch waits for the scheduled run.");
+
+		release.countDown();
+		scheduled.get(5, TimeUnit.SECONDS);
+		followUp.get(5, TimeUnit.SECONDS);
+		assertEquals(List.of("SCHEDULED", "IMMEDIATE"), modes, "The immediate run starts after the scheduled run.");
+	}
+
+	@Test
+	void testScheduledRunDuringRunStartsWhenItEnds() throws Exception {
+		var started = new CountDownLatch(1);
+		var release = new CountDownLatch(1);
+		when(jobExplorer.findRunningJobExecutions("notificationJob")).thenReturn(Set.of());
+		when(jobLauncher.run(eq(notificationJob), any(JobParameters.class))).thenAnswer(invocation -> {
+			started.countDown();
+			release.await(5, TimeUnit.SECONDS);
+			return new JobExecution(1L);
+		});
+
+		var batchJob = new NotificationBatchJob(jobExplorer, jobLauncher, notificationJob, immediateNotificationJob,
+				new SimpleAsyncTaskExecutor("test-launch-"));
+		var running = batchJob.launchNotificationJob(ProcessingMode.SCHEDULED);
+		assertTrue(started.await(5, TimeUnit.SECONDS), "The scheduled job is running.");
+		var scheduled = CompletableFuture.runAsync(() -> {
+			try {
+				batchJob.runNotificationJob(ProcessingMode.SCHEDULED);
+			} catch (Exception e) {
+				throw new CompletionException(e);
+			}
+		});
+		assertFalse(scheduled.isDone(), "The scheduled run waits for the running job.");
+
+		release.countDown();
+		running.get(5, TimeUnit.SECONDS);
+		scheduled.get(5, TimeUnit.SECONDS);
+		verify(jobLauncher, times(2)).run(eq(notificationJob), any(JobParameters.class));
+	}
+
+	@Test
+	void testImmediateJobRunsDuringScheduledRun() throws Exception {
+		var scheduledStarted = new CountDownLatch(1);
+		var release = new CountDownLatch(1);
+		var jobExecution = new JobExecution(2L);
+		when(jobExplorer.findRunningJobExecutions(anyString())).thenReturn(Set.of());
+		when(jobLauncher.run(eq(notificationJob), any(JobParameters.class))).thenAnswer(invocation -> {
+			scheduledStarted.countDown();
+			release.await(5, TimeUnit.SECONDS);
+			return new JobExecution(1L);
+		});
+		when(jobLauncher.run(eq(immediateNotificationJob), any(JobParameters.class))).thenReturn(jobExecution);
+
+		var batchJob = new NotificationBatchJob(jobExplorer, jobLauncher, notificationJob, immediateNotificationJob,
+				new SimpleAsyncTaskExecutor("test-launch-"));
+		var scheduled = batchJob.launchNotificationJob(ProcessingMode.SCHEDULED);
+		assertTrue(scheduledStarted.await(5, TimeUnit.SECONDS), "The scheduled job is running.");
+		assertSame(jobExecution, batchJob.launchImmediateNotificationJob().get(5, TimeUnit.SECONDS),
+				"The immediate job does not wait for the scheduled run.");
+		assertFalse(scheduled.isDone(), "The scheduled run is still in progress.");
+
+		release.countDown();
+		scheduled.get(5, TimeUnit.SECONDS);
+	}
+
+	@Test
+	void testLaunchWithoutExecutorRunsOnCallerThread() throws Exception {
+		var jobExecution = new JobExecution(1L);
+		when(jobExplorer.findRunningJobExecutions("notificationJob")).thenReturn(Set.of());
+		when(jobLauncher.run(eq(notificationJob), any(JobParameters.class))).thenReturn(jobExecution);
+
+		var batchJob = new NotificationBatchJob(jobExplorer, jobLauncher, notificationJob);
+		var launched = batchJob.launchImmediateNotificationJob();
+		assertTrue(launched.isDone(), "The job is run before the launch returns.");
+		assertSame(jobExecution, launched.get(), "The future completes with the job execution.");
+	}
+
+	@Test
+	void testInstancesRunTheirOwnJobs() throws Exception {
+		var jobExecution = new JobExecution(1L);
+		when(jobLauncher.run(eq(notificationJob), any(JobParameters.class))).thenAnswer(invocation -> {
+			assertEquals("node-a", invocation.getArgument(1, JobParameters.class).getString("instanceName"),
+					"The runs of each instance are separate job instances.");
+			return jobExecution;
+		});
+
+		var batchJob = new NotificationBatchJob(jobExplorer, jobLauncher, notificationJob, notificationJob, null,
+				"node-a");
+		assertSame(jobExecution, batchJob.launchNotificationJob(ProcessingMode.SCHEDULED).get(),
+				"The job runs while another instance is running it.");
+		verify(jobExplorer, never()).findRunningJobExecutions(anyString());
+	}
+
+	@Test
+	void testLaunchFailsWhenJobIsRunning() {
+		when(jobExplorer.findRunningJobExecutions("notificationJob")).thenReturn(Set.of(new JobExecution(1L)));
+
+		var batchJob = new NotificationBatchJob(jobExplorer, jobLauncher, notificationJob,
+				new SimpleAsyncTaskExecutor("test-launch-"));
+		var e = assertThrows(ExecutionException.class,
+				() -> batchJob.launchImmediateNotificationJob().get(5, TimeUnit.SECONDS));
+		assertInstanceOf(DuplicateJobException.class, e.getCause(), "A running job is not launched again.");
+	}
+
+}
@@ -0,0 +1,177 @@
+package org.octri.notification.batch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.octri.common.customizer.IdentifiableEntityFinder;
+import org.octri.notification.NotificationTestUtil;
+import org.octri.notification.RecipientExample;
+import org.octri.notification.dispatch.NotificationDispatcher;
+import org.octri.notification.domain.DefaultNotificationStatus;
+import org.octri.notification.domain.Notification;
+import org.octri.notification.domain.ProcessingMode;
+import org.octri.notification.metadata.EmptyMetadata;
+import org.octri.notification.metrics.NotificationMetrics;
+import org.octri.notification.recipient.RecipientResolver;
+import org.octri.notification.registry.NotificationTypeRegistry;
+import org.octri.notification.repository.NotificationRepository;
+import org.octri.notification.validator.NotificationValidator;
+import org.octri.notification.view.EmptyMetadataViewer;
+import org.springframework.data.domain.Limit;
+
+@ExtendWith(MockitoExtension.class)
+public class NotificationItemReaderTest {
+
+	private final static LocalDate YESTERDAY = LocalDate.now().minusDays(1);
+
+	@Mock
+	NotificationRepository notificationRepository;
+
+	@Mock
+	IdentifiableEntityFinder<RecipientExample> recipientFinder;
+
+	NotificationTypeRegistry notificationTypeRegistry = new NotificationTypeRegistry();
+
+	RecipientResolver recipientResolver;
+
+	@BeforeEach
+	public void setup() {
+		recipientResolver = new RecipientResolver(recipientFinder);
+		lenient().when(recipientFinder.findByUuid(anyString()))
+				.thenAnswer(i -> new RecipientExample(i.getArgument(0)));
+	}
+
+	@Test
+	void testReadsPagesByKeyset() {
+		var notifications = createNotifications(5);
+		when(notificationRepository.findDuePage(eq(DefaultNotificationStatus.SCHEDULED), any(), isNull(), isNull(),
+				eq(Limit.of(2))))
+				.thenReturn(notifications.subList(0, 2));
+		when(notificationRepository.findDuePage(eq(DefaultNotificationStatus.SCHEDULED), any(), eq(YESTERDAY), eq(2L),
+				eq(Limit.of(2))))
+				.thenReturn(notifications.subList(2, 4));
+		when(notificationRepository.findDuePage(eq(DefaultNotificationStatus.SCHEDULED), any(), eq(YESTERDAY), eq(4L),
+				eq(Limit.of(2))))
+				.thenReturn(notifications.subList(4, 5));
+
+		var reader = new NotificationItemReader(notificationTypeRegistry, notificationRepository, recipientResolver,
+				ProcessingMode.SCHEDULED, 2);
+		for (var expected : notifications) {
+			var notification = reader.read();
+			assertEquals(expected.getId(), notification.getId(), "Notifications are read in keyset order.");
+			assertTrue(notification.getRecipient() != null, "The recipient is set before processing.");
+		}
+		assertNull(reader.read(), "The reader returns null once the last partial page is consumed.");
+		verify(notificationRepository, times(3)).findDuePage(any(), any(), any(), any(), any());
+	}
+
+	@Test
+	void testStopsAfterEmptyPage() {
+		var notifications = createNotifications(2);
+		when(notificationRepository.findDuePage(any(), any(), isNull(), isNull(), any()))
+				.thenReturn(notifications);
+		when(notificationRepository.findDuePage(any(), any(), eq(YESTERDAY), eq(2L), any()))
+				.thenReturn(List.of());
+
+		var reader = new NotificationItemReader(notificationTypeRegistry, notificationRepository, recipientResolver,
+				ProcessingMode.SCHEDULED, 2);
+		reader.read();
+		reader.read();
+		assertNull(reader.read(), "The reader returns null when the next page is empty.");
+		assertNull(reader.read(), "The reader does not query again once exhausted.");
+		verify(notificationRepository, times(2)).findDuePage(any(), any(), any(), any(), any());
+	}
+
+	@Test
+	void testImmediateModeQueriesImmediateTypes() {
+		notificationTypeRegistry.register("immediate", ProcessingMode.IMMEDIATE, EmptyMetadata.class,
+				NotificationValidator.NOOP, mock(NotificationDispatcher.class), new EmptyMetadataViewer());
+		notificationTypeRegistry.register("scheduled", ProcessingMode.SCHEDULED, EmptyMetadata.class,
+				NotificationValidator.NOOP, mock(NotificationDispatcher.class), new EmptyMetadataViewer());
+		var notifications = createNotifications(1);
+		when(notificationRepository.findDuePageForTypes(eq(DefaultNotificationStatus.SCHEDULED),
+				eq(Set.of("immediate")), any(), isNull(), isNull(), any()))
+				.thenReturn(notifications);
+
+		var reader = new NotificationItemReader(notificationTypeRegistry, notificationRepository, recipientResolver,
+				ProcessingMode.IMMEDIATE, 2);
+		assertEquals(1L, reader.read().getId(), "The immediate notification is read.");
+		assertNull(reader.read(), "The reader is exhausted after a partial page.");
+		verify(notificationRepository, never()).findDuePage(any(), any(), any(), any(), any());
+	}
+
+	@Test
+	void testImmediateModeWithoutImmediateTypes() {
+		var reader = new NotificationItemReader(notificationTypeRegistry, notificationRepository, recipientResolver,
+				ProcessingMode.IMMEDIATE, 2);
+		assertNull(reader.read(), "Nothing is read when no IMMEDIATE types are registered.");
+		verifyNoInteractions(notificationRepository);
+	}
+
+	@Test
+	void testScheduledModeLeavesOutImmediateTypes() {
+		notificationTypeRegistry.register("immediate", ProcessingMode.IMMEDIATE, EmptyMetadata.class,
+				NotificationValidator.NOOP, mock(NotificationDispatcher.class), new EmptyMetadataViewer());
+		notificationTypeRegistry.register("scheduled", ProcessingMode.SCHEDULED, EmptyMetadata.class,
+				NotificationValidator.NOOP, mock(NotificationDispatcher.class), new EmptyMetadataViewer());
+		var notifications = createNotifications(1);
+		when(notificationRepository.findDuePageExcludingTypes(eq(DefaultNotificationStatus.SCHEDULED),
+				eq(Set.of("immediate")), any(), isNull(), isNull(), any()))
+				.thenReturn(notifications);
+
+		var reader = new NotificationItemReader(notificationTypeRegistry, notificationRepository, recipientResolver,
+				ProcessingMode.SCHEDULED, 2);
+		assertEquals(1L, reader.read().getId(), "The scheduled notification is read.");
+		assertNull(reader.read(), "The reader is exhausted after a partial page.");
+		verify(notificationRepository, never()).findDuePage(any(), any(), any(), any(), any());
+	}
+
+	@Test
+	void testPartitionReaderOnlyReadsItsTypes() {
+		var notifications = createNotifications(1);
+		when(notificationRepository.findDuePageForTypes(eq(DefaultNotificationStatus.SCHEDULED),
+				eq(Set.of("email", "sms")), any(), isNull(), isNull(), any()))
+				.thenReturn(notifications);
+
+		var reader = new NotificationItemReader(notificationTypeRegistry, notificationRepository, recipientResolver,
+				ProcessingMode.SCHEDULED, List.of("email", "sms"), 2, NotificationMetrics.NOOP);
+		assertEquals(1L, reader.read().getId(), "The notification of the partition is read.");
+		assertNull(reader.read(), "The reader is exhausted after a partial page.");
+		verify(notificationRepository, never()).findDuePage(any(), any(), any(), any(), any());
+	}
+
+	private List<Notification> createNotifications(int count) {
+		List<Notification> notifications = new ArrayList<>();
+		for (long id = 1; id <= count; id++) {
+			var notification = NotificationTestUtil.createNotification("example",
+					new RecipientExample(UUID.randomUUID().toString()), new EmptyMetadata(), YESTERDAY);
+			notification.setId(id);
+			notifications.add(notification);
+		}
+		return notifications;
+	}
+
+}
@@ -1,21 +1,45 @@
 package org.octri.notification.batch;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.octri.notification.NotificationTestUtil;
 import org.octri.notification.ProgressionTrackerMetadataExample;
 import org.octri.notification.RecipientExample;
+import org.octri.notification.dispatch.NotificationDispatcher;
 import org.octri.notification.domain.DefaultNotificationStatus;
 import org.octri.notification.domain.DispatchResult;
 import org.octri.notification.domain.Notification;
 import org.octri.notification.domain.Notification.NotificationStatusMetadata;
+import org.octri.notification.domain.ProcessingMode;
 import org.octri.notification.domain.ValidationResult;
+import org.octri.notification.metadata.EmptyMetadata;
+import org.octri.notification.metadata.NotificationMetadata;
+import org.octri.notification.registry.NotificationTypeRegistry;
+import org.octri.notification.repository.NotificationJdbcWriter;
+import org.octri.notification.repository.NotificationRepository;
+import org.octri.notification.validator.NotificationValidator;
+import org.octri.notification.view.EmptyMetadataViewer;
+import org.springframework.batch.item.Chunk;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 
@@ -56,6 +80,7 @@ public class NotificationItemWriterTest {
 		var newMetadata = nextNotification.get().getNotificationMetadata(ProgressionTrackerMetadataExample.class);
 		assertTrue(newMetadata.getCurrentIndex() == 3,
 				"Days 6 and 7 where skipped because they are not in the future.");
+		assertTrue(metadata.getCurrentIndex() == 0, "The tracker for the current notification is not advanced.");
 	}
 
 	@Test
@@ -84,10 +109,136 @@ public class NotificationItemWriterTest {
 				"Notification status is updated to FAILED");
 	}
 
+	@Test
+	void testUpdateDispatchedNotificationSchedulesTwilioStatusCheck() {
+		var twilioDispatch = new DispatchResult(true, null, null,
+				"{\"accountSid\":\"AC123\",\"sid\":\"SM123\",\"status\":\"queued\"}", null);
+		var notification = NotificationItemWriter.updateDispatchedNotification(new Notification(),
+				new ValidationResult(true, null), twilioDispatch);
+		assertNotNull(notification.getNextStatusCheckAt(), "A message sent with Twilio is due for a status check");
+
+		var emailDispatch = new DispatchResult(true, null, null, "accountSid is not JSON", null);
+		notification = NotificationItemWriter.updateDispatchedNotification(new Notification(),
+				new ValidationResult(true, null), emailDispatch);
+		assertNull(notification.getNextStatusCheckAt(), "Other deliveries are not checked");
+	}
+
 	@Test
 	void testUpdateInvalidNotification() {
 		var notification = NotificationItemWriter.updateInvalidNotification(new Notification());
 		assertTrue(notification.getNotificationStatus().equals(DefaultNotificationStatus.INVALID),
 				"Notification status is updated to INVALID");
 	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void testWriteSuppressesDuplicates() throws Exception {
+		var repository = mock(NotificationRepository.class);
+		var dispatcher = new CountingDispatcher(null);
+		var writer = new NotificationItemWriter(repository, registry(dispatcher));
+		var first = validNotification(recipientUuid1, new EmptyMetadata());
+		var duplicate = validNotification(recipientUuid1, new EmptyMetadata());
+
+		writer.write(Chunk.of(first, duplicate));
+		var laterDuplicate = validNotification(recipientUuid1, new EmptyMetadata());
+		writer.write(Chunk.of(laterDuplicate));
+
+		assertEquals(1, dispatcher.dispatches.get(), "Only the first notification is sent.");
+		assertEquals(DefaultNotificationStatus.SENT, first.getNotificationStatus(), "The first notification is sent.");
+		assertEquals(DefaultNotificationStatus.INVALID, duplicate.getNotificationStatus(),
+				"A duplicate in the same chunk is not sent.");
+		assertEquals(DefaultNotificationStatus.INVALID, laterDuplicate.getNotificationStatus(),
+				"A duplicate in a later chunk is not sent.");
+		verify(repository, times(2)).saveAll(any(List.class));
+		verify(repository, never()).save(any());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void testConcurrentWrite() throws Exception {
+		var repository = mock(NotificationRepository.class);
+		// Each dispatch waits until two are in flight, so this only completes if dispatches overlap
+		var inFlight = new CountDownLatch(2);
+		var dispatcher = new CountingDispatcher(inFlight);
+		var executor = Executors.newFixedThreadPool(4);
+		try {
+			var writer = new NotificationItemWriter(repository, null, registry(dispatcher), executor, 2);
+			var tracker = validNotification(recipientUuid1,
+					new ProgressionTrackerMetadataExample(TODAY, List.of(0, 1)));
+			var other = validNotification(UUID.randomUUID().toString(), new EmptyMetadata());
+			var duplicate = validNotification(other.getRecipientUuid(), new EmptyMetadata());
+
+			writer.write(Chunk.of(tracker, other, duplicate));
+
+			assertEquals(2, dispatcher.dispatches.get(), "Each distinct notification is sent once.");
+			assertEquals(DefaultNotificationStatus.SENT, tracker.getNotificationStatus(), "The tracker is sent.");
+			assertEquals(DefaultNotificationStatus.SENT, other.getNotificationStatus(), "The other is sent.");
+			assertEquals(DefaultNotificationStatus.INVALID, duplicate.getNotificationStatus(),
+					"The duplicate is not sent.");
+			ArgumentCaptor<List<Notification>> saved = ArgumentCaptor.forClass(List.class);
+			verify(repository, times(1)).saveAll(saved.capture());
+			assertEquals(4, saved.getValue().size(), "The chunk and the follow-up are saved together.");
+			assertEquals(TODAY.plusDays(1), saved.getValue().get(3).getDateScheduled(),
+					"The follow-up is scheduled for the next reminder day.");
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	void testWriteInsertsFollowUpsInBulk() throws Exception {
+		var repository = mock(NotificationRepository.class);
+		var jdbcWriter = mock(NotificationJdbcWriter.class);
+		var writer = new NotificationItemWriter(repository, jdbcWriter, registry(new CountingDispatcher(null)), null,
+				1);
+		var tracker = validNotification(recipientUuid1, new ProgressionTrackerMetadataExample(TODAY, List.of(0, 1)));
+
+		writer.write(Chunk.of(tracker));
+
+		verify(repository, times(1)).saveAll(Chunk.of(tracker));
+		verify(jdbcWriter, times(1)).insertAll(argThat(notifications -> notifications.size() == 1
+				&& notifications.get(0).getDateScheduled().equals(TODAY.plusDays(1))));
+	}
+
+	private NotificationTypeRegistry registry(NotificationDispatcher dispatcher) {
+		var registry = new NotificationTypeRegistry();
+		registry.register("example", ProcessingMode.SCHEDULED, NotificationMetadata.class,
+				NotificationValidator.NOOP, dispatcher, new EmptyMetadataViewer());
+		return registry;
+	}
+
+	private Notification validNotification(String recipientUuid, NotificationMetadata metadata) {
+		var notification = NotificationTestUtil.createNotification("example", new RecipientExample(recipientUuid),
+				metadata, TODAY);
+		notification.setNotificationStatus(DefaultNotificationStatus.SCHEDULED);
+		notification.setNotificationStatusMetadata(
+				new NotificationStatusMetadata(new ValidationResult(true, null), null));
+		return notification;
+	}
+
+	private static class CountingDispatcher implements NotificationDispatcher {
+
+		private final AtomicInteger dispatches = new AtomicInteger();
+		private final CountDownLatch inFlight;
+
+		CountingDispatcher(CountDownLatch inFlight) {
+			this.inFlight = inFlight;
+		}
+
+		@Override
+		public DispatchResult handleDispatch(Notification notification) {
+			dispatches.incrementAndGet();
+			if (inFlight != null) {
+				inFlight.countDown();
+				try {
+					assertTrue(inFlight.await(5, TimeUnit.SECONDS), "Dispatches run concurrently.");
+				} catch (InterruptedException e) {
+					throw new IllegalStateException(e);
+				}
+			}
+			return new DispatchResult(true, "content", notification.getRecipientUuid(), null, null);
+		}
+
+	}
+
 }
@@ -0,0 +1,108 @@
+package org.octri.notification.batch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.octri.notification.dispatch.NotificationDispatcher;
+import org.octri.notification.domain.DefaultNotificationStatus;
+import org.octri.notification.domain.ProcessingMode;
+import org.octri.notification.metadata.EmptyMetadata;
+import org.octri.notification.registry.NotificationTypeRegistry;
+import org.octri.notification.repository.NotificationRepository;
+import org.octri.notification.repository.OverdueNotificationCount;
+import org.octri.notification.validator.NotificationValidator;
+import org.octri.notification.view.EmptyMetadataViewer;
+import org.springframework.batch.item.ExecutionContext;
+
+@ExtendWith(MockitoExtension.class)
+public class NotificationTypePartitionerTest {
+
+	private final static LocalDate YESTERDAY = LocalDate.now().minusDays(1);
+
+	@Mock
+	NotificationRepository notificationRepository;
+
+	NotificationTypeRegistry notificationTypeRegistry = new NotificationTypeRegistry();
+
+	@BeforeEach
+	public void setup() {
+		notificationTypeRegistry.register("immediate", ProcessingMode.IMMEDIATE, EmptyMetadata.class,
+				NotificationValidator.NOOP, mock(NotificationDispatcher.class), new EmptyMetadataViewer());
+		lenient().when(notificationRepository.countOverdue(eq(DefaultNotificationStatus.SCHEDULED), any()))
+				.thenReturn(List.of(count("email", 60), count("sms", 50), count("letter", 30), count("push", 20),
+						count("immediate", 5)));
+	}
+
+	@Test
+	void testBalancesTypesAcrossPartitions() {
+		var partitioner = new NotificationTypePartitioner(notificationRepository, notificationTypeRegistry,
+				ProcessingMode.SCHEDULED);
+		var partitions = partitioner.partition(2);
+
+		assertEquals(2, partitions.size(), "The grid size sets the number of partitions.");
+		assertEquals(List.of("email", "push"), types(partitions.get("partition0")),
+				"The largest type shares a partition with the smallest.");
+		assertEquals(List.of("sms", "letter"), types(partitions.get("partition1")),
+				"The next types go to the partition with the fewest notifications.");
+	}
+
+	@Test
+	void testCreatesNoMorePartitionsThanTypes() {
+		var partitioner = new NotificationTypePartitioner(notificationRepository, notificationTypeRegistry,
+				ProcessingMode.SCHEDULED);
+		var partitions = partitioner.partition(10);
+
+		assertEquals(4, partitions.size(), "Each type is in its own partition.");
+		Set<String> types = new HashSet<>();
+		partitions.values().forEach(context -> types.addAll(types(context)));
+		assertEquals(Set.of("email", "sms", "letter", "push"), types, "Only the scheduled types are partitioned.");
+	}
+
+	@Test
+	void testImmediateModeOnlyPartitionsImmediateTypes() {
+		var partitioner = new NotificationTypePartitioner(notificationRepository, notificationTypeRegistry,
+				ProcessingMode.IMMEDIATE);
+		var partitions = partitioner.partition(4);
+
+		assertEquals(1, partitions.size(), "There is one partition for the one immediate type.");
+		assertEquals(List.of("immediate"), types(partitions.get("partition0")),
+				"Only the immediate type is partitioned.");
+	}
+
+	@Test
+	void testCreatesOneEmptyPartitionWhenNothingIsDue() {
+		when(notificationRepository.countOverdue(eq(DefaultNotificationStatus.SCHEDULED), any()))
+				.thenReturn(List.of());
+		var partitioner = new NotificationTypePartitioner(notificationRepository, notificationTypeRegistry,
+				ProcessingMode.SCHEDULED);
+		var partitions = partitioner.partition(4);
+
+		assertEquals(1, partitions.size(), "A single partition is created.");
+		assertEquals(List.of(), types(partitions.get("partition0")), "The partition has no types to read.");
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<String> types(ExecutionContext context) {
+		return new ArrayList<>((List<String>) context.get(NotificationTypePartitioner.NOTIFICATION_TYPES_KEY));
+	}
+
+	private OverdueNotificationCount count(String notificationType, long count) {
+		return new OverdueNotificationCount(notificationType, YESTERDAY, count);
+	}
+
+}
@@ -0,0 +1,85 @@
+package org.octri.notification.batch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.octri.notification.domain.DispatchResult;
+import org.octri.notification.domain.Notification.NotificationStatusMetadata;
+import org.octri.notification.domain.NotificationJson;
+import org.octri.notification.domain.ValidationResult;
+import org.octri.notification.repository.NotificationRepository;
+import org.octri.notification.repository.QueuedTwilioNotification;
+
+@ExtendWith(MockitoExtension.class)
+public class TwilioStatusItemReaderTest {
+
+	@Mock
+	NotificationRepository notificationRepository;
+
+	@Test
+	void testReadsEachPageOnce() {
+		when(notificationRepository.findTwilioStatusCheckPage(any(), eq(0L), eq(2))).thenReturn(List.of(queued(3L), queued(5L)));
+		when(notificationRepository.findTwilioStatusCheckPage(any(), eq(5L), eq(2))).thenReturn(List.of(queued(8L)));
+
+		var reader = new TwilioStatusItemReader(notificationRepository, 2);
+		assertEquals(3L, reader.read().getId(), "Notifications are read in id order.");
+		assertEquals(5L, reader.read().getId(), "Notifications are read in id order.");
+		assertEquals(8L, reader.read().getId(), "The next page starts after the last id.");
+		assertNull(reader.read(), "The reader returns null after the last partial page.");
+		assertNull(reader.read(), "The reader does not query again once exhausted.");
+		verify(notificationRepository, times(2)).findTwilioStatusCheckPage(any(), anyLong(), anyInt());
+	}
+
+	@Test
+	void testStatusMetadataIsParsedOnce() throws Exception {
+		var statusMetadata = NotificationJson.write(new NotificationStatusMetadata(new ValidationResult(true, null),
+				new DispatchResult(true, "content", "555-555-5555", "{\"sid\":\"SM1\"}", null)));
+		when(notificationRepository.findTwilioStatusCheckPage(any(), eq(0L), eq(2)))
+				.thenReturn(List.of(new QueuedNotification(3L, statusMetadata, 0)));
+
+		var notification = new TwilioStatusItemReader(notificationRepository, 2).read();
+		assertEquals("{\"sid\":\"SM1\"}", notification.getStatusMetadata().dispatchResult().deliveryDetails(),
+				"The status metadata is read from the JSON.");
+		assertSame(notification.getStatusMetadata(), notification.getStatusMetadata(),
+				"The status metadata is deserialized once.");
+	}
+
+	private QueuedTwilioNotification queued(Long id) {
+		return new QueuedNotification(id, null, 0);
+	}
+
+	private record QueuedNotification(Long id, String notificationStatusMetadata, Integer statusCheckAttempts)
+			implements QueuedTwilioNotification {
+
+		@Override
+		public Long getId() {
+			return id;
+		}
+
+		@Override
+		public String getNotificationStatusMetadata() {
+			return notificationStatusMetadata;
+		}
+
+		@Override
+		public Integer getStatusCheckAttempts() {
+			return statusCheckAttempts;
+		}
+
+	}
+
+}
@@ -0,0 +1,106 @@
+package org.octri.notification.batch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.octri.messaging.sms.TwilioHelper;
+import org.octri.notification.domain.DefaultNotificationStatus;
+import org.octri.notification.repository.QueuedTwilioNotification;
+import org.octri.notification.service.TwilioStatusService;
+import org.octri.notification.service.TwilioStatusService.StatusUpdate;
+import org.springframework.batch.item.Chunk;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import com.twilio.rest.api.v2010.account.Message;
+
+@ExtendWith(MockitoExtension.class)
+public class TwilioStatusItemWriterTest {
+
+	@Mock
+	TwilioStatusService twilioStatusService;
+
+	@Mock
+	TwilioHelper twilioHelper;
+
+	@Test
+	void testFetchesConcurrentlyAndAppliesOnce() throws Exception {
+		var inFlight = new AtomicInteger();
+		var maxInFlight = new AtomicInteger();
+		var chunk = createChunk(6);
+		when(twilioHelper.fetchMessage(anyString())).thenAnswer(i -> {
+			maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+			TimeUnit.MILLISECONDS.sleep(50);
+			inFlight.decrementAndGet();
+			return message(i.getArgument(0));
+		});
+		when(twilioStatusService.statusCheck(any(), any())).thenAnswer(i -> new StatusUpdate(
+				i.<QueuedTwilioNotification> getArgument(0).getId(), DefaultNotificationStatus.SENT, null, 1, null));
+
+		var writer = new TwilioStatusItemWriter(twilioStatusService, twilioHelper,
+				new SimpleAsyncTaskExecutor("test-"), 3, 0);
+		writer.write(chunk);
+
+		assertTrue(maxInFlight.get() > 1, "Messages are fetched concurrently.");
+		assertTrue(maxInFlight.get() <= 3, "No more than the configured number of messages are fetched at once.");
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<List<StatusUpdate>> updates = ArgumentCaptor.forClass(List.class);
+		verify(twilioStatusService, times(1)).applyStatusUpdates(updates.capture());
+		assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L), updates.getValue().stream().map(StatusUpdate::id).toList(),
+				"The chunk's changes are applied together, in chunk order.");
+	}
+
+	@Test
+	void testLimitsRequestRate() throws Exception {
+		var chunk = createChunk(5);
+		when(twilioHelper.fetchMessage(anyString())).thenAnswer(i -> message(i.getArgument(0)));
+
+		var writer = new TwilioStatusItemWriter(twilioStatusService, twilioHelper,
+				new SimpleAsyncTaskExecutor("test-"), 5, 20);
+		long start = System.nanoTime();
+		writer.write(chunk);
+		long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+		assertTrue(elapsedMillis >= 190, "Five requests at 20 per second take at least 200ms, took " + elapsedMillis);
+		verify(twilioHelper, times(5)).fetchMessage(anyString());
+	}
+
+	private Chunk<QueuedTwilioNotification> createChunk(int count) {
+		List<QueuedTwilioNotification> notifications = new ArrayList<>();
+		for (long id = 1; id <= count; id++) {
+			var notification = mock(QueuedTwilioNotification.class, Answers.RETURNS_DEEP_STUBS);
+			var sid = "SM" + id;
+			var deliveryDetails = "{\"sid\":\"" + sid + "\"}";
+			lenient().when(notification.getId()).thenReturn(id);
+			when(notification.getStatusMetadata().dispatchResult().deliveryDetails()).thenReturn(deliveryDetails);
+			var storedState = message(sid);
+			when(twilioHelper.loadMessageFromString(deliveryDetails)).thenReturn(storedState);
+			notifications.add(notification);
+		}
+		return new Chunk<>(notifications);
+	}
+
+	private static Message message(String sid) {
+		var message = mock(Message.class);
+		when(message.getSid()).thenReturn(sid);
+		return message;
+	}
+
+}
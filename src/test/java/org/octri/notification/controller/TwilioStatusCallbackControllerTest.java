@@ -0,0 +1,82 @@
+package org.octri.notification.controller;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.octri.notification.service.TwilioStatusService;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.twilio.security.RequestValidator;
+
+@ExtendWith(MockitoExtension.class)
+public class TwilioStatusCallbackControllerTest {
+
+	private static final String AUTH_TOKEN = "test-auth-token";
+	private static final String URL = "http://localhost" + TwilioStatusCallbackController.CALLBACK_PATH;
+
+	@Mock
+	TwilioStatusService twilioStatusService;
+
+	MockMvc mockMvc;
+
+	@BeforeEach
+	public void setup() {
+		mockMvc = MockMvcBuilders.standaloneSetup(
+				new TwilioStatusCallbackController(twilioStatusService, new RequestValidator(AUTH_TOKEN), null))
+				.build();
+	}
+
+	@Test
+	void testSignedCallbackIsRecorded() throws Exception {
+		var params = Map.of("MessageSid", "SM123", "MessageStatus", "undelivered", "ErrorCode", "30003");
+		mockMvc.perform(post(TwilioStatusCallbackController.CALLBACK_PATH)
+				.contentType(MediaType.APPLICATION_FORM_URLENCODED)
+				.header(TwilioStatusCallbackController.SIGNATURE_HEADER, sign(URL, params))
+				.param("MessageSid", "SM123")
+				.param("MessageStatus", "undelivered")
+				.param("ErrorCode", "30003"))
+				.andExpect(status().isNoContent());
+		verify(twilioStatusService).handleStatusCallback("SM123", "undelivered");
+	}
+
+	@Test
+	void testUnsignedCallbackIsRejected() throws Exception {
+		mockMvc.perform(post(TwilioStatusCallbackController.CALLBACK_PATH)
+				.contentType(MediaType.APPLICATION_FORM_URLENCODED)
+				.header(TwilioStatusCallbackController.SIGNATURE_HEADER, "not-a-signature")
+				.param("MessageSid", "SM123")
+				.param("MessageStatus", "delivered"))
+				.andExpect(status().isForbidden());
+		verify(twilioStatusService, never()).handleStatusCallback(anyString(), anyString());
+	}
+
+	/**
+	 * Sign a request the way Twilio does: an HMAC-SHA1 of the URL followed by the sorted parameters
+	 */
+	private static String sign(String url, Map<String, String> params) throws Exception {
+		var data = new StringBuilder(url);
+		new TreeMap<>(params).forEach((key, value) -> data.append(key).append(value));
+		var mac = Mac.getInstance("HmacSHA1");
+		mac.init(new SecretKeySpec(AUTH_TOKEN.getBytes(StandardCharsets.UTF_8), "HmacSHA1"));
+		return Base64.getEncoder().encodeToString(mac.doFinal(data.toString().getBytes(StandardCharsets.UTF_8)));
+	}
+
+}
@@ -1,13 +1,17 @@
 package org.octri.notification.dispatch;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.when;
 
+import java.util.Map;
 import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -19,6 +23,8 @@ import org.octri.messaging.exception.UnsuccessfulDeliveryException;
 import org.octri.messaging.service.MessageDeliveryService;
 import org.octri.notification.config.NotificationProperties;
 
+import com.samskivert.mustache.Mustache;
+
 @ExtendWith(MockitoExtension.class)
 public class AbstractNotificationDispatcherTest {
 
@@ -83,6 +89,34 @@ public class AbstractNotificationDispatcherTest {
 				"Intended message content should still be present and should match.");
 	}
 
+	@Test
+	void testGenerateMessageContent() {
+		var dispatcher = new TestNotificationDispatcher(messageDeliveryService, notificationProperties,
+				Mustache.compiler());
+		var template = "Hello {{name}}";
+		assertEquals("Hello <b>Ann</b>", dispatcher.generateMessageContent(template, Map.of("name", "<b>Ann</b>")),
+				"Values are not HTML escaped.");
+		assertEquals("Hello Bob", dispatcher.generateMessageContent(template, Map.of("name", "Bob")),
+				"The cached template is rendered with new values.");
+
+		dispatcher.registerTemplate("greeting", "Hi {{name}}");
+		assertEquals("Hi Cy", dispatcher.generateRegisteredMessageContent("greeting", Map.of("name", "Cy")),
+				"A registered template is rendered by id.");
+		assertThrows(IllegalArgumentException.class,
+				() -> dispatcher.generateRegisteredMessageContent("missing", Map.of()));
+	}
+
+	@Test
+	void testTemplateCacheEvictsLeastRecentlyUsed() {
+		var cache = new TemplateCache(Mustache.compiler(), 2);
+		var first = cache.get("one");
+		cache.get("two");
+		assertSame(first, cache.get("one"), "A cached template is not compiled again.");
+		cache.get("three");
+		assertEquals(2, cache.size(), "The cache does not grow past its maximum size.");
+		assertSame(first, cache.get("one"), "The most recently used template is kept.");
+	}
+
 	private void mocknotificationProperties() {
 		lenient().when(notificationProperties.getEmail()).thenReturn(NOTIFICATION_SENDER_EMAIL);
 		lenient().when(notificationProperties.getSmsNumber()).thenReturn(NOTIFICATION_SENDER_SMS_NUMBER);
@@ -0,0 +1,39 @@
+package org.octri.notification.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.octri.notification.NotificationTestUtil;
+import org.octri.notification.ProgressionTrackerMetadataExample;
+import org.octri.notification.RecipientExample;
+
+public class NotificationJsonTest {
+
+	private final static LocalDate TODAY = LocalDate.now();
+
+	@Test
+	void testNotificationsShareOneMapper() {
+		assertSame(new Notification().getObjectMapper(), new Notification().getObjectMapper(),
+				"Every notification uses the shared mapper.");
+	}
+
+	@Test
+	void testProgressionTrackerRoundTrip() {
+		var metadata = new ProgressionTrackerMetadataExample(TODAY, List.of(0, 1, 2));
+		metadata.advance();
+		var notification = NotificationTestUtil.createNotification("example", new RecipientExample("a"), metadata,
+				TODAY);
+
+		assertFalse(notification.getNotificationMetadata().contains("final"),
+				"The mixin keeps derived tracker fields out of the JSON.");
+		var parsed = notification.getNotificationMetadata(ProgressionTrackerMetadataExample.class);
+		assertEquals(TODAY, parsed.getStartDate(), "Dates are written as ISO strings and read back.");
+		assertEquals(1, parsed.getCurrentIndex(), "The tracker position is preserved.");
+	}
+
+}
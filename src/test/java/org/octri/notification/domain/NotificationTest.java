@@ -0,0 +1,59 @@
+package org.octri.notification.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.octri.notification.ProgressionTrackerMetadataExample;
+import org.octri.notification.domain.Notification.NotificationStatusMetadata;
+
+public class NotificationTest {
+
+	private final static LocalDate TODAY = LocalDate.now();
+
+	@Test
+	void testMetadataIsParsedOnce() {
+		var notification = new Notification();
+		notification.setNotificationMetadata(
+				"{\"startDate\":\"" + TODAY + "\",\"reminderDays\":[0,1],\"currentIndex\":0}");
+		var metadata = notification.getNotificationMetadata(ProgressionTrackerMetadataExample.class);
+		assertSame(metadata, notification.getNotificationMetadata(ProgressionTrackerMetadataExample.class),
+				"The parsed metadata is kept on the entity.");
+
+		notification.setNotificationMetadata(notification.getNotificationMetadata());
+		assertNotSame(metadata, notification.getNotificationMetadata(ProgressionTrackerMetadataExample.class),
+				"Setting the JSON string discards the parsed metadata.");
+	}
+
+	@Test
+	void testMetadataIsSerializedWhenNeeded() {
+		var notification = new Notification();
+		var metadata = new ProgressionTrackerMetadataExample(TODAY, List.of(0, 1));
+		notification.setNotificationMetadata(metadata);
+		assertSame(metadata, notification.getNotificationMetadata(ProgressionTrackerMetadataExample.class),
+				"Metadata set as an object is returned without a round trip through JSON.");
+
+		metadata.advance();
+		assertTrue(notification.getNotificationMetadata().contains("\"currentIndex\":1"),
+				"The JSON reflects the metadata when it is first requested.");
+	}
+
+	@Test
+	void testStatusMetadataIsKept() {
+		var notification = new Notification();
+		var statusMetadata = new NotificationStatusMetadata(new ValidationResult(true, null), null);
+		notification.setNotificationStatusMetadata(statusMetadata);
+		assertSame(statusMetadata, notification.getStatusMetadata(), "The status record is kept on the entity.");
+
+		var copy = new Notification();
+		copy.setNotificationStatusMetadata(notification.getNotificationStatusMetadata());
+		assertEquals(statusMetadata, copy.getStatusMetadata(), "The status record round trips through JSON.");
+		assertSame(copy.getStatusMetadata(), copy.getStatusMetadata(), "The status JSON is parsed once.");
+	}
+
+}
@@ -0,0 +1,70 @@
+package org.octri.notification.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.octri.notification.domain.DispatchResult;
+import org.octri.notification.domain.ProcessingMode;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class NotificationMetricsTest {
+
+	private static final DispatchResult EMAIL_SENT = new DispatchResult(true, "content", "user@example.com", null,
+			null);
+	private static final DispatchResult SMS_FAILED = new DispatchResult(false, "content", "+15035550100", null,
+			"error");
+
+	SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	NotificationMetrics notificationMetrics = new NotificationMetrics(meterRegistry);
+
+	@Test
+	void testDispatchTaggedByTypeChannelAndOutcome() {
+		notificationMetrics.recordDispatch("welcome", List.of(EMAIL_SENT), 1000);
+		notificationMetrics.recordDispatch("welcome", List.of(EMAIL_SENT, SMS_FAILED), 1000);
+
+		var emailTimer = meterRegistry.get(NotificationMetrics.DISPATCH)
+				.tags("type", "welcome", "channel", "email", "outcome", "success").timer();
+		assertEquals(1, emailTimer.count(), "A dispatch with one email result is timed under the email channel.");
+		var mixedTimer = meterRegistry.get(NotificationMetrics.DISPATCH)
+				.tags("type", "welcome", "channel", "mixed", "outcome", "failure").timer();
+		assertEquals(1, mixedTimer.count(), "A dispatch with a failed result over several channels is a mixed failure.");
+		assertEquals(2, meterRegistry.get(NotificationMetrics.DISPATCH_RESULTS)
+				.tags("channel", "email", "outcome", "success").counter().count(), "Each email result is counted.");
+		assertEquals(1, meterRegistry.get(NotificationMetrics.DISPATCH_RESULTS)
+				.tags("channel", "sms", "outcome", "failure").counter().count(), "Each SMS failure is counted.");
+	}
+
+	@Test
+	void testTimersAndCounters() {
+		notificationMetrics.recordReaderPage(ProcessingMode.SCHEDULED, TimeUnit.MILLISECONDS.toNanos(5));
+		notificationMetrics.recordRecipientLookup(ProcessingMode.SCHEDULED, 1000);
+		notificationMetrics.recordValidation("welcome", false, 1000);
+		notificationMetrics.recordDuplicate("welcome");
+		notificationMetrics.recordTwilioFetch(true, 1000);
+
+		assertEquals(5, meterRegistry.get(NotificationMetrics.READER_PAGE).tag("mode", "SCHEDULED").timer()
+				.totalTime(TimeUnit.MILLISECONDS), 0.001, "The page read time is recorded.");
+		assertEquals(1, meterRegistry.get(NotificationMetrics.RECIPIENT_LOOKUP).timer().count(),
+				"The recipient lookup is timed.");
+		assertEquals(1, meterRegistry.get(NotificationMetrics.VALIDATION).tags("type", "welcome", "outcome", "invalid")
+				.timer().count(), "Validation is timed by type and outcome.");
+		assertEquals(1, meterRegistry.get(NotificationMetrics.DUPLICATES).tag("type", "welcome").counter().count(),
+				"Duplicates are counted by type.");
+		assertEquals(1, meterRegistry.get(NotificationMetrics.TWILIO_FETCH).tag("outcome", "success").timer().count(),
+				"Twilio fetches are timed.");
+	}
+
+	@Test
+	void testNoopRecordsNothing() {
+		NotificationMetrics.NOOP.recordDispatch("welcome", List.of(EMAIL_SENT), 1000);
+		NotificationMetrics.NOOP.recordDuplicate("welcome");
+		assertTrue(meterRegistry.getMeters().isEmpty(), "The no-op metrics do not register meters.");
+	}
+
+}
@@ -0,0 +1,88 @@
+package org.octri.notification.recipient;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.Test;
+import org.octri.notification.RecipientExample;
+
+public class BoundedRecipientCacheTest {
+
+	private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+	@Test
+	void testLeastRecentlyUsedRecipientIsEvicted() {
+		var cache = new BoundedRecipientCache(2, Duration.ofMinutes(5));
+		cache.put(new RecipientExample("a"));
+		cache.put(new RecipientExample("b"));
+		cache.get("a");
+		cache.put(new RecipientExample("c"));
+
+		assertNotNull(cache.get("a"), "The recently used recipient is kept.");
+		assertNull(cache.get("b"), "The least recently used recipient is evicted.");
+		assertNotNull(cache.get("c"), "The new recipient is cached.");
+		assertEquals(new RecipientCacheStats(3, 1, 1, 2), cache.getStats(), "Hits, misses and evictions are counted.");
+	}
+
+	@Test
+	void testRecipientsExpire() {
+		var clock = new MutableClock();
+		var cache = new BoundedRecipientCache(10, Duration.ofMinutes(5), clock);
+		cache.put(new RecipientExample("a"));
+		cache.put(new RecipientExample("b"));
+
+		clock.instant = NOW.plus(Duration.ofMinutes(4));
+		assertNotNull(cache.get("a"), "The recipient is cached until it expires.");
+		clock.instant = NOW.plus(Duration.ofMinutes(6));
+		assertNull(cache.get("a"), "The recipient expires after the time to live.");
+		assertEquals(1, cache.getStats().evictions(), "The expired recipient is counted as an eviction.");
+	}
+
+	@Test
+	void testInvalidate() {
+		var cache = new BoundedRecipientCache(10, Duration.ofMinutes(5));
+		cache.put(new RecipientExample("a"));
+		cache.put(new RecipientExample("b"));
+		cache.invalidate("a");
+		assertNull(cache.get("a"), "An invalidated recipient is removed.");
+		assertNotNull(cache.get("b"), "Other recipients are kept.");
+		cache.invalidateAll();
+		assertEquals(0, cache.getStats().size(), "All recipients are removed.");
+	}
+
+	@Test
+	void testZeroSizeDisablesCaching() {
+		var cache = new BoundedRecipientCache(0, Duration.ofMinutes(5));
+		cache.put(new RecipientExample("a"));
+		assertNull(cache.get("a"), "Nothing is cached when the maximum size is zero.");
+	}
+
+	private static class MutableClock extends Clock {
+
+		Instant instant = NOW;
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return instant;
+		}
+
+	}
+
+}
@@ -0,0 +1,96 @@
+package org.octri.notification.recipient;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.octri.common.customizer.IdentifiableEntityFinder;
+import org.octri.notification.NotificationTestUtil;
+import org.octri.notification.RecipientExample;
+import org.octri.notification.domain.Notification;
+import org.octri.notification.metadata.EmptyMetadata;
+
+public class RecipientResolverTest {
+
+	private final static LocalDate TODAY = LocalDate.now();
+
+	interface BatchRecipientFinder
+			extends IdentifiableEntityFinder<RecipientExample>, RecipientBatchFinder<RecipientExample> {
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void testAttachRecipientsWithBatchFinder() {
+		var finder = mock(BatchRecipientFinder.class);
+		when(finder.findAllByUuids(any()))
+				.thenReturn(List.of(new RecipientExample("a"), new RecipientExample("b")));
+		var notifications = List.of(createNotification("a"), createNotification("b"), createNotification("a"),
+				createNotification("missing"));
+
+		new RecipientResolver(finder).attachRecipients(notifications);
+
+		verify(finder, times(1)).findAllByUuids(Set.of("a", "b", "missing"));
+		verify(finder, never()).findByUuid(anyString());
+		assertEquals("a", notifications.get(0).getRecipient().getUuid(), "The recipient is attached.");
+		assertEquals("b", notifications.get(1).getRecipient().getUuid(), "The recipient is attached.");
+		assertEquals("a", notifications.get(2).getRecipient().getUuid(), "A shared recipient is attached to both.");
+		assertNull(notifications.get(3).getRecipient(), "A missing recipient is left unset.");
+		assertEquals("missing", notifications.get(3).getRecipientUuid(), "The recipient UUID is preserved.");
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void testAttachRecipientsFallsBackToSingleLookups() {
+		IdentifiableEntityFinder<RecipientExample> finder = mock(IdentifiableEntityFinder.class);
+		when(finder.findByUuid(anyString())).thenAnswer(i -> new RecipientExample(i.getArgument(0)));
+		var notifications = List.of(createNotification("a"), createNotification("a"), createNotification("b"));
+
+		new RecipientResolver(finder).attachRecipients(notifications);
+
+		verify(finder, times(1)).findByUuid("a");
+		verify(finder, times(1)).findByUuid("b");
+		assertTrue(notifications.stream().allMatch(n -> n.getRecipient() != null), "All recipients are attached.");
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void testCachedRecipientsAreNotLookedUpAgain() {
+		var finder = mock(BatchRecipientFinder.class);
+		when(finder.findAllByUuids(any())).thenAnswer(i -> ((Set<String>) i.getArgument(0)).stream()
+				.map(RecipientExample::new).toList());
+		var resolver = new RecipientResolver(finder, new BoundedRecipientCache(10, Duration.ofMinutes(5)));
+
+		resolver.attachRecipients(List.of(createNotification("a"), createNotification("b")));
+		resolver.attachRecipients(List.of(createNotification("a"), createNotification("c")));
+		assertEquals("a", resolver.findByUuid("a").getUuid(), "The cached recipient is returned.");
+
+		verify(finder, times(1)).findAllByUuids(Set.of("a", "b"));
+		verify(finder, times(1)).findAllByUuids(Set.of("c"));
+		verify(finder, never()).findByUuid(anyString());
+		assertEquals(2, resolver.getCacheStats().hits(), "Repeated lookups are answered by the cache.");
+
+		resolver.invalidate("a");
+		resolver.findByUuid("a");
+		verify(finder, times(1)).findByUuid("a");
+	}
+
+	private Notification createNotification(String recipientUuid) {
+		var notification = NotificationTestUtil.createNotification("example", null, new EmptyMetadata(), TODAY);
+		notification.setRecipientUuid(recipientUuid);
+		return notification;
+	}
+
+}
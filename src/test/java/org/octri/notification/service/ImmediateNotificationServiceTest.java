@@ -0,0 +1,140 @@
+package org.octri.notification.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.octri.common.customizer.IdentifiableEntityFinder;
+import org.octri.notification.NotificationTestUtil;
+import org.octri.notification.RecipientExample;
+import org.octri.notification.dispatch.NotificationDispatcher;
+import org.octri.notification.domain.DefaultNotificationStatus;
+import org.octri.notification.domain.DispatchResult;
+import org.octri.notification.domain.Notification;
+import org.octri.notification.domain.ProcessingMode;
+import org.octri.notification.metadata.EmptyMetadata;
+import org.octri.notification.metrics.NotificationMetrics;
+import org.octri.notification.recipient.RecipientResolver;
+import org.octri.notification.registry.NotificationTypeRegistry;
+import org.octri.notification.repository.NotificationJdbcWriter;
+import org.octri.notification.repository.NotificationRepository;
+import org.octri.notification.validator.NotificationValidator;
+import org.octri.notification.view.EmptyMetadataViewer;
+import org.springframework.batch.item.Chunk;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+public class ImmediateNotificationServiceTest {
+
+	@Mock
+	NotificationRepository notificationRepository;
+
+	@Mock
+	NotificationJdbcWriter notificationJdbcWriter;
+
+	@Mock
+	PlatformTransactionManager transactionManager;
+
+	@Mock
+	IdentifiableEntityFinder<RecipientExample> recipientFinder;
+
+	@Mock
+	NotificationDispatcher dispatcher;
+
+	Notification notification;
+
+	@BeforeEach
+	public void setup() {
+		lenient().when(recipientFinder.findByUuid(anyString()))
+				.thenAnswer(i -> new RecipientExample(i.getArgument(0)));
+		notification = NotificationTestUtil.createNotification("immediate",
+				new RecipientExample(UUID.randomUUID().toString()), new EmptyMetadata(), LocalDate.now());
+		notification.setId(1L);
+		notification.setNotificationStatus(DefaultNotificationStatus.SCHEDULED);
+	}
+
+	@Test
+	void testSendsClaimedNotification() {
+		when(notificationRepository.claim(1L, "SCHEDULED", 300L)).thenReturn(1);
+		when(notificationRepository.findById(1L)).thenReturn(Optional.of(notification));
+		when(dispatcher.handleDispatches(notification))
+				.thenReturn(List.of(new DispatchResult(true, "Hello", "a@example.com", null, null)));
+
+		assertTrue(service(1).send(1L), "The claimed notification is sent.");
+		assertEquals(DefaultNotificationStatus.SENT, notification.getNotificationStatus(), "The outcome is recorded.");
+		verify(notificationRepository).saveAll(eq(Chunk.of(notification)));
+		verify(notificationRepository, never()).releaseClaim(anyLong());
+	}
+
+	@Test
+	void testSkipsNotificationClaimedElsewhere() {
+		when(notificationRepository.claim(1L, "SCHEDULED", 300L)).thenReturn(0);
+
+		assertFalse(service(1).send(1L), "A notification that cannot be claimed is not sent.");
+		verify(notificationRepository, never()).findById(anyLong());
+		verify(dispatcher, never()).handleDispatches(notification);
+	}
+
+	@Test
+	void testReleasesClaimWhenSendingFails() {
+		when(notificationRepository.claim(1L, "SCHEDULED", 300L)).thenReturn(1);
+		when(notificationRepository.findById(1L)).thenReturn(Optional.of(notification));
+		when(dispatcher.handleDispatches(notification)).thenThrow(new IllegalStateException("No connection"));
+
+		assertThrows(IllegalStateException.class, () -> service(1).send(1L));
+		verify(notificationRepository).releaseClaim(1L);
+	}
+
+	@Test
+	void testSubmitAtCapacityLeavesNotificationToBatchJob() throws Exception {
+		var started = new CountDownLatch(1);
+		var release = new CountDownLatch(1);
+		when(notificationRepository.claim(1L, "SCHEDULED", 300L)).thenReturn(1);
+		when(notificationRepository.findById(1L)).thenReturn(Optional.of(notification));
+		when(dispatcher.handleDispatches(notification)).thenAnswer(invocation -> {
+			started.countDown();
+			release.await(5, TimeUnit.SECONDS);
+			return List.of(new DispatchResult(true, "Hello", "a@example.com", null, null));
+		});
+
+		var service = service(1);
+		var sending = service.submit(1L);
+		assertTrue(started.await(5, TimeUnit.SECONDS), "The first notification is being sent.");
+		assertFalse(service.submit(2L).get(5, TimeUnit.SECONDS), "No more notifications are sent at capacity.");
+
+		release.countDown();
+		assertTrue(sending.get(5, TimeUnit.SECONDS), "The first notification is sent.");
+	}
+
+	private ImmediateNotificationService service(int concurrency) {
+		var registry = new NotificationTypeRegistry();
+		registry.register("immediate", ProcessingMode.IMMEDIATE, EmptyMetadata.class, NotificationValidator.NOOP,
+				dispatcher, new EmptyMetadataViewer());
+		return new ImmediateNotificationService(notificationRepository, notificationJdbcWriter, registry,
+				new RecipientResolver(recipientFinder), transactionManager, NotificationMetrics.NOOP,
+				Duration.ofMinutes(5), new SimpleAsyncTaskExecutor("test-immediate-"), concurrency);
+	}
+
+}
@@ -0,0 +1,82 @@
+package org.octri.notification.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.octri.notification.domain.DefaultNotificationStatus;
+import org.octri.notification.repository.NotificationCount;
+import org.octri.notification.repository.NotificationRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class NotificationDashboardServiceTest {
+
+	private static final ZoneId ZONE = ZoneId.of("America/Los_Angeles");
+
+	@Mock
+	NotificationRepository notificationRepository;
+
+	@Test
+	void testCountsAreCachedUntilExpired() {
+		var today = LocalDate.of(2026, 10, 18);
+		var clock = new MutableClock(today.atStartOfDay(ZONE).toInstant());
+		var sent = new NotificationCount(DefaultNotificationStatus.SENT, "reminder", today, 3L);
+		when(notificationRepository.countByStatusTypeAndDate(today.minusDays(30), today)).thenReturn(List.of(sent));
+		when(notificationRepository.countOverdue(DefaultNotificationStatus.SCHEDULED, today)).thenReturn(List.of());
+		when(notificationRepository.countByTypeAndDate(DefaultNotificationStatus.SCHEDULED, today, today.plusDays(30)))
+				.thenReturn(List.of());
+
+		var service = new NotificationDashboardService(notificationRepository, Duration.ofMinutes(1), clock);
+		var dashboard = service.getDashboard();
+		assertEquals(List.of(sent), dashboard.statusCounts(), "The status counts come from the aggregate query.");
+
+		clock.instant = clock.instant.plusSeconds(59);
+		assertSame(dashboard, service.getDashboard(), "The counts are reused within the time to live.");
+		verify(notificationRepository, times(1)).countByStatusTypeAndDate(any(), any());
+
+		clock.instant = clock.instant.plusSeconds(1);
+		assertNotSame(dashboard, service.getDashboard(), "The counts are made again once they expire.");
+		verify(notificationRepository, times(2)).countByStatusTypeAndDate(any(), any());
+	}
+
+	private static class MutableClock extends Clock {
+
+		Instant instant;
+
+		MutableClock(Instant instant) {
+			this.instant = instant;
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZONE;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return instant;
+		}
+
+	}
+
+}
@@ -0,0 +1,160 @@
+package org.octri.notification.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.octri.messaging.sms.TwilioHelper;
+import org.octri.notification.domain.DefaultNotificationStatus;
+import org.octri.notification.domain.DispatchResult;
+import org.octri.notification.domain.Notification.NotificationStatusMetadata;
+import org.octri.notification.domain.NotificationJson;
+import org.octri.notification.domain.ValidationResult;
+import org.octri.notification.repository.NotificationJdbcWriter;
+import org.octri.notification.repository.NotificationJdbcWriter.StatusChange;
+import org.octri.notification.repository.NotificationRepository;
+import org.octri.notification.repository.QueuedTwilioNotification;
+
+import com.twilio.rest.api.v2010.account.Message;
+
+@ExtendWith(MockitoExtension.class)
+public class TwilioStatusServiceTest {
+
+	@Mock
+	NotificationRepository notificationRepository;
+
+	@Mock
+	NotificationJdbcWriter notificationJdbcWriter;
+
+	@Mock
+	TwilioHelper twilioHelper;
+
+	@Test
+	void testStatusUpdateForChangedStatus() throws Exception {
+		var service = new TwilioStatusService(notificationRepository, notificationJdbcWriter, twilioHelper);
+		var notification = queued(1L, "{\"sid\":\"SM1\",\"status\":\"QUEUED\"}");
+		var oldState = message(Message.Status.QUEUED);
+		var updatedState = message(Message.Status.UNDELIVERED);
+		when(twilioHelper.loadMessageFromString(anyString())).thenReturn(oldState);
+		when(twilioHelper.isSuccessResponse(updatedState)).thenReturn(false);
+		when(twilioHelper.serializeMessageToJson(updatedState)).thenReturn("{\"status\":\"UNDELIVERED\"}");
+
+		var update = service.statusCheck(notification, updatedState);
+		assertEquals(DefaultNotificationStatus.FAILED, update.notificationStatus(), "Undelivered messages fail.");
+		assertEquals("{\"status\":\"UNDELIVERED\"}", update.statusMetadata().dispatchResult().deliveryDetails(),
+				"The delivery details are replaced.");
+
+		service.applyStatusUpdates(List.of(update));
+		verify(notificationJdbcWriter).updateStatuses(argThat(changes -> changes.size() == 1
+				&& changes.get(0).id() == 1L && "FAILED".equals(changes.get(0).notificationStatus())
+				&& changes.get(0).statusCheckAttempts() == 1 && changes.get(0).nextStatusCheckAt() == null));
+	}
+
+	@Test
+	void testCallbackUpdatesDeliveryDetails() throws Exception {
+		var service = new TwilioStatusService(notificationRepository, notificationJdbcWriter, twilioHelper);
+		when(notificationRepository.findByMessageSid("SM1"))
+				.thenReturn(List.of(queued(1L, "{\"sid\":\"SM1\",\"status\":\"QUEUED\"}")));
+		var oldState = message(Message.Status.QUEUED);
+		var updatedState = message(Message.Status.DELIVERED);
+		when(twilioHelper.loadMessageFromString("{\"sid\":\"SM1\",\"status\":\"QUEUED\"}")).thenReturn(oldState);
+		when(twilioHelper.fetchMessage("SM1")).thenReturn(updatedState);
+		when(twilioHelper.isSuccessResponse(updatedState)).thenReturn(true);
+		when(twilioHelper.serializeMessageToJson(updatedState)).thenReturn("{\"sid\":\"SM1\",\"status\":\"DELIVERED\"}");
+
+		assertTrue(service.handleStatusCallback("SM1", "delivered"), "The notification is found.");
+		verify(notificationJdbcWriter).updateStatuses(argThat(changes -> changes.size() == 1
+				&& changes.get(0).id() == 1L && "SENT".equals(changes.get(0).notificationStatus())
+				&& changes.get(0).statusCheckAttempts() == 1 && changes.get(0).nextStatusCheckAt() == null));
+	}
+
+	@Test
+	void testCallbackDoesNotReplaceTerminalStatus() throws Exception {
+		var service = new TwilioStatusService(notificationRepository, notificationJdbcWriter, twilioHelper);
+		when(notificationRepository.findByMessageSid("SM1"))
+				.thenReturn(List.of(queued(1L, "{\"sid\":\"SM1\",\"status\":\"DELIVERED\"}")));
+		var oldState = message(Message.Status.DELIVERED);
+		when(twilioHelper.loadMessageFromString(anyString())).thenReturn(oldState);
+
+		service.handleStatusCallback("SM1", "sent");
+		verify(twilioHelper, never()).fetchMessage(anyString());
+		verify(notificationJdbcWriter, never()).updateStatuses(any());
+	}
+
+	@Test
+	void testUnchangedStatusIsCheckedAgainWithBackoff() throws Exception {
+		var schedule = new StatusCheckSchedule(Duration.ofMinutes(5), Duration.ofHours(1), 10);
+		var service = new TwilioStatusService(notificationRepository, notificationJdbcWriter, twilioHelper, schedule);
+		var sent = message(Message.Status.SENT);
+		when(twilioHelper.loadMessageFromString(anyString())).thenReturn(sent);
+
+		var before = LocalDateTime.now();
+		var update = service.statusCheck(queued(1L, "{\"sid\":\"SM1\",\"status\":\"SENT\"}", 2), sent);
+		assertFalse(update.statusChanged(), "The status has not changed.");
+		assertEquals(3, update.statusCheckAttempts(), "The check is counted.");
+		assertFalse(update.nextStatusCheckAt().isBefore(before.plusMinutes(20)),
+				"The third check waits twice as long as the second.");
+
+		var capped = service.statusCheck(queued(1L, "{\"sid\":\"SM1\",\"status\":\"SENT\"}", 8), sent);
+		assertFalse(capped.nextStatusCheckAt().isAfter(LocalDateTime.now().plusHours(1)),
+				"The interval is capped at the maximum.");
+		assertNull(service.statusCheck(queued(1L, "{\"sid\":\"SM1\",\"status\":\"SENT\"}", 9), sent)
+				.nextStatusCheckAt(), "Messages are not checked again after the maximum attempts.");
+
+		service.applyStatusUpdates(List.of(update));
+		verify(notificationJdbcWriter).rescheduleStatusChecks(
+				List.of(new StatusChange(1L, null, null, 3, update.nextStatusCheckAt())));
+		verify(notificationJdbcWriter).updateStatuses(List.of());
+	}
+
+	private Message message(Message.Status status) {
+		var message = mock(Message.class);
+		when(message.getStatus()).thenReturn(status);
+		return message;
+	}
+
+	private QueuedTwilioNotification queued(Long id, String deliveryDetails) throws Exception {
+		return queued(id, deliveryDetails, 0);
+	}
+
+	private QueuedTwilioNotification queued(Long id, String deliveryDetails, int statusCheckAttempts)
+			throws Exception {
+		var statusMetadata = NotificationJson.write(new NotificationStatusMetadata(new ValidationResult(true, null),
+				new DispatchResult(true, "content", "555-555-5555", deliveryDetails, null)));
+		return new QueuedTwilioNotification() {
+
+			@Override
+			public Long getId() {
+				return id;
+			}
+
+			@Override
+			public String getNotificationStatusMetadata() {
+				return statusMetadata;
+			}
+
+			@Override
+			public Integer getStatusCheckAttempts() {
+				return statusCheckAttempts;
+			}
+
+		};
+	}
+
+}
@@ -0,0 +1,46 @@
+package org.octri.notification.view;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+public class NotificationListFilterTest {
+
+	@Test
+	void testDefaultPageable() {
+		var pageable = new NotificationListFilter().toPageable();
+		assertEquals(0, pageable.getPageNumber(), "The first page is shown by default.");
+		assertEquals(NotificationListFilter.DEFAULT_PAGE_SIZE, pageable.getPageSize(), "The default page size is used.");
+		assertEquals(Sort.by(Sort.Direction.DESC, "dateScheduled", "id"), pageable.getSort(),
+				"The newest scheduled notifications are shown first.");
+	}
+
+	@Test
+	void testPageableIsLimited() {
+		var filter = new NotificationListFilter();
+		filter.setSort("notificationMetadata");
+		filter.setDirection("asc");
+		filter.setPage(-1);
+		filter.setSize(100000);
+		var pageable = filter.toPageable();
+		assertEquals(0, pageable.getPageNumber(), "Negative pages are not requested.");
+		assertEquals(NotificationListFilter.MAX_PAGE_SIZE, pageable.getPageSize(), "The page size is capped.");
+		assertEquals(Sort.by(Sort.Direction.ASC, "dateScheduled", "id"), pageable.getSort(),
+				"Unknown sort properties fall back to the scheduled date.");
+	}
+
+	@Test
+	void testQueryStringKeepsFilters() {
+		var filter = new NotificationListFilter();
+		filter.setStatus("SENT");
+		filter.setType("");
+		filter.setRecipient("a b");
+		filter.setFrom(LocalDate.of(2026, 1, 2));
+		assertEquals("status=SENT&recipient=a%20b&from=2026-01-02&sort=dateScheduled&direction=desc&page=3",
+				filter.queryString(3), "Blank filters are left out and values are encoded.");
+	}
+
+}